@@ -3,6 +3,11 @@ CREATE TABLE IF NOT EXISTS blueprints (
     id SERIAL PRIMARY KEY,
     author VARCHAR(100) NOT NULL,
     name VARCHAR(100) NOT NULL,
+    -- Caja envolvente de los puntos (NULL sin puntos); la aplicación la ensancha al agregar puntos
+    min_x INT,
+    min_y INT,
+    max_x INT,
+    max_y INT,
     UNIQUE (author, name)
 );
 
@@ -15,6 +20,10 @@ CREATE TABLE IF NOT EXISTS blueprint_points (
     PRIMARY KEY (blueprint_id, point_order)
 );
 
+-- Índice para consultas por región dentro de un blueprint: sus puntos dentro de una caja.
+-- La búsqueda de blueprints por región filtra por las columnas de caja de blueprints, sin leer puntos
+CREATE INDEX IF NOT EXISTS idx_blueprint_points_xy ON blueprint_points (blueprint_id, x, y);
+
 -- Blueprints
 INSERT INTO blueprints (author, name) VALUES
 ('john', 'house'),
@@ -39,3 +48,10 @@ INSERT INTO blueprint_points (blueprint_id, x, y, point_order) VALUES
 (3, 2, 2, 0),
 (3, 3, 4, 1),
 (3, 6, 7, 2);
+
+-- Cajas envolventes a partir de los puntos. En una base creada antes de las columnas min_x..max_y
+-- (Hibernate las agrega vacías con ddl-auto=update), ejecutar esta sentencia una vez
+UPDATE blueprints b SET min_x = p.min_x, min_y = p.min_y, max_x = p.max_x, max_y = p.max_y
+FROM (SELECT blueprint_id, MIN(x) AS min_x, MIN(y) AS min_y, MAX(x) AS max_x, MAX(y) AS max_y
+      FROM blueprint_points GROUP BY blueprint_id) p
+WHERE p.blueprint_id = b.id;
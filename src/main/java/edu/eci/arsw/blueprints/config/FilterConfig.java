@@ -0,0 +1,27 @@
+package edu.eci.arsw.blueprints.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+
+import edu.eci.arsw.blueprints.filters.BlueprintsFilter;
+import edu.eci.arsw.blueprints.filters.FilterCatalog;
+
+/**
+ * Filtro por defecto de las lecturas.
+ * Con blueprints.filters (por ejemplo "redundancy,undersampling") se arma un pipeline con el
+ * catálogo y reemplaza al filtro elegido por perfil; sin la propiedad se mantiene el perfil
+ * (redundancy, undersampling o identidad).
+ */
+@Configuration
+public class FilterConfig {
+
+    @Bean
+    @Primary
+    @ConditionalOnProperty(name = "blueprints.filters")
+    public BlueprintsFilter configuredFilter(FilterCatalog catalog, @Value("${blueprints.filters}") String spec) {
+        return catalog.resolve(spec);
+    }
+}
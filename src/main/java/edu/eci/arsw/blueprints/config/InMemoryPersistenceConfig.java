@@ -0,0 +1,28 @@
+package edu.eci.arsw.blueprints.config;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+
+import edu.eci.arsw.blueprints.persistence.InMemoryBlueprintPersistence;
+import edu.eci.arsw.blueprints.persistence.InstrumentedBlueprintPersistence;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Almacenamiento en memoria (blueprints.persistence=memory, el valor por defecto).
+ * InMemoryBlueprintPersistence queda envuelto en InstrumentedBlueprintPersistence
+ * (blueprints.persistence con store=InMemoryBlueprintPersistence), que es el bean principal que
+ * reciben los servicios. Las métricas de tamaño siguen leyendo el almacén por su tipo (ver MetricsConfig).
+ */
+@Configuration
+@ConditionalOnProperty(name = "blueprints.persistence", havingValue = "memory", matchIfMissing = true)
+public class InMemoryPersistenceConfig {
+
+    @Bean
+    @Primary
+    public InstrumentedBlueprintPersistence instrumentedBlueprintPersistence(InMemoryBlueprintPersistence store,
+                                                                            MeterRegistry registry) {
+        return new InstrumentedBlueprintPersistence(store, registry);
+    }
+}
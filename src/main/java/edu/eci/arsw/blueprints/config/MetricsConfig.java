@@ -0,0 +1,107 @@
+package edu.eci.arsw.blueprints.config;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import edu.eci.arsw.blueprints.persistence.CachingBlueprintPersistence;
+import edu.eci.arsw.blueprints.persistence.ConcurrencyLimitedBlueprintPersistence;
+import edu.eci.arsw.blueprints.persistence.InMemoryBlueprintPersistence;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+/**
+ * Métricas de tamaño del almacenamiento, leídas solo cuando se consultan /actuator/metrics o
+ * /actuator/prometheus.
+ * Con InMemoryBlueprintPersistence: blueprints, autores y puntos guardados (blueprints.store.*).
+ * Con la caché delante de Postgres: entradas, aciertos, fallos y desalojos (blueprints.cache.*).
+ * Con Postgres: operaciones dentro del límite de concurrencia y las que esperan turno (blueprints.db.*).
+ * De STOMP: sesiones abiertas, bytes y frames que esperan a un navegador lento, frames fusionados,
+ * sesiones cerradas por lentas y tareas en cola de los canales de entrada y salida (blueprints.stomp.*).
+ * Los tiempos por operación los registran BlueprintsServices, InstrumentedBlueprintPersistence,
+ * BlueprintWebSocketController y BlueprintEventBroadcaster.
+ */
+@Configuration
+public class MetricsConfig {
+
+    @Bean
+    public MeterBinder blueprintStoreMetrics(ObjectProvider<InMemoryBlueprintPersistence> memory,
+                                             ObjectProvider<CachingBlueprintPersistence> cache,
+                                             ObjectProvider<ConcurrencyLimitedBlueprintPersistence> limited) {
+        return registry -> {
+            memory.ifAvailable(store -> {
+                Gauge.builder("blueprints.store.blueprints", store, InMemoryBlueprintPersistence::getBlueprintCount)
+                    .description("Blueprints en memoria")
+                    .register(registry);
+                Gauge.builder("blueprints.store.authors", store, InMemoryBlueprintPersistence::getAuthorCount)
+                    .description("Autores con al menos un blueprint en memoria")
+                    .register(registry);
+                Gauge.builder("blueprints.store.points", store, InMemoryBlueprintPersistence::getPointCount)
+                    .description("Puntos guardados en memoria, sumados sobre todos los blueprints")
+                    .register(registry);
+            });
+            cache.ifAvailable(c -> {
+                Gauge.builder("blueprints.cache.size", c, CachingBlueprintPersistence::getEstimatedSize)
+                    .description("Blueprints en la caché de lectura")
+                    .register(registry);
+                FunctionCounter.builder("blueprints.cache.requests", c, x -> x.getStats().hitCount())
+                    .tag("result", "hit")
+                    .description("Lecturas de la caché")
+                    .register(registry);
+                FunctionCounter.builder("blueprints.cache.requests", c, x -> x.getStats().missCount())
+                    .tag("result", "miss")
+                    .description("Lecturas de la caché")
+                    .register(registry);
+                FunctionCounter.builder("blueprints.cache.evictions", c, x -> x.getStats().evictionCount())
+                    .description("Entradas desalojadas por tamaño o expiración")
+                    .register(registry);
+            });
+            limited.ifAvailable(db -> {
+                Gauge.builder("blueprints.db.active", db, ConcurrencyLimitedBlueprintPersistence::getActiveCount)
+                    .description("Operaciones en curso contra la base")
+                    .register(registry);
+                Gauge.builder("blueprints.db.waiting", db, ConcurrencyLimitedBlueprintPersistence::getWaitingCount)
+                    .description("Operaciones esperando turno para la base")
+                    .register(registry);
+            });
+        };
+    }
+
+    @Bean
+    public MeterBinder stompSessionMetrics(SlowConsumerGuard guard,
+                                           @Qualifier("clientInboundChannelExecutor") ObjectProvider<TaskExecutor> inbound,
+                                           @Qualifier("clientOutboundChannelExecutor") ObjectProvider<TaskExecutor> outbound) {
+        return registry -> {
+            Gauge.builder("blueprints.stomp.sessions", guard, SlowConsumerGuard::getSessionCount)
+                .description("Sesiones WebSocket abiertas")
+                .register(registry);
+            Gauge.builder("blueprints.stomp.buffer.bytes", guard, SlowConsumerGuard::getBufferedBytes)
+                .description("Bytes encolados esperando el socket, sumados sobre todas las sesiones")
+                .register(registry);
+            Gauge.builder("blueprints.stomp.buffer.messages", guard, SlowConsumerGuard::getBufferedMessages)
+                .description("Frames encolados esperando el socket, sumados sobre todas las sesiones")
+                .register(registry);
+            FunctionCounter.builder("blueprints.stomp.conflated", guard, SlowConsumerGuard::getConflatedCount)
+                .description("Frames reemplazados por uno más reciente de la misma suscripción")
+                .register(registry);
+            FunctionCounter.builder("blueprints.stomp.disconnected", guard, SlowConsumerGuard::getDisconnectedCount)
+                .description("Sesiones cerradas por superar el tiempo de envío o el buffer")
+                .register(registry);
+            // Con hilos virtuales el canal de entrada no tiene cola
+            if (inbound.getIfAvailable() instanceof ThreadPoolTaskExecutor pool) channelQueue(registry, "inbound", pool);
+            if (outbound.getIfAvailable() instanceof ThreadPoolTaskExecutor pool) channelQueue(registry, "outbound", pool);
+        };
+    }
+
+    private static void channelQueue(MeterRegistry registry, String channel, ThreadPoolTaskExecutor pool) {
+        Gauge.builder("blueprints.stomp.channel.queue", pool, ThreadPoolTaskExecutor::getQueueSize)
+            .tag("channel", channel)
+            .description("Mensajes esperando un hilo del canal")
+            .register(registry);
+    }
+}
@@ -0,0 +1,67 @@
+package edu.eci.arsw.blueprints.config;
+
+import java.time.Duration;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+
+import edu.eci.arsw.blueprints.persistence.CachingBlueprintPersistence;
+import edu.eci.arsw.blueprints.persistence.ConcurrencyLimitedBlueprintPersistence;
+import edu.eci.arsw.blueprints.persistence.InstrumentedBlueprintPersistence;
+import edu.eci.arsw.blueprints.persistence.PostgresBlueprintPersistence;
+import edu.eci.arsw.blueprints.persistence.repository.JpaBlueprintRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Selección del almacenamiento de blueprints.
+ * Con blueprints.persistence=postgres se registra PostgresBlueprintPersistence detrás de un
+ * límite de concurrencia y, si blueprints.cache.enabled es true (por defecto), una caché de
+ * lectura delante de ambos que queda como bean principal. Con el valor por defecto (memory) se
+ * usa InMemoryBlueprintPersistence.
+ * El límite (blueprints.db.max-concurrency, por defecto el tamaño del pool de Hikari) hace esperar
+ * en orden a las operaciones que no tienen conexión; pasado blueprints.db.acquire-timeout fallan
+ * y la API responde 503. Los aciertos de la caché no ocupan turno.
+ * PostgresBlueprintPersistence no se inyecta por tipo: todo acceso pasa por el límite.
+ * Dentro del límite, InstrumentedBlueprintPersistence mide solo el trabajo contra la base
+ * (blueprints.persistence con store=PostgresBlueprintPersistence); la espera por turno se ve en
+ * blueprints.db.waiting y los aciertos de la caché en blueprints.cache.requests.
+ */
+@Configuration
+@ConditionalOnProperty(name = "blueprints.persistence", havingValue = "postgres")
+public class PersistenceConfig {
+
+    @Bean(autowireCandidate = false)
+    public PostgresBlueprintPersistence postgresBlueprintPersistence(JpaBlueprintRepository repository) {
+        return new PostgresBlueprintPersistence(repository);
+    }
+
+    @Bean(autowireCandidate = false)
+    public InstrumentedBlueprintPersistence instrumentedPostgresPersistence(JpaBlueprintRepository repository,
+                                                                           MeterRegistry registry) {
+        // Llamada entre métodos @Bean: retorna el singleton (con su proxy transaccional)
+        return new InstrumentedBlueprintPersistence(postgresBlueprintPersistence(repository), registry);
+    }
+
+    @Bean
+    public ConcurrencyLimitedBlueprintPersistence limitedBlueprintPersistence(
+            JpaBlueprintRepository repository,
+            MeterRegistry registry,
+            @Value("${blueprints.db.max-concurrency:${spring.datasource.hikari.maximum-pool-size:10}}") int maxConcurrency,
+            @Value("${blueprints.db.acquire-timeout:5s}") Duration acquireTimeout) {
+        return new ConcurrencyLimitedBlueprintPersistence(
+            instrumentedPostgresPersistence(repository, registry), maxConcurrency, acquireTimeout);
+    }
+
+    @Bean
+    @Primary
+    @ConditionalOnProperty(name = "blueprints.cache.enabled", havingValue = "true", matchIfMissing = true)
+    public CachingBlueprintPersistence cachingBlueprintPersistence(
+            ConcurrencyLimitedBlueprintPersistence postgres,
+            @Value("${blueprints.cache.maximum-size:10000}") long maximumSize,
+            @Value("${blueprints.cache.expire-after-write:10m}") Duration expireAfterWrite) {
+        return new CachingBlueprintPersistence(postgres, maximumSize, expireAfterWrite);
+    }
+}
@@ -0,0 +1,95 @@
+package edu.eci.arsw.blueprints.config;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.core.task.VirtualThreadTaskExecutor;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.WebSocketHandler;
+import org.springframework.web.socket.WebSocketSession;
+import org.springframework.web.socket.handler.WebSocketHandlerDecorator;
+import org.springframework.web.socket.handler.WebSocketHandlerDecoratorFactory;
+
+/**
+ * Protección contra suscriptores lentos en las sesiones STOMP.
+ * Envuelve cada sesión en un {@link SlowConsumerSessionDecorator} con la política de
+ * blueprints.stomp.slow-consumer (disconnect, por defecto, o conflate) y los límites
+ * blueprints.stomp.send-time-limit y blueprints.stomp.send-buffer-size-limit, y lleva la cuenta
+ * de las sesiones abiertas para las métricas (ver MetricsConfig).
+ * Las escrituras al socket corren en hilos virtuales: una por sesión mientras tenga frames
+ * pendientes, sin ocupar hilos del sistema mientras esperan a un navegador lento.
+ */
+@Component
+public class SlowConsumerGuard implements WebSocketHandlerDecoratorFactory {
+
+    private final SlowConsumerSessionDecorator.Policy policy;
+    private final int sendTimeLimit;
+    private final int sendBufferSizeLimit;
+    private final TaskExecutor writer = new VirtualThreadTaskExecutor("stomp-send-");
+    private final Map<String, SlowConsumerSessionDecorator> sessions = new ConcurrentHashMap<>();
+    private final LongAdder conflated = new LongAdder();
+    private final LongAdder disconnected = new LongAdder();
+
+    public SlowConsumerGuard(@Value("${blueprints.stomp.slow-consumer:disconnect}") String policy,
+                             @Value("${blueprints.stomp.send-time-limit:10s}") Duration sendTimeLimit,
+                             @Value("${blueprints.stomp.send-buffer-size-limit:512KB}") DataSize sendBufferSizeLimit) {
+        this.policy = SlowConsumerSessionDecorator.Policy.of(policy);
+        this.sendTimeLimit = Math.toIntExact(sendTimeLimit.toMillis());
+        this.sendBufferSizeLimit = Math.toIntExact(sendBufferSizeLimit.toBytes());
+    }
+
+    @Override
+    public WebSocketHandler decorate(WebSocketHandler handler) {
+        return new WebSocketHandlerDecorator(handler) {
+            @Override
+            public void afterConnectionEstablished(WebSocketSession session) throws Exception {
+                SlowConsumerSessionDecorator guarded = new SlowConsumerSessionDecorator(
+                    session, writer, policy, sendTimeLimit, sendBufferSizeLimit, conflated);
+                sessions.put(session.getId(), guarded);
+                super.afterConnectionEstablished(guarded);
+            }
+
+            @Override
+            public void afterConnectionClosed(WebSocketSession session, CloseStatus closeStatus) throws Exception {
+                SlowConsumerSessionDecorator guarded = sessions.remove(session.getId());
+                if (guarded != null) {
+                    if (guarded.isLimitExceeded()) disconnected.increment();
+                    guarded.discardPending();
+                }
+                super.afterConnectionClosed(session, closeStatus);
+            }
+        };
+    }
+
+    public SlowConsumerSessionDecorator.Policy getPolicy() { return policy; }
+
+    /** Milisegundos que puede durar una escritura antes de cerrar la sesión */
+    public int getSendTimeLimit() { return sendTimeLimit; }
+
+    /** Bytes que puede acumular una sesión mientras espera al socket */
+    public int getSendBufferSizeLimit() { return sendBufferSizeLimit; }
+
+    public int getSessionCount() { return sessions.size(); }
+
+    public long getBufferedBytes() {
+        long total = 0;
+        for (SlowConsumerSessionDecorator s : sessions.values()) total += s.getBufferSize();
+        return total;
+    }
+
+    public long getBufferedMessages() {
+        long total = 0;
+        for (SlowConsumerSessionDecorator s : sessions.values()) total += s.getBufferedMessages();
+        return total;
+    }
+
+    public long getConflatedCount() { return conflated.sum(); }
+
+    public long getDisconnectedCount() { return disconnected.sum(); }
+}
@@ -0,0 +1,214 @@
+package edu.eci.arsw.blueprints.config;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.springframework.web.socket.BinaryMessage;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketMessage;
+import org.springframework.web.socket.WebSocketSession;
+import org.springframework.web.socket.handler.SessionLimitExceededException;
+import org.springframework.web.socket.handler.WebSocketSessionDecorator;
+
+/**
+ * Sesión WebSocket cuyo sendMessage nunca bloquea al hilo que envía.
+ * Los frames se encolan y una tarea propia de la sesión (en el executor recibido) los escribe en
+ * el socket, en orden; mientras el navegador lee al ritmo del servidor la cola queda vacía. Así
+ * una pestaña lenta no retiene hilos de clientOutboundChannel ni frena a las demás sesiones.
+ *
+ * Cuando la sesión se atrasa, el siguiente envío lanza SessionLimitExceededException y Spring la
+ * cierra con SESSION_NOT_RELIABLE si se encolaron más de bufferSizeLimit bytes o si la escritura
+ * en curso lleva más de sendTimeLimit. Con la política CONFLATE, antes de contar, un frame MESSAGE
+ * de un topic de blueprint (/topic/blueprints.{author}.{name}) reemplaza al pendiente de la misma
+ * suscripción: el cliente recibe solo el último delta, ve el salto en sequence y pide lo que le
+ * falta con GET .../points?from=. Los demás frames (eventos de catálogo, heartbeats, recibos) no
+ * se fusionan nunca.
+ */
+public class SlowConsumerSessionDecorator extends WebSocketSessionDecorator {
+
+    public enum Policy {
+        DISCONNECT, CONFLATE;
+
+        /**
+         * @throws IllegalArgumentException si el nombre no corresponde a ninguna política
+         */
+        public static Policy of(String name) {
+            try {
+                return valueOf(name.trim().toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Política desconocida: " + name + " (disponibles: disconnect, conflate)");
+            }
+        }
+    }
+
+    // Topics por blueprint: sus eventos POINTS_APPENDED llevan sequence, así que el cliente detecta lo fusionado
+    private static final String CONFLATABLE_PREFIX = "/topic/blueprints.";
+    // Los encabezados que interesan van al inicio del frame
+    private static final int HEADER_SCAN_LIMIT = 1024;
+
+    private final Executor writer;
+    private final Policy policy;
+    private final long sendTimeLimitNanos;
+    private final int bufferSizeLimit;
+    private final LongAdder conflated;
+    // Llave: id de suscripción si el frame se puede fusionar; si no, un objeto nuevo por frame
+    private final Map<Object, WebSocketMessage<?>> pending = new LinkedHashMap<>();
+    private int bufferSize;
+    private boolean writing;
+    private volatile long sendStartNanos;
+    private volatile boolean limitExceeded;
+    private volatile boolean discarded;
+
+    /**
+     * @param writer ejecuta la tarea que vacía la cola; una por ráfaga, nunca dos a la vez
+     * @param conflated contador compartido de frames reemplazados
+     */
+    public SlowConsumerSessionDecorator(WebSocketSession session, Executor writer, Policy policy,
+                                        int sendTimeLimit, int bufferSizeLimit, LongAdder conflated) {
+        super(session);
+        this.writer = writer;
+        this.policy = policy;
+        this.sendTimeLimitNanos = TimeUnit.MILLISECONDS.toNanos(sendTimeLimit);
+        this.bufferSizeLimit = bufferSizeLimit;
+        this.conflated = conflated;
+    }
+
+    @Override
+    public void sendMessage(WebSocketMessage<?> message) throws IOException {
+        if (limitExceeded || discarded) return;
+        synchronized (pending) {
+            Object key = policy == Policy.CONFLATE ? conflationKey(message) : null;
+            if (key == null) {
+                key = new Object();
+            } else {
+                // Se quita y se vuelve a poner para que el último ocupe su lugar real en el orden
+                WebSocketMessage<?> previous = pending.remove(key);
+                if (previous != null) {
+                    bufferSize -= previous.getPayloadLength();
+                    conflated.increment();
+                }
+            }
+            pending.put(key, message);
+            bufferSize += message.getPayloadLength();
+            if (writing) {
+                checkLimits();
+                return;
+            }
+            writing = true;
+        }
+        writer.execute(this::drain);
+    }
+
+    /* Solo se llama con una escritura en curso: el primer frame de una ráfaga sale sin importar su tamaño */
+    private void checkLimits() throws SessionLimitExceededException {
+        long started = sendStartNanos;
+        String reason = null;
+        if (started != 0 && System.nanoTime() - started > sendTimeLimitNanos) {
+            reason = "Escritura bloqueada más de " + TimeUnit.NANOSECONDS.toMillis(sendTimeLimitNanos) + " ms";
+        } else if (bufferSize > bufferSizeLimit) {
+            reason = "Buffer de envío de " + bufferSize + " bytes, límite " + bufferSizeLimit;
+        }
+        if (reason != null) {
+            limitExceeded = true;
+            pending.clear();
+            bufferSize = 0;
+            throw new SessionLimitExceededException(reason + " en la sesión " + getId(), CloseStatus.SESSION_NOT_RELIABLE);
+        }
+    }
+
+    private void drain() {
+        while (true) {
+            WebSocketMessage<?> next;
+            synchronized (pending) {
+                Iterator<WebSocketMessage<?>> it = pending.values().iterator();
+                if (limitExceeded || discarded || !it.hasNext()) {
+                    writing = false;
+                    return;
+                }
+                next = it.next();
+                it.remove();
+                bufferSize -= next.getPayloadLength();
+                sendStartNanos = System.nanoTime();
+            }
+            try {
+                getDelegate().sendMessage(next);
+            } catch (IOException | RuntimeException e) {
+                // El socket falló: se descarta lo pendiente; Spring limpia la sesión al cerrarse
+                discardPending();
+                try {
+                    getDelegate().close(CloseStatus.SESSION_NOT_RELIABLE);
+                } catch (IOException ignored) {
+                    // ya estaba cerrada
+                }
+                return;
+            } finally {
+                sendStartNanos = 0;
+            }
+        }
+    }
+
+    /**
+     * Libera los frames encolados y descarta los siguientes; se llama al cerrar la sesión.
+     */
+    public void discardPending() {
+        synchronized (pending) {
+            discarded = true;
+            pending.clear();
+            bufferSize = 0;
+            writing = false;
+        }
+    }
+
+    @Override
+    public void close(CloseStatus status) throws IOException {
+        discardPending();
+        super.close(status);
+    }
+
+    /* Id de la suscripción si el frame es un MESSAGE de un topic de blueprint; null en otro caso */
+    static String conflationKey(WebSocketMessage<?> message) {
+        String head;
+        if (message instanceof TextMessage text) {
+            String payload = text.getPayload();
+            head = payload.substring(0, Math.min(payload.length(), HEADER_SCAN_LIMIT));
+        } else if (message instanceof BinaryMessage binary) {
+            ByteBuffer payload = binary.getPayload().duplicate();
+            byte[] bytes = new byte[Math.min(payload.remaining(), HEADER_SCAN_LIMIT)];
+            payload.get(bytes);
+            head = new String(bytes, StandardCharsets.UTF_8);
+        } else {
+            return null;
+        }
+        if (!head.startsWith("MESSAGE\n") && !head.startsWith("MESSAGE\r\n")) return null;
+
+        String destination = null;
+        String subscription = null;
+        for (String line : head.split("\n")) {
+            if (line.isEmpty() || line.equals("\r")) break;
+            if (line.endsWith("\r")) line = line.substring(0, line.length() - 1);
+            if (destination == null && line.startsWith("destination:")) destination = line.substring(12);
+            else if (subscription == null && line.startsWith("subscription:")) subscription = line.substring(13);
+        }
+        if (destination == null || subscription == null || !destination.startsWith(CONFLATABLE_PREFIX)) return null;
+        return subscription;
+    }
+
+    public boolean isLimitExceeded() { return limitExceeded; }
+
+    public int getBufferSize() {
+        synchronized (pending) { return bufferSize; }
+    }
+
+    public int getBufferedMessages() {
+        synchronized (pending) { return pending.size(); }
+    }
+}
@@ -0,0 +1,87 @@
+package edu.eci.arsw.blueprints.config;
+
+import java.util.concurrent.ThreadPoolExecutor;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.messaging.simp.config.ChannelRegistration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.socket.config.annotation.WebSocketMessageBrokerConfigurer;
+import org.springframework.web.socket.config.annotation.WebSocketTransportRegistration;
+
+/**
+ * Límites del transporte STOMP y tamaño de sus canales.
+ * - Transporte: tamaño máximo de un mensaje entrante (blueprints.stomp.message-size-limit) y, por
+ *   sesión, el tiempo de escritura y el buffer de envío que admite {@link SlowConsumerGuard}.
+ * - Canales: clientInboundChannel (mensajes de los navegadores hacia /app) y clientOutboundChannel
+ *   (frames hacia los navegadores) con blueprints.stomp.{inbound,outbound}.pool-size hilos (por
+ *   defecto 2 por núcleo, como Spring) y una cola de blueprints.stomp.{inbound,outbound}.queue-capacity
+ *   tareas. Con la cola llena, el hilo que publica atiende la tarea él mismo: en la entrada eso deja
+ *   de leer el socket de ese cliente hasta ponerse al día, en lugar de acumular mensajes en memoria.
+ * Con spring.threads.virtual.enabled=true el canal de entrada usa hilos virtuales (ver
+ * WebSocketConfig) y su tamaño aquí no aplica; la concurrencia contra la base ya la acota
+ * ConcurrencyLimitedBlueprintPersistence.
+ */
+@Configuration
+public class StompTransportConfig implements WebSocketMessageBrokerConfigurer {
+
+    private static final int DEFAULT_POOL_SIZE = Runtime.getRuntime().availableProcessors() * 2;
+
+    private final SlowConsumerGuard guard;
+    private final int messageSizeLimit;
+    private final int inboundPoolSize;
+    private final int inboundQueueCapacity;
+    private final int outboundPoolSize;
+    private final int outboundQueueCapacity;
+    private final boolean virtualThreads;
+
+    public StompTransportConfig(SlowConsumerGuard guard,
+                                @Value("${blueprints.stomp.message-size-limit:64KB}") DataSize messageSizeLimit,
+                                @Value("${blueprints.stomp.inbound.pool-size:0}") int inboundPoolSize,
+                                @Value("${blueprints.stomp.inbound.queue-capacity:1000}") int inboundQueueCapacity,
+                                @Value("${blueprints.stomp.outbound.pool-size:0}") int outboundPoolSize,
+                                @Value("${blueprints.stomp.outbound.queue-capacity:10000}") int outboundQueueCapacity,
+                                @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads) {
+        this.guard = guard;
+        this.messageSizeLimit = Math.toIntExact(messageSizeLimit.toBytes());
+        this.inboundPoolSize = inboundPoolSize > 0 ? inboundPoolSize : DEFAULT_POOL_SIZE;
+        this.inboundQueueCapacity = inboundQueueCapacity;
+        this.outboundPoolSize = outboundPoolSize > 0 ? outboundPoolSize : DEFAULT_POOL_SIZE;
+        this.outboundQueueCapacity = outboundQueueCapacity;
+        this.virtualThreads = virtualThreads;
+    }
+
+    /*
+     * Spring envuelve además cada sesión con sus propios límites (ConcurrentWebSocketSessionDecorator);
+     * como el decorador del guard nunca bloquea, ese buffer no llega a llenarse, pero se le dan los
+     * mismos valores para que ningún camino quede sin límite.
+     */
+    @Override
+    public void configureWebSocketTransport(WebSocketTransportRegistration registration) {
+        registration.setMessageSizeLimit(messageSizeLimit)
+            .setSendTimeLimit(guard.getSendTimeLimit())
+            .setSendBufferSizeLimit(guard.getSendBufferSizeLimit())
+            .addDecoratorFactory(guard);
+    }
+
+    @Override
+    public void configureClientInboundChannel(ChannelRegistration registration) {
+        if (!virtualThreads) configure(registration, inboundPoolSize, inboundQueueCapacity);
+    }
+
+    @Override
+    public void configureClientOutboundChannel(ChannelRegistration registration) {
+        configure(registration, outboundPoolSize, outboundQueueCapacity);
+    }
+
+    /* Pool fijo: con una cola acotada, más hilos solo aparecerían cuando ya hay retraso */
+    private static void configure(ChannelRegistration registration, int poolSize, int queueCapacity) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        registration.taskExecutor(executor)
+            .corePoolSize(poolSize)
+            .maxPoolSize(poolSize)
+            .queueCapacity(queueCapacity);
+    }
+}
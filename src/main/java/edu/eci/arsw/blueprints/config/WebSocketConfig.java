@@ -1,11 +1,27 @@
 package edu.eci.arsw.blueprints.config;
 
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.core.task.VirtualThreadTaskExecutor;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageHeaders;
+import org.springframework.messaging.converter.MappingJackson2MessageConverter;
+import org.springframework.messaging.converter.MessageConverter;
+import org.springframework.messaging.simp.config.ChannelRegistration;
 import org.springframework.messaging.simp.config.MessageBrokerRegistry;
+import org.springframework.messaging.simp.config.SimpleBrokerRegistration;
+import org.springframework.scheduling.TaskScheduler;
 import org.springframework.web.socket.config.annotation.EnableWebSocketMessageBroker;
 import org.springframework.web.socket.config.annotation.StompEndpointRegistry;
 import org.springframework.web.socket.config.annotation.WebSocketMessageBrokerConfigurer;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+
 /**
  * Configuración de WebSocket con STOMP.
  * 
@@ -14,11 +30,48 @@ import org.springframework.web.socket.config.annotation.WebSocketMessageBrokerCo
  * - Suscribirse a "topics" (canales) para recibir mensajes
  * - Enviar mensajes a destinos específicos
  * - Comunicación bidireccional en tiempo real
+ *
+ * Los broadcasts salen en el formato de blueprints.stomp.format (json por defecto, smile o cbor;
+ * ver {@link WireFormat}). Los mensajes que envían los clientes se siguen leyendo como JSON.
+ *
+ * Con spring.threads.virtual.enabled=true (Spring Boot ya atiende así las peticiones MVC en
+ * Tomcat) los mensajes STOMP entrantes también se procesan cada uno en un hilo virtual, en lugar
+ * del pool fijo de clientInboundChannel.
+ *
+ * El broker intercambia heartbeats con cada cliente cada blueprints.stomp.heartbeat ms (envío,
+ * recepción; 0,0 los apaga): una pestaña que dejó de responder se cierra en lugar de seguir
+ * acumulando mensajes. Los límites por sesión y el tamaño de los canales están en
+ * {@link StompTransportConfig}.
  */
 @Configuration
 @EnableWebSocketMessageBroker
 public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
 
+    private final WireFormat stompFormat;
+    private final Jackson2ObjectMapperBuilder mapperBuilder;
+    private final boolean virtualThreads;
+    private final long[] heartbeat;
+    private final TaskScheduler heartbeatScheduler;
+
+    /**
+     * @param heartbeatScheduler el scheduler del propio broker; @Lazy porque lo define la
+     *        configuración que usa esta clase
+     */
+    public WebSocketConfig(@Value("${blueprints.stomp.format:json}") String stompFormat,
+                           Jackson2ObjectMapperBuilder mapperBuilder,
+                           @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads,
+                           @Value("${blueprints.stomp.heartbeat:10000,10000}") long[] heartbeat,
+                           @Lazy @Qualifier("messageBrokerTaskScheduler") TaskScheduler heartbeatScheduler) {
+        if (heartbeat.length != 2) {
+            throw new IllegalArgumentException("blueprints.stomp.heartbeat espera dos valores (envío,recepción)");
+        }
+        this.stompFormat = WireFormat.of(stompFormat);
+        this.mapperBuilder = mapperBuilder;
+        this.virtualThreads = virtualThreads;
+        this.heartbeat = heartbeat;
+        this.heartbeatScheduler = heartbeatScheduler;
+    }
+
     /*
      * Configura el endpoint de WebSocket y el broker de mensajes.
      * - El endpoint es la URL a la que los clientes se conectarán para usar
@@ -42,8 +95,55 @@ public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
      */
     @Override
     public void configureMessageBroker(MessageBrokerRegistry registry) {
-        registry.enableSimpleBroker("/topic", "/queue");
+        SimpleBrokerRegistration broker = registry.enableSimpleBroker("/topic", "/queue");
+        if (heartbeat[0] > 0 || heartbeat[1] > 0) {
+            broker.setHeartbeatValue(heartbeat).setTaskScheduler(heartbeatScheduler);
+        }
         registry.setApplicationDestinationPrefixes("/app");
         registry.setUserDestinationPrefix("/user");
     }
+
+    /*
+     * Los handlers de /app bloquean en JDBC con blueprints.persistence=postgres; en hilos virtuales
+     * esa espera no ocupa un hilo del sistema, y la concurrencia contra la base la acota
+     * ConcurrencyLimitedBlueprintPersistence (ver PersistenceConfig).
+     */
+    @Override
+    public void configureClientInboundChannel(ChannelRegistration registration) {
+        if (virtualThreads) {
+            registration.executor(new VirtualThreadTaskExecutor("stomp-inbound-"));
+        }
+    }
+
+    /*
+     * Con un formato binario se agrega, antes de los conversores de Spring Boot, uno que solo
+     * escribe: codifica los objetos salientes y deja la lectura de mensajes entrantes, y los
+     * payloads que ya son String o byte[], a los conversores por defecto.
+     */
+    @Override
+    public boolean configureMessageConverters(List<MessageConverter> messageConverters) {
+        if (stompFormat.isBinary()) {
+            messageConverters.add(0, new OutboundConverter(stompFormat.newMapper(mapperBuilder), stompFormat));
+        }
+        return true;
+    }
+
+    private static final class OutboundConverter extends MappingJackson2MessageConverter {
+
+        OutboundConverter(ObjectMapper mapper, WireFormat format) {
+            super(format.getStompContentType());
+            setObjectMapper(mapper);
+            setSerializedPayloadClass(byte[].class);
+        }
+
+        @Override
+        protected boolean canConvertTo(Object payload, MessageHeaders headers) {
+            return !(payload instanceof String) && !(payload instanceof byte[]) && super.canConvertTo(payload, headers);
+        }
+
+        @Override
+        protected boolean canConvertFrom(Message<?> message, Class<?> targetClass) {
+            return false;
+        }
+    }
 }
@@ -0,0 +1,68 @@
+package edu.eci.arsw.blueprints.config;
+
+import java.util.Locale;
+import java.util.Map;
+
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.util.MimeType;
+import org.springframework.util.MimeTypeUtils;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Codificaciones de Blueprint y BlueprintEvent en la red.
+ * SMILE y CBOR son JSON binario: mismos campos y mismas clases, pero sin texto numérico y, en
+ * Smile, con los nombres de campo repetidos ("x", "y") reemplazados por referencias de un byte.
+ * En REST se eligen con el encabezado Accept; en STOMP el broker envía el mismo mensaje a todos
+ * los suscriptores, así que el formato de los broadcasts es uno solo (blueprints.stomp.format).
+ */
+public enum WireFormat {
+
+    JSON(MimeTypeUtils.APPLICATION_JSON),
+    SMILE(new MimeType("application", "x-jackson-smile")),
+    CBOR(new MimeType("application", "cbor"));
+
+    private final MimeType mimeType;
+
+    WireFormat(MimeType mimeType) {
+        this.mimeType = mimeType;
+    }
+
+    /**
+     * @throws IllegalArgumentException si el nombre no corresponde a ningún formato
+     */
+    public static WireFormat of(String name) {
+        try {
+            return valueOf(name.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Formato desconocido: " + name + " (disponibles: json, smile, cbor)");
+        }
+    }
+
+    public MimeType getMimeType() { return mimeType; }
+
+    public boolean isBinary() { return this != JSON; }
+
+    /**
+     * Content-type de los frames STOMP. Spring solo envía frames binarios de WebSocket cuando el
+     * content-type es compatible con application/octet-stream (los demás viajan como texto UTF-8 y
+     * corromperían los bytes), así que los formatos binarios van como octet-stream con el formato
+     * real en el parámetro "format" (application/octet-stream;format=smile).
+     */
+    public MimeType getStompContentType() {
+        if (!isBinary()) return mimeType;
+        return new MimeType(MimeTypeUtils.APPLICATION_OCTET_STREAM, Map.of("format", name().toLowerCase(Locale.ROOT)));
+    }
+
+    /**
+     * ObjectMapper del formato, con la misma configuración que el de JSON de la aplicación.
+     * @param builder builder de Spring Boot (uno nuevo por llamada: se modifica)
+     */
+    public ObjectMapper newMapper(Jackson2ObjectMapperBuilder builder) {
+        return switch (this) {
+            case JSON -> builder.build();
+            case SMILE -> builder.smile().build();
+            case CBOR -> builder.cbor().build();
+        };
+    }
+}
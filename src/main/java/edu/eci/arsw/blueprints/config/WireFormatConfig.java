@@ -0,0 +1,27 @@
+package edu.eci.arsw.blueprints.config;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+
+/**
+ * Negociación de contenido binaria para /api/v1/blueprints.
+ * Con Accept: application/x-jackson-smile o Accept: application/cbor la respuesta se codifica
+ * en ese formato; sin ellos se mantiene JSON. Los ObjectMapper salen del builder de Spring Boot,
+ * así que comparten la configuración del de JSON (spring.jackson.*).
+ */
+@Configuration
+public class WireFormatConfig {
+
+    @Bean
+    public MappingJackson2SmileHttpMessageConverter smileHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        return new MappingJackson2SmileHttpMessageConverter(WireFormat.SMILE.newMapper(builder));
+    }
+
+    @Bean
+    public MappingJackson2CborHttpMessageConverter cborHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        return new MappingJackson2CborHttpMessageConverter(WireFormat.CBOR.newMapper(builder));
+    }
+}
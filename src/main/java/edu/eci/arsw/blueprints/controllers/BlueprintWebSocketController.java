@@ -1,11 +1,10 @@
 package edu.eci.arsw.blueprints.controllers;
 
 import java.util.List;
+import java.util.concurrent.TimeUnit;
 
 import org.springframework.messaging.handler.annotation.DestinationVariable;
 import org.springframework.messaging.handler.annotation.MessageMapping;
-import org.springframework.messaging.handler.annotation.SendTo;
-import org.springframework.messaging.simp.SimpMessagingTemplate;
 import org.springframework.stereotype.Controller;
 
 import edu.eci.arsw.blueprints.dto.BlueprintEvent;
@@ -13,22 +12,52 @@ import edu.eci.arsw.blueprints.model.Blueprint;
 import edu.eci.arsw.blueprints.model.Point;
 import edu.eci.arsw.blueprints.persistence.BlueprintNotFoundException;
 import edu.eci.arsw.blueprints.persistence.BlueprintPersistenceException;
+import edu.eci.arsw.blueprints.services.BlueprintDrawMailboxes;
+import edu.eci.arsw.blueprints.services.BlueprintEventBroadcaster;
 import edu.eci.arsw.blueprints.services.BlueprintsServices;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 
 /**
  * Controlador WebSocket/STOMP para blueprints.
  * maneja la comunicación en tiempo real usando STOMP sobre WebSocket.
+ * Cada handler se mide en blueprints.stomp con el destino como etiqueta (las peticiones REST
+ * las mide Spring en http.server.requests). En /app/draw y /app/draw/batch eso es solo encolar:
+ * la escritura la hace el buzón del blueprint (ver {@link BlueprintDrawMailboxes}).
  */
 @Controller  // No @RestController porque STOMP maneja la serialización
 public class BlueprintWebSocketController {
 
     private final BlueprintsServices services;
-    private final SimpMessagingTemplate messagingTemplate;
+    private final BlueprintEventBroadcaster broadcaster;
+    private final BlueprintDrawMailboxes mailboxes;
+    private final Timer drawTimer;
+    private final Timer drawBatchTimer;
+    private final Timer createTimer;
+    private final Timer deleteTimer;
 
     public BlueprintWebSocketController(BlueprintsServices services, 
-                                        SimpMessagingTemplate messagingTemplate) {
+                                        BlueprintEventBroadcaster broadcaster,
+                                        BlueprintDrawMailboxes mailboxes,
+                                        MeterRegistry registry) {
         this.services = services;
-        this.messagingTemplate = messagingTemplate;
+        this.broadcaster = broadcaster;
+        this.mailboxes = mailboxes;
+        this.drawTimer = timer(registry, "/app/draw");
+        this.drawBatchTimer = timer(registry, "/app/draw/batch");
+        this.createTimer = timer(registry, "/app/blueprints/create");
+        this.deleteTimer = timer(registry, "/app/blueprints/{author}/{name}/delete");
+    }
+
+    private static Timer timer(MeterRegistry registry, String destination) {
+        return Timer.builder("blueprints.stomp")
+            .description("Tiempo de atención de mensajes STOMP entrantes")
+            .tag("destination", destination)
+            .register(registry);
+    }
+
+    private static void stop(Timer timer, long start) {
+        timer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
     }
 
     /**
@@ -38,18 +67,30 @@ public class BlueprintWebSocketController {
      * Payload esperado: { author: "john", name: "house", point: { x: 10, y: 20 } }
      * El cliente se suscribe a /topic/blueprints.{author}.{name} para recibir
      * actualizaciones solo del blueprint específico que está editando.
+     * Se publica un evento POINTS_APPENDED con solo el punto nuevo y su número de secuencia;
+     * un cliente que llega tarde se suscribe primero, luego pide
+     * GET /api/v1/blueprints/{author}/{bpname}/points?from=0 y aplica los deltas con sequence mayor.
+     * Los mensajes del mismo blueprint se guardan en orden de llegada y varios pendientes pueden
+     * llegar en un mismo delta; los deltas de un blueprint salen en orden de sequence.
      */
     @MessageMapping("/draw")
     public void draw(DrawMessage msg) {
+        if (msg.point() == null) return;
+        long start = System.nanoTime();
         try {
-            services.addPoint(msg.author(), msg.name(), msg.point().getX(), msg.point().getY());
-            Blueprint bp = services.getBlueprint(msg.author(), msg.name());
-            String topic = "/topic/blueprints.%s.%s".formatted(msg.author(), msg.name());
-            messagingTemplate.convertAndSend(topic, bp);
-            
-        } catch (BlueprintNotFoundException e) {
+            mailboxes.append(msg.author(), msg.name(), List.of(msg.point())).exceptionally(this::logDrawFailure);
+        } finally {
+            stop(drawTimer, start);
+        }
+    }
+
+    private Integer logDrawFailure(Throwable e) {
+        if (e instanceof BlueprintNotFoundException) {
             System.err.println("Blueprint no encontrado: " + e.getMessage());
+        } else {
+            System.err.println("Error guardando puntos: " + e.getMessage());
         }
+        return null;
     }
 
     /**
@@ -57,62 +98,83 @@ public class BlueprintWebSocketController {
      */
     public record DrawMessage(String author, String name, Point point) {}
 
+    /**
+     * Variante por lotes de /app/draw para trazos a mano alzada.
+     * Cliente envía a: /app/draw/batch
+     * Payload esperado: { author: "john", name: "house", points: [{ x: 10, y: 20 }, ...] }
+     * Los puntos del lote quedan contiguos y salen en un solo broadcast, junto con los demás
+     * mensajes pendientes del mismo blueprint.
+     */
+    @MessageMapping("/draw/batch")
+    public void drawBatch(DrawBatchMessage msg) {
+        if (msg.points() == null || msg.points().isEmpty()) return;
+        long start = System.nanoTime();
+        try {
+            mailboxes.append(msg.author(), msg.name(), msg.points()).exceptionally(this::logDrawFailure);
+        } finally {
+            stop(drawBatchTimer, start);
+        }
+    }
+
+    /**
+     * Record para el mensaje de dibujo por lotes.
+     */
+    public record DrawBatchMessage(String author, String name, List<Point> points) {}
+
     /**
      * Crea un nuevo blueprint via WebSocket.
+     * Recibe de /app/blueprints/create y notifica a /topic/blueprints y /topic/blueprints/{author}.
      * @param request Datos del nuevo blueprint
-     * @return Evento de creación para broadcast
      */
-    @MessageMapping("/blueprints/create")  // Recibe de /app/blueprints/create
-    @SendTo("/topic/blueprints")           // Envía a todos los suscritos a /topic/blueprints
-    public BlueprintEvent createBlueprint(CreateBlueprintMessage request) {
+    @MessageMapping("/blueprints/create")
+    public void createBlueprint(CreateBlueprintMessage request) {
+        long start = System.nanoTime();
         try {
             Blueprint bp = new Blueprint(request.author(), request.name(), request.points());
             services.addNewBlueprint(bp);
-            notifyAuthorTopic(request.author(), BlueprintEvent.created(bp));
-            
-            return BlueprintEvent.created(bp);
+            broadcastEvent(BlueprintEvent.created(bp));
         } catch (BlueprintPersistenceException e) {
-            return new BlueprintEvent(
+            broadcaster.publish("/topic/blueprints", new BlueprintEvent(
                 BlueprintEvent.EventType.CREATED,
                 null,
                 request.author(),
                 request.name(),
                 "Error: " + e.getMessage()
-            );
+            ));
+        } finally {
+            stop(createTimer, start);
         }
     }
 
     /**
      * Elimina un blueprint via WebSocket.
+     * Notifica a /topic/blueprints y /topic/blueprints/{author}.
      * @param author Autor del blueprint
      * @param name Nombre del blueprint
-     * @return Evento de eliminación
      */
     @MessageMapping("/blueprints/{author}/{name}/delete")
-    @SendTo("/topic/blueprints")
-    public BlueprintEvent deleteBlueprint(
+    public void deleteBlueprint(
             @DestinationVariable String author,
             @DestinationVariable String name) {
+        long start = System.nanoTime();
         try {
             services.deleteBlueprint(author, name);
-            
-            BlueprintEvent event = BlueprintEvent.deleted(author, name);
-            notifyAuthorTopic(author, event);
-            
-            return event;
+            broadcastEvent(BlueprintEvent.deleted(author, name));
         } catch (BlueprintNotFoundException e) {
-            return new BlueprintEvent(
+            broadcaster.publish("/topic/blueprints", new BlueprintEvent(
                 BlueprintEvent.EventType.DELETED,
                 null,
                 author,
                 name,
                 "Error: " + e.getMessage()
-            );
+            ));
+        } finally {
+            stop(deleteTimer, start);
         }
     }
 
     /**
-     * Envía un evento a todos los suscritos de /topic/blueprints.
+     * Envía un evento a todos los suscritos de /topic/blueprints y al topic del autor.
      * Este método es público para ser usado desde BlueprintsAPIController.
      * 
      * Cuando alguien crea un blueprint via REST API, también queremos
@@ -121,21 +183,8 @@ public class BlueprintWebSocketController {
      * @param event Evento a enviar
      */
     public void broadcastEvent(BlueprintEvent event) {
-        // convertAndSend() serializa el objeto a JSON y lo envía al topic
-        messagingTemplate.convertAndSend("/topic/blueprints", event);
-        
-        // También notificamos al topic del autor específico
-        if (event.author() != null) {
-            notifyAuthorTopic(event.author(), event);
-        }
-    }
-
-    /**
-     * Notifica al topic específico de un autor.
-     * Los clientes suscritos a /topic/blueprints/{author} recibirán el mensaje.
-     */
-    private void notifyAuthorTopic(String author, BlueprintEvent event) {
-        messagingTemplate.convertAndSend("/topic/blueprints/" + author, event);
+        // El broadcaster serializa y envía fuera del hilo actual, fusionando ráfagas
+        broadcaster.broadcast(event);
     }
 
     /**
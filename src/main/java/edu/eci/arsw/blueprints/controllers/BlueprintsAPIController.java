@@ -1,11 +1,15 @@
 package edu.eci.arsw.blueprints.controllers;
 
+import java.util.List;
 import java.util.Set;
 
+import org.springframework.dao.TransientDataAccessException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
-import org.springframework.messaging.simp.SimpMessagingTemplate;
 import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
@@ -14,14 +18,22 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
 
 import edu.eci.arsw.blueprints.dto.ApiResponsEscheme;
 import edu.eci.arsw.blueprints.dto.BlueprintEvent;
+import edu.eci.arsw.blueprints.dto.BlueprintPage;
 import edu.eci.arsw.blueprints.dto.BlueprintsbyAuthor;
+import edu.eci.arsw.blueprints.filters.BlueprintsFilter;
+import edu.eci.arsw.blueprints.filters.FilterCatalog;
 import edu.eci.arsw.blueprints.model.Blueprint;
+import edu.eci.arsw.blueprints.model.BlueprintSummary;
 import edu.eci.arsw.blueprints.model.Point;
 import edu.eci.arsw.blueprints.persistence.BlueprintNotFoundException;
 import edu.eci.arsw.blueprints.persistence.BlueprintPersistenceException;
+import edu.eci.arsw.blueprints.services.BlueprintEventBroadcaster;
 import edu.eci.arsw.blueprints.services.BlueprintsServices;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -41,25 +53,54 @@ import jakarta.validation.constraints.NotBlank;
 @Tag(name = "Blueprints", description = "API de gestión de blueprints para diseños arquitectónicos")
 public class BlueprintsAPIController {
 
+        // Tamaño máximo de página de /All y tamaño de lote del modo streaming
+        private static final int MAX_PAGE_SIZE = 1000;
+        private static final int STREAM_PAGE_SIZE = 500;
+        private static final String FILTERS_DESCRIPTION =
+                "Filtros a aplicar, en orden y separados por comas (identity, redundancy, undersampling, "
+                + "douglas-peucker:tolerancia, visvalingam:tolerancia); sin el parámetro se usa el filtro por defecto";
+        private static final String INVALID_REGION = "Región inválida: se requiere minX <= maxX y minY <= maxY";
+
         private final BlueprintsServices services;
-        // Template para enviar notificaciones WebSocket cuando se hacen cambios via REST
-        private final SimpMessagingTemplate messagingTemplate;
+        // Etapa asíncrona para notificar a los clientes WebSocket cuando se hacen cambios via REST
+        private final BlueprintEventBroadcaster broadcaster;
+        private final ObjectMapper objectMapper;
+        private final FilterCatalog filterCatalog;
 
-        public BlueprintsAPIController(BlueprintsServices services, SimpMessagingTemplate messagingTemplate) { 
+        public BlueprintsAPIController(BlueprintsServices services, BlueprintEventBroadcaster broadcaster,
+                                       ObjectMapper objectMapper, FilterCatalog filterCatalog) { 
                 this.services = services; 
-                this.messagingTemplate = messagingTemplate;
+                this.broadcaster = broadcaster;
+                this.objectMapper = objectMapper;
+                this.filterCatalog = filterCatalog;
+        }
+
+        /**
+         * Resuelve el parámetro ?filters= (por ejemplo "redundancy,undersampling").
+         * Sin el parámetro retorna null y el servicio usa su filtro por defecto.
+         * @throws IllegalArgumentException si algún filtro no existe
+         */
+        private BlueprintsFilter requestedFilter(String filters) {
+                return filters == null || filters.isBlank() ? null : filterCatalog.resolve(filters);
         }
         
         /**
          * Envía un evento a todos los clientes WebSocket suscritos.
          * Esto permite que los clientes en tiempo real reciban actualizaciones
-         * cuando alguien hace cambios via la API REST.
+         * cuando alguien hace cambios via la API REST. El envío se encola y
+         * se hace fuera del hilo de la petición.
          */
         private void broadcastEvent(BlueprintEvent event) {
-                messagingTemplate.convertAndSend("/topic/blueprints", event);
-                if (event.author() != null) {
-                        messagingTemplate.convertAndSend("/topic/blueprints/" + event.author(), event);
-                }
+                broadcaster.broadcast(event);
+        }
+
+        /**
+         * Publica en /topic/blueprints.{author}.{name} solo los puntos agregados y el sequence del
+         * primero, igual que el dibujo por STOMP; no vuelve a leer el blueprint.
+         */
+        private void publishPointsAppended(String author, String name, int sequence, List<Point> points) {
+                broadcaster.publish("/topic/blueprints.%s.%s".formatted(author, name),
+                        BlueprintEvent.pointsAppended(author, name, sequence, points));
         }
 
         /**
@@ -75,11 +116,200 @@ public class BlueprintsAPIController {
                 responseCode = "200",
                 description = "Blueprints recuperados exitosamente",
                 content = @Content(mediaType = "application/json", schema = @Schema(implementation = ApiResponsEscheme.class))
+        ),
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(
+                responseCode = "400",
+                description = "Filtro desconocido",
+                content = @Content(mediaType = "application/json", schema = @Schema(implementation = ApiResponsEscheme.class))
         )
         })
         @GetMapping("/All")
-        public ResponseEntity<ApiResponsEscheme<Set<Blueprint>>> getAll() {
-                return ResponseEntity.ok(ApiResponsEscheme.ok("Blueprints obtenidos exitosamente", services.getAllBlueprints()));
+        public ResponseEntity<ApiResponsEscheme<?>> getAll(
+                @Parameter(description = FILTERS_DESCRIPTION)
+                @RequestParam(required = false) String filters) {
+                try {
+                        return ResponseEntity.ok(ApiResponsEscheme.ok("Blueprints obtenidos exitosamente", services.getAllBlueprints(requestedFilter(filters))));
+                } catch (IllegalArgumentException e) {
+                        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(ApiResponsEscheme.badRequest(e.getMessage()));
+                }
+        }
+
+        /**
+         * Obtiene una página de blueprints ordenada por (autor, nombre) usando paginación por cursor.
+         * El costo de cada página no depende de cuántas páginas se hayan recorrido antes.
+         * @param limit Cantidad máxima de blueprints de la página (1..1000)
+         * @param cursor Cursor devuelto en la página anterior (omitir para la primera)
+         * @return ApiResponse con la página y el cursor de la siguiente
+         */
+        @Operation(
+                summary = "Obtener blueprints paginados",
+                description = "Recupera blueprints ordenados por autor y nombre; usar nextCursor para pedir la siguiente página"
+        )
+        @ApiResponses(value = {
+                @io.swagger.v3.oas.annotations.responses.ApiResponse(
+                        responseCode = "200",
+                        description = "Página recuperada exitosamente",
+                        content = @Content(mediaType = "application/json", schema = @Schema(implementation = ApiResponsEscheme.class))
+                ),
+                @io.swagger.v3.oas.annotations.responses.ApiResponse(
+                        responseCode = "400",
+                        description = "Límite, cursor o filtro inválido",
+                        content = @Content(mediaType = "application/json", schema = @Schema(implementation = ApiResponsEscheme.class))
+                )
+        })
+        @GetMapping(value = "/All", params = "limit")
+        public ResponseEntity<ApiResponsEscheme<?>> getAllPage(
+                @Parameter(description = "Cantidad máxima de blueprints (1..1000)", required = true)
+                @RequestParam int limit,
+                @Parameter(description = "Cursor de la página anterior")
+                @RequestParam(required = false) String cursor,
+                @Parameter(description = FILTERS_DESCRIPTION)
+                @RequestParam(required = false) String filters) {
+                if (limit < 1 || limit > MAX_PAGE_SIZE) {
+                        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(ApiResponsEscheme.badRequest("limit debe estar entre 1 y " + MAX_PAGE_SIZE));
+                }
+                String[] after = {null, null};
+                if (cursor != null) {
+                        try {
+                                after = BlueprintPage.parseCursor(cursor);
+                        } catch (IllegalArgumentException e) {
+                                return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(ApiResponsEscheme.badRequest("Cursor inválido"));
+                        }
+                }
+                BlueprintsFilter filter;
+                try {
+                        filter = requestedFilter(filters);
+                } catch (IllegalArgumentException e) {
+                        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(ApiResponsEscheme.badRequest(e.getMessage()));
+                }
+                // Se pide un elemento extra para saber si hay una página siguiente
+                List<Blueprint> items = services.getBlueprintsPage(after[0], after[1], limit + 1, filter);
+                String next = null;
+                if (items.size() > limit) {
+                        items = items.subList(0, limit);
+                        next = BlueprintPage.cursorAfter(items.get(limit - 1));
+                }
+                return ResponseEntity.ok(ApiResponsEscheme.ok("Blueprints obtenidos exitosamente", new BlueprintPage(items, next)));
+        }
+
+        /**
+         * Transmite todos los blueprints como NDJSON (un blueprint por línea).
+         * Se recorren páginas de 500 por cursor y cada una se escribe y se libera antes de pedir
+         * la siguiente, así que la memoria usada no depende del tamaño total del conjunto.
+         * @return Cuerpo en streaming con tipo application/x-ndjson
+         */
+        @Operation(
+                summary = "Transmitir todos los blueprints",
+                description = "Escribe cada blueprint como una línea JSON (NDJSON) a medida que se lee del almacenamiento"
+        )
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(
+                responseCode = "200",
+                description = "Flujo NDJSON de blueprints",
+                content = @Content(mediaType = "application/x-ndjson", schema = @Schema(implementation = Blueprint.class))
+        )
+        @GetMapping(value = "/All/stream", produces = "application/x-ndjson")
+        public ResponseEntity<StreamingResponseBody> streamAll(
+                @Parameter(description = FILTERS_DESCRIPTION)
+                @RequestParam(required = false) String filters) {
+                BlueprintsFilter filter;
+                try {
+                        filter = requestedFilter(filters);
+                } catch (IllegalArgumentException e) {
+                        return ResponseEntity.badRequest().build();
+                }
+                StreamingResponseBody body = out -> {
+                        String author = null;
+                        String name = null;
+                        List<Blueprint> page;
+                        do {
+                                page = services.getBlueprintsPage(author, name, STREAM_PAGE_SIZE, filter);
+                                for (Blueprint bp : page) {
+                                        out.write(objectMapper.writeValueAsBytes(bp));
+                                        out.write('\n');
+                                }
+                                out.flush();
+                                if (!page.isEmpty()) {
+                                        Blueprint last = page.get(page.size() - 1);
+                                        author = last.getAuthor();
+                                        name = last.getName();
+                                }
+                        } while (page.size() == STREAM_PAGE_SIZE);
+                };
+                return ResponseEntity.ok().contentType(MediaType.parseMediaType("application/x-ndjson")).body(body);
+        }
+
+        /**
+         * Obtiene el resumen de los blueprints (autor, nombre, cantidad de puntos y caja envolvente)
+         * sin transferir los puntos. Con PostgreSQL se calcula en una sola consulta agregada.
+         * @param author Autor para filtrar (opcional)
+         * @return ApiResponse con los resúmenes
+         */
+        @Operation(
+                summary = "Obtener resúmenes de blueprints",
+                description = "Lista autor, nombre, cantidad de puntos y caja envolvente de cada blueprint, sin los puntos"
+        )
+        @ApiResponses(value = {
+                @io.swagger.v3.oas.annotations.responses.ApiResponse(
+                        responseCode = "200",
+                        description = "Resúmenes recuperados exitosamente",
+                        content = @Content(mediaType = "application/json", schema = @Schema(implementation = ApiResponsEscheme.class))
+                ),
+                @io.swagger.v3.oas.annotations.responses.ApiResponse(
+                        responseCode = "404",
+                        description = "Autor no encontrado o sin blueprints",
+                        content = @Content(mediaType = "application/json", schema = @Schema(implementation = ApiResponsEscheme.class))
+                )
+        })
+        @GetMapping("/summaries")
+        public ResponseEntity<ApiResponsEscheme<?>> summaries(
+                @Parameter(description = "Nombre del autor (opcional)")
+                @RequestParam(required = false) String author) {
+                try {
+                        Set<BlueprintSummary> summaries = author == null
+                                ? services.getBlueprintSummaries()
+                                : services.getBlueprintSummariesByAuthor(author);
+                        return ResponseEntity.ok(ApiResponsEscheme.ok("Resúmenes obtenidos exitosamente", summaries));
+                } catch (BlueprintNotFoundException e) {
+                        return ResponseEntity.status(HttpStatus.NOT_FOUND).body(ApiResponsEscheme.notFound(e.getMessage()));
+                }
+        }
+
+        /**
+         * Obtiene los blueprints cuya caja envolvente se cruza con una región (bordes incluidos),
+         * con el mismo resumen que /summaries. Los blueprints sin puntos no se cruzan con nada.
+         * @param minX Borde izquierdo de la región
+         * @param minY Borde inferior de la región
+         * @param maxX Borde derecho de la región
+         * @param maxY Borde superior de la región
+         * @return ApiResponse con los resúmenes de los blueprints que se cruzan con la región
+         */
+        @Operation(
+                summary = "Buscar blueprints por región",
+                description = "Lista los blueprints cuya caja envolvente se cruza con el rectángulo [minX, maxX] x [minY, maxY]"
+        )
+        @ApiResponses(value = {
+                @io.swagger.v3.oas.annotations.responses.ApiResponse(
+                        responseCode = "200",
+                        description = "Blueprints de la región recuperados exitosamente",
+                        content = @Content(mediaType = "application/json", schema = @Schema(implementation = ApiResponsEscheme.class))
+                ),
+                @io.swagger.v3.oas.annotations.responses.ApiResponse(
+                        responseCode = "400",
+                        description = "Región inválida",
+                        content = @Content(mediaType = "application/json", schema = @Schema(implementation = ApiResponsEscheme.class))
+                )
+        })
+        @GetMapping("/region")
+        public ResponseEntity<ApiResponsEscheme<?>> inRegion(
+                @Parameter(description = "Borde izquierdo", required = true) @RequestParam int minX,
+                @Parameter(description = "Borde inferior", required = true) @RequestParam int minY,
+                @Parameter(description = "Borde derecho", required = true) @RequestParam int maxX,
+                @Parameter(description = "Borde superior", required = true) @RequestParam int maxY) {
+                if (minX > maxX || minY > maxY) {
+                        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(ApiResponsEscheme.badRequest(INVALID_REGION));
+                }
+                Set<BlueprintSummary> summaries = services.getBlueprintsIntersecting(minX, minY, maxX, maxY);
+                return ResponseEntity.ok(ApiResponsEscheme.ok("Blueprints de la región obtenidos", summaries));
         }
 
         /**
@@ -97,6 +327,11 @@ public class BlueprintsAPIController {
                         description = "Blueprints del autor recuperados exitosamente",
                         content = @Content(mediaType = "application/json", schema = @Schema(implementation = ApiResponsEscheme.class))
                 ),
+                @io.swagger.v3.oas.annotations.responses.ApiResponse(
+                        responseCode = "400",
+                        description = "Filtro desconocido",
+                        content = @Content(mediaType = "application/json", schema = @Schema(implementation = ApiResponsEscheme.class))
+                ),
                 @io.swagger.v3.oas.annotations.responses.ApiResponse(
                         responseCode = "404",
                         description = "Autor no encontrado o sin blueprints",
@@ -106,25 +341,34 @@ public class BlueprintsAPIController {
         @GetMapping(params = "author")
         public ResponseEntity<ApiResponsEscheme<?>> byAuthor(
                 @Parameter(description = "Nombre del autor del blueprint", required = true)
-                @RequestParam String author) {
+                @RequestParam String author,
+                @Parameter(description = FILTERS_DESCRIPTION)
+                @RequestParam(required = false) String filters) {
                 try {
-                        Set<Blueprint> blueprints = services.getBlueprintsByAuthor(author);
+                        Set<Blueprint> blueprints = services.getBlueprintsByAuthor(author, requestedFilter(filters));
                         BlueprintsbyAuthor response = BlueprintsbyAuthor.of(author, blueprints);
                         return ResponseEntity.ok(ApiResponsEscheme.ok("Blueprints del autor obtenidos", response));
                 } catch (BlueprintNotFoundException e) {
                         return ResponseEntity.status(HttpStatus.NOT_FOUND).body(ApiResponsEscheme.notFound(e.getMessage()));
+                } catch (IllegalArgumentException e) {
+                        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(ApiResponsEscheme.badRequest(e.getMessage()));
                 }
         }
 
         /**
          * Obtiene un blueprint específico por autor y nombre.
+         * Para vistas generales de blueprints muy grandes se puede pedir un nivel de detalle
+         * (lod=k devuelve uno de cada 2^k puntos) o un máximo de puntos (maxPoints), y se elige
+         * el nivel más detallado que no lo supera. Los niveles se mantienen precalculados por blueprint.
          * @param author Nombre del autor
          * @param bpname Nombre del blueprint
+         * @param lod Nivel de detalle (0 = todos los puntos)
+         * @param maxPoints Cantidad máxima de puntos de la respuesta
          * @return ApiResponse con el blueprint solicitado
          */
         @Operation(
                 summary = "Obtener blueprint por autor y nombre",
-                description = "Recupera un blueprint específico identificado por su autor y nombre"
+                description = "Recupera un blueprint específico identificado por su autor y nombre, opcionalmente a un nivel de detalle reducido"
         )
         @ApiResponses(value = {
                 @io.swagger.v3.oas.annotations.responses.ApiResponse(
@@ -132,6 +376,11 @@ public class BlueprintsAPIController {
                         description = "Blueprint recuperado exitosamente",
                         content = @Content(mediaType = "application/json", schema = @Schema(implementation = ApiResponsEscheme.class))
                 ),
+                @io.swagger.v3.oas.annotations.responses.ApiResponse(
+                        responseCode = "400",
+                        description = "Filtro, nivel de detalle o maxPoints inválido",
+                        content = @Content(mediaType = "application/json", schema = @Schema(implementation = ApiResponsEscheme.class))
+                ),
                 @io.swagger.v3.oas.annotations.responses.ApiResponse(
                         responseCode = "404",
                         description = "Blueprint no encontrado",
@@ -143,9 +392,123 @@ public class BlueprintsAPIController {
                 @Parameter(description = "Nombre del autor del blueprint", required = true)
                 @PathVariable String author,
                 @Parameter(description = "Nombre del blueprint", required = true)
-                @PathVariable String bpname) {
+                @PathVariable String bpname,
+                @Parameter(description = FILTERS_DESCRIPTION)
+                @RequestParam(required = false) String filters,
+                @Parameter(description = "Nivel de detalle: uno de cada 2^lod puntos (0 = todos)")
+                @RequestParam(required = false) Integer lod,
+                @Parameter(description = "Máximo de puntos; se usa el nivel de detalle más fino que no lo supera")
+                @RequestParam(required = false) Integer maxPoints) {
+                if (lod != null && maxPoints != null) {
+                        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(ApiResponsEscheme.badRequest("Use lod o maxPoints, no ambos"));
+                }
                 try {
-                        return ResponseEntity.ok(ApiResponsEscheme.ok("Blueprint obtenido exitosamente", services.getBlueprint(author, bpname)));
+                        BlueprintsFilter filter = requestedFilter(filters);
+                        Blueprint bp;
+                        if (lod != null) bp = services.getBlueprintAtLevel(author, bpname, filter, lod);
+                        else if (maxPoints != null) bp = services.getBlueprintWithin(author, bpname, filter, maxPoints);
+                        else bp = services.getBlueprint(author, bpname, filter);
+                        return ResponseEntity.ok(ApiResponsEscheme.ok("Blueprint obtenido exitosamente", bp));
+                } catch (BlueprintNotFoundException e) {
+                        return ResponseEntity.status(HttpStatus.NOT_FOUND).body(ApiResponsEscheme.notFound(e.getMessage()));
+                } catch (IllegalArgumentException e) {
+                        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(ApiResponsEscheme.badRequest(e.getMessage()));
+                }
+        }
+
+        /**
+         * Obtiene los puntos sin filtrar de un blueprint desde un índice dado.
+         * Con from=0 es la instantánea completa; con from=n devuelve solo los deltas
+         * que un cliente se perdió. La respuesta tiene la misma forma que los eventos
+         * POINTS_APPENDED de /topic/blueprints.{author}.{name}.
+         * @param author Nombre del autor
+         * @param bpname Nombre del blueprint
+         * @param from Índice del primer punto a devolver
+         * @return ApiResponse con el delta de puntos y su número de secuencia
+         */
+        @Operation(
+                summary = "Obtener puntos desde una secuencia",
+                description = "Devuelve los puntos (sin filtrar) agregados desde el índice indicado, para sincronizar clientes que se suscriben tarde"
+        )
+        @ApiResponses(value = {
+                @io.swagger.v3.oas.annotations.responses.ApiResponse(
+                        responseCode = "200",
+                        description = "Puntos recuperados exitosamente",
+                        content = @Content(mediaType = "application/json", schema = @Schema(implementation = ApiResponsEscheme.class))
+                ),
+                @io.swagger.v3.oas.annotations.responses.ApiResponse(
+                        responseCode = "404",
+                        description = "Blueprint no encontrado",
+                        content = @Content(mediaType = "application/json", schema = @Schema(implementation = ApiResponsEscheme.class))
+                )
+        })
+        @GetMapping("/{author}/{bpname}/points")
+        public ResponseEntity<ApiResponsEscheme<?>> pointsSince(
+                @Parameter(description = "Nombre del autor del blueprint", required = true)
+                @PathVariable String author,
+                @Parameter(description = "Nombre del blueprint", required = true)
+                @PathVariable String bpname,
+                @Parameter(description = "Índice del primer punto a devolver (0 = instantánea completa)")
+                @RequestParam(defaultValue = "0") int from) {
+                try {
+                        List<Point> points = services.getPointsSince(author, bpname, from);
+                        int sequence = Math.max(from, 0);
+                        return ResponseEntity.ok(ApiResponsEscheme.ok("Puntos obtenidos exitosamente",
+                                BlueprintEvent.pointsAppended(author, bpname, sequence, points)));
+                } catch (BlueprintNotFoundException e) {
+                        return ResponseEntity.status(HttpStatus.NOT_FOUND).body(ApiResponsEscheme.notFound(e.getMessage()));
+                }
+        }
+
+        /**
+         * Obtiene los puntos (sin filtrar) de un blueprint que caen dentro de una región, bordes
+         * incluidos, en el orden en que se dibujaron. En memoria se responde con un índice de grilla
+         * por blueprint; con PostgreSQL, con el índice (blueprint_id, x, y) de blueprint_points.
+         * @param author Nombre del autor
+         * @param bpname Nombre del blueprint
+         * @param minX Borde izquierdo de la región
+         * @param minY Borde inferior de la región
+         * @param maxX Borde derecho de la región
+         * @param maxY Borde superior de la región
+         * @return ApiResponse con los puntos dentro de la región
+         */
+        @Operation(
+                summary = "Obtener los puntos de un blueprint dentro de una región",
+                description = "Devuelve los puntos del blueprint dentro del rectángulo [minX, maxX] x [minY, maxY], en orden"
+        )
+        @ApiResponses(value = {
+                @io.swagger.v3.oas.annotations.responses.ApiResponse(
+                        responseCode = "200",
+                        description = "Puntos recuperados exitosamente",
+                        content = @Content(mediaType = "application/json", schema = @Schema(implementation = ApiResponsEscheme.class))
+                ),
+                @io.swagger.v3.oas.annotations.responses.ApiResponse(
+                        responseCode = "400",
+                        description = "Región inválida",
+                        content = @Content(mediaType = "application/json", schema = @Schema(implementation = ApiResponsEscheme.class))
+                ),
+                @io.swagger.v3.oas.annotations.responses.ApiResponse(
+                        responseCode = "404",
+                        description = "Blueprint no encontrado",
+                        content = @Content(mediaType = "application/json", schema = @Schema(implementation = ApiResponsEscheme.class))
+                )
+        })
+        @GetMapping("/{author}/{bpname}/region")
+        public ResponseEntity<ApiResponsEscheme<?>> pointsInRegion(
+                @Parameter(description = "Nombre del autor del blueprint", required = true)
+                @PathVariable String author,
+                @Parameter(description = "Nombre del blueprint", required = true)
+                @PathVariable String bpname,
+                @Parameter(description = "Borde izquierdo", required = true) @RequestParam int minX,
+                @Parameter(description = "Borde inferior", required = true) @RequestParam int minY,
+                @Parameter(description = "Borde derecho", required = true) @RequestParam int maxX,
+                @Parameter(description = "Borde superior", required = true) @RequestParam int maxY) {
+                if (minX > maxX || minY > maxY) {
+                        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(ApiResponsEscheme.badRequest(INVALID_REGION));
+                }
+                try {
+                        List<Point> points = services.getPointsInBox(author, bpname, minX, minY, maxX, maxY);
+                        return ResponseEntity.ok(ApiResponsEscheme.ok("Puntos de la región obtenidos", points));
                 } catch (BlueprintNotFoundException e) {
                         return ResponseEntity.status(HttpStatus.NOT_FOUND).body(ApiResponsEscheme.notFound(e.getMessage()));
                 }
@@ -194,7 +557,8 @@ public class BlueprintsAPIController {
         }
 
         /**
-         * Agrega un punto a un blueprint existente.
+         * Agrega un punto a un blueprint existente y publica el delta POINTS_APPENDED en
+         * /topic/blueprints.{author}.{name}, como /app/draw.
          * @param author Nombre del autor
          * @param bpname Nombre del blueprint
          * @param p Punto a agregar (coordenadas x, y)
@@ -234,11 +598,10 @@ public class BlueprintsAPIController {
                 )
                 @RequestBody Point p) {
                 try {
-                        services.addPoint(author, bpname, p.getX(), p.getY());
-                        
-                        // Notifica a clientes WebSocket sobre la actualización
-                        Blueprint bp = services.getBlueprint(author, bpname);
-                        broadcastEvent(BlueprintEvent.updated(bp, "Punto agregado: (%d, %d)".formatted(p.getX(), p.getY())));
+                        int sequence = services.addPoint(author, bpname, p.getX(), p.getY());
+
+                        // Notifica a los clientes WebSocket solo el punto nuevo
+                        publishPointsAppended(author, bpname, sequence, List.of(p));
                         
                         return ResponseEntity.status(HttpStatus.ACCEPTED).body(ApiResponsEscheme.accepted("Punto agregado exitosamente", p));
                 } catch (BlueprintNotFoundException e) {
@@ -246,6 +609,62 @@ public class BlueprintsAPIController {
                 }
         }
 
+        /**
+         * Agrega varios puntos a un blueprint existente en una sola operación.
+         * Los puntos se persisten con una única llamada y generan un único evento POINTS_APPENDED
+         * en /topic/blueprints.{author}.{name}.
+         * @param author Nombre del autor
+         * @param bpname Nombre del blueprint
+         * @param points Puntos a agregar, en orden
+         * @return ApiResponse con código 202 y la cantidad de puntos agregados
+         */
+        @Operation(
+                summary = "Agregar un lote de puntos a un blueprint",
+                description = "Agrega una lista de puntos a un blueprint existente con una sola escritura y una sola notificación"
+        )
+        @ApiResponses(value = {
+                @io.swagger.v3.oas.annotations.responses.ApiResponse(
+                        responseCode = "202",
+                        description = "Puntos agregados exitosamente",
+                        content = @Content(mediaType = "application/json", schema = @Schema(implementation = ApiResponsEscheme.class))
+                ),
+                @io.swagger.v3.oas.annotations.responses.ApiResponse(
+                        responseCode = "400",
+                        description = "Lista de puntos vacía",
+                        content = @Content(mediaType = "application/json", schema = @Schema(implementation = ApiResponsEscheme.class))
+                ),
+                @io.swagger.v3.oas.annotations.responses.ApiResponse(
+                        responseCode = "404",
+                        description = "Blueprint no encontrado",
+                        content = @Content(mediaType = "application/json", schema = @Schema(implementation = ApiResponsEscheme.class))
+                )
+        })
+        @PutMapping("/{author}/{bpname}/points/batch")
+        public ResponseEntity<ApiResponsEscheme<?>> addPoints(
+                @Parameter(description = "Nombre del autor del blueprint", required = true)
+                @PathVariable String author,
+                @Parameter(description = "Nombre del blueprint", required = true)
+                @PathVariable String bpname,
+                @io.swagger.v3.oas.annotations.parameters.RequestBody(
+                        description = "Puntos a agregar, en orden",
+                        required = true
+                )
+                @RequestBody List<Point> points) {
+                if (points == null || points.isEmpty()) {
+                        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(ApiResponsEscheme.badRequest("La lista de puntos está vacía"));
+                }
+                try {
+                        int sequence = services.addPoints(author, bpname, points);
+
+                        // Un solo delta para todo el lote
+                        publishPointsAppended(author, bpname, sequence, points);
+
+                        return ResponseEntity.status(HttpStatus.ACCEPTED).body(ApiResponsEscheme.accepted("Puntos agregados exitosamente", points.size()));
+                } catch (BlueprintNotFoundException e) {
+                        return ResponseEntity.status(HttpStatus.NOT_FOUND).body(ApiResponsEscheme.notFound(e.getMessage()));
+                }
+        }
+
         /**
          * Elimina un blueprint específico por autor y nombre.
          * @param author Nombre del autor
@@ -286,6 +705,17 @@ public class BlueprintsAPIController {
                 }
         }
 
+        /**
+         * La base no atendió a tiempo (límite de concurrencia de PersistenceConfig): 503 con
+         * Retry-After para que el cliente reintente en vez de esperar más.
+         */
+        @ExceptionHandler(TransientDataAccessException.class)
+        public ResponseEntity<ApiResponsEscheme<?>> databaseBusy(TransientDataAccessException e) {
+                return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                        .header(HttpHeaders.RETRY_AFTER, "1")
+                        .body(ApiResponsEscheme.unavailable(e.getMessage()));
+        }
+
         /**
          * Record para la solicitud de creación de blueprint.
          * @param author Autor del blueprint (requerido)
@@ -15,7 +15,7 @@ import io.swagger.v3.oas.annotations.media.Schema;
  */
 @Schema(description = "Respuesta uniforme de la API")
 public record ApiResponsEscheme<T>(
-    @Schema(description = "Código HTTP de la respuesta", example = "200", allowableValues = {"200", "201", "202", "400", "404", "500"})
+    @Schema(description = "Código HTTP de la respuesta", example = "200", allowableValues = {"200", "201", "202", "400", "404", "500", "503"})
     int code,
     
     @Schema(description = "Mensaje descriptivo del resultado", example = "Operación exitosa")
@@ -86,4 +86,11 @@ public record ApiResponsEscheme<T>(
     public static <T> ApiResponsEscheme<T> error(String message) {
         return new ApiResponsEscheme<>(500, message, null);
     }
+
+    /**
+     * Crea una respuesta de servicio no disponible con código 503.
+     */
+    public static <T> ApiResponsEscheme<T> unavailable(String message) {
+        return new ApiResponsEscheme<>(503, message, null);
+    }
 }
@@ -1,6 +1,11 @@
 package edu.eci.arsw.blueprints.dto;
 
+import java.util.List;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
 import edu.eci.arsw.blueprints.model.Blueprint;
+import edu.eci.arsw.blueprints.model.Point;
 import io.swagger.v3.oas.annotations.media.Schema;
 
 /**
@@ -11,11 +16,14 @@ import io.swagger.v3.oas.annotations.media.Schema;
  * CREATED: Un nuevo blueprint fue creado
  * UPDATED: Un blueprint existente fue modificado (ej: punto agregado)
  * DELETED: Un blueprint fue eliminado
- * @param eventType Tipo de evento (CREATED, UPDATED, DELETED)
- * @param blueprint El blueprint afectado (puede ser null en DELETE)
+ * POINTS_APPENDED: Delta con solo los puntos agregados (dibujo colaborativo)
+ * @param eventType Tipo de evento (CREATED, UPDATED, DELETED, POINTS_APPENDED)
+ * @param blueprint El blueprint afectado (puede ser null en DELETE y en POINTS_APPENDED)
  * @param author Autor del blueprint
  * @param blueprintName Nombre del blueprint
  * @param message Mensaje descriptivo del evento
+ * @param sequence Índice del primer punto del delta (solo POINTS_APPENDED)
+ * @param points Puntos agregados, en orden (solo POINTS_APPENDED)
  */
 @Schema(description = "Evento de WebSocket para cambios en blueprints")
 public record BlueprintEvent(
@@ -32,7 +40,15 @@ public record BlueprintEvent(
     String blueprintName,
     
     @Schema(description = "Mensaje descriptivo", example = "Blueprint creado exitosamente")
-    String message
+    String message,
+
+    @Schema(description = "Índice del primer punto del delta; el siguiente delta esperado empieza en sequence + points.length", example = "42")
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    Integer sequence,
+
+    @Schema(description = "Puntos agregados (solo en POINTS_APPENDED)")
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    List<Point> points
 ) {
     /**
      * Tipos de eventos posibles.
@@ -40,7 +56,15 @@ public record BlueprintEvent(
     public enum EventType {
         CREATED,
         UPDATED,
-        DELETED  
+        DELETED,
+        POINTS_APPENDED
+    }
+
+    /**
+     * Constructor para eventos sin delta de puntos.
+     */
+    public BlueprintEvent(EventType eventType, Blueprint blueprint, String author, String blueprintName, String message) {
+        this(eventType, blueprint, author, blueprintName, message, null, null);
     }
     
     /**
@@ -69,6 +93,23 @@ public record BlueprintEvent(
         );
     }
     
+    /**
+     * Crea un delta con los puntos agregados a partir del índice sequence.
+     * Un cliente que ya tiene sequence puntos los agrega al final; si tiene menos,
+     * perdió un delta y debe pedir los faltantes (GET .../points?from=).
+     */
+    public static BlueprintEvent pointsAppended(String author, String name, int sequence, List<Point> points) {
+        return new BlueprintEvent(
+            EventType.POINTS_APPENDED,
+            null,
+            author,
+            name,
+            "%d puntos agregados a '%s'".formatted(points.size(), name),
+            sequence,
+            points
+        );
+    }
+
     /**
      * Crea un evento de eliminación de blueprint.
      */
@@ -0,0 +1,49 @@
+package edu.eci.arsw.blueprints.dto;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.List;
+
+import edu.eci.arsw.blueprints.model.Blueprint;
+import io.swagger.v3.oas.annotations.media.Schema;
+
+/**
+ * Página de blueprints ordenada por (autor, nombre).
+ * El cursor es opaco para el cliente: codifica el último (autor, nombre) entregado
+ * y se envía tal cual en la siguiente petición.
+ */
+@Schema(description = "Página de blueprints con cursor para la siguiente")
+public record BlueprintPage(
+        @Schema(description = "Blueprints de la página, ordenados por autor y nombre")
+        List<Blueprint> blueprints,
+        @Schema(description = "Cursor para pedir la siguiente página (null si no hay más)", example = "am9obg.aG91c2U")
+        String nextCursor
+) {
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+    private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+
+    /**
+     * Cursor que apunta justo después del blueprint dado.
+     */
+    public static String cursorAfter(Blueprint bp) {
+        return encode(bp.getAuthor()) + "." + encode(bp.getName());
+    }
+
+    /**
+     * Decodifica un cursor en {autor, nombre}.
+     * @throws IllegalArgumentException si el cursor no es válido
+     */
+    public static String[] parseCursor(String cursor) {
+        int dot = cursor.indexOf('.');
+        if (dot < 0) throw new IllegalArgumentException("Cursor inválido: " + cursor);
+        return new String[] {decode(cursor.substring(0, dot)), decode(cursor.substring(dot + 1))};
+    }
+
+    private static String encode(String s) {
+        return ENCODER.encodeToString(s.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String decode(String s) {
+        return new String(DECODER.decode(s), StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,114 @@
+package edu.eci.arsw.blueprints.filters;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+import edu.eci.arsw.blueprints.model.Blueprint;
+import edu.eci.arsw.blueprints.model.Point;
+
+/**
+ * Simplificación Douglas–Peucker: conserva los extremos y, recursivamente, el punto más alejado
+ * del segmento que une los extremos mientras esa distancia supere la tolerancia. Ningún punto
+ * descartado queda a más de {@code tolerance} unidades del trazo simplificado.
+ * Se implementa con una pila explícita (sin recursión), así que trazos de 10^6 puntos no
+ * desbordan la pila.
+ * Douglas–Peucker es cuadrático en el peor caso (un solo corte por nivel, p. ej. un zigzag de
+ * amplitud decreciente): con 10^6 puntos serían unas 5·10^11 distancias. Para acotarlo, el trazo
+ * se parte en tramos consecutivos de a lo sumo {@link #WINDOW} segmentos cuyos extremos se
+ * conservan, y cada tramo se simplifica por separado; la garantía de tolerancia se mantiene y el
+ * peor caso queda en O(n·WINDOW), unos 3 s para 10^6 puntos (SimplificationFilterBenchmark, zigzag).
+ * En trazos típicos es O(n log n) y los cortes agregan a lo sumo un punto cada WINDOW.
+ * Solo {@link VisvalingamFilter} es O(n log n) en cualquier caso.
+ * Perfil: "douglas-peucker" (tolerancia en blueprints.simplify.tolerance).
+ */
+@Component
+@Profile("douglas-peucker")
+public class DouglasPeuckerFilter implements BlueprintsFilter {
+
+    /** Segmentos por tramo: acota el peor caso a WINDOW/2 distancias por punto */
+    public static final int WINDOW = 256;
+
+    private final double tolerance;
+
+    public DouglasPeuckerFilter(@Value("${blueprints.simplify.tolerance:1.0}") double tolerance) {
+        if (!(tolerance >= 0) || Double.isInfinite(tolerance)) {
+            throw new IllegalArgumentException("Tolerancia inválida: " + tolerance);
+        }
+        this.tolerance = tolerance;
+    }
+
+    public double getTolerance() { return tolerance; }
+
+    @Override
+    public Blueprint apply(Blueprint bp) {
+        List<Point> in = bp.getPoints();
+        int n = in.size();
+        if (n <= 2) return bp;
+        int[] xs = new int[n];
+        int[] ys = new int[n];
+        for (int i = 0; i < n; i++) {
+            Point p = in.get(i);
+            xs[i] = p.getX();
+            ys[i] = p.getY();
+        }
+        boolean[] keep = new boolean[n];
+        keep[0] = true;
+        int kept = 1;
+        double tolerance2 = tolerance * tolerance;
+        // Rangos (inicio, fin) pendientes de examinar; los extremos ya están conservados.
+        // Se parte de un rango por tramo de WINDOW segmentos
+        int[] stack = new int[64 + 2 * ((n - 2) / WINDOW + 1)];
+        int top = 0;
+        for (int start = 0; start < n - 1; start += WINDOW) {
+            int end = Math.min(start + WINDOW, n - 1);
+            keep[end] = true;
+            kept++;
+            stack[top++] = start;
+            stack[top++] = end;
+        }
+        while (top > 0) {
+            int last = stack[--top];
+            int first = stack[--top];
+            double maxDistance2 = -1;
+            int farthest = -1;
+            for (int i = first + 1; i < last; i++) {
+                double d2 = segmentDistance2(xs[i], ys[i], xs[first], ys[first], xs[last], ys[last]);
+                if (d2 > maxDistance2) {
+                    maxDistance2 = d2;
+                    farthest = i;
+                }
+            }
+            if (farthest < 0 || maxDistance2 <= tolerance2) continue;
+            keep[farthest] = true;
+            kept++;
+            if (top + 4 > stack.length) stack = Arrays.copyOf(stack, stack.length * 2);
+            stack[top++] = first;
+            stack[top++] = farthest;
+            stack[top++] = farthest;
+            stack[top++] = last;
+        }
+        if (kept == n) return bp;
+        List<Point> out = new ArrayList<>(kept);
+        for (int i = 0; i < n; i++) {
+            if (keep[i]) out.add(in.get(i));
+        }
+        return new Blueprint(bp.getAuthor(), bp.getName(), out);
+    }
+
+    /* Distancia al cuadrado de (px, py) al segmento (ax, ay)-(bx, by) */
+    static double segmentDistance2(double px, double py, double ax, double ay, double bx, double by) {
+        double dx = bx - ax;
+        double dy = by - ay;
+        double len2 = dx * dx + dy * dy;
+        double t = len2 == 0 ? 0 : ((px - ax) * dx + (py - ay) * dy) / len2;
+        t = Math.max(0, Math.min(1, t));
+        double ex = ax + t * dx - px;
+        double ey = ay + t * dy - py;
+        return ex * ex + ey * ey;
+    }
+}
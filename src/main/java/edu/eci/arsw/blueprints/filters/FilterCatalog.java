@@ -0,0 +1,104 @@
+package edu.eci.arsw.blueprints.filters;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.DoubleFunction;
+
+import org.springframework.stereotype.Component;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+/**
+ * Filtros disponibles por nombre, para elegirlos por petición (?filters=redundancy,undersampling).
+ * Los filtros de simplificación reciben su tolerancia tras dos puntos (douglas-peucker:2.5);
+ * sin ella se usa {@link #DEFAULT_TOLERANCE}.
+ * Cada especificación se resuelve siempre a la misma instancia, de modo que la memoización de
+ * resultados filtrados en BlueprintsServices se reutiliza entre peticiones.
+ */
+@Component
+public class FilterCatalog {
+
+    private static final int MAX_PIPELINES = 256;
+    public static final double DEFAULT_TOLERANCE = 1.0;
+
+    private final Map<String, BlueprintsFilter> filters = new LinkedHashMap<>();
+    private final Map<String, DoubleFunction<BlueprintsFilter>> tunable = new LinkedHashMap<>();
+    private final Cache<String, BlueprintsFilter> pipelines = Caffeine.newBuilder()
+        .maximumSize(MAX_PIPELINES)
+        .build();
+
+    public FilterCatalog() {
+        filters.put("identity", new IdentityFilter());
+        filters.put("redundancy", new RedundancyFilter());
+        filters.put("undersampling", new UndersamplingFilter());
+        tunable.put("douglas-peucker", DouglasPeuckerFilter::new);
+        tunable.put("visvalingam", VisvalingamFilter::new);
+    }
+
+    public Set<String> names() {
+        Set<String> names = new LinkedHashSet<>(filters.keySet());
+        names.addAll(tunable.keySet());
+        return names;
+    }
+
+    /**
+     * Resuelve una lista de filtros separada por comas, en el orden en que se aplican.
+     * Un solo filtro sin parámetros se retorna tal cual (conserva su versión incremental); varios
+     * forman un {@link FilterPipeline}. "identity" no aporta nada a la cadena y se omite.
+     * @throws IllegalArgumentException si algún nombre no existe o una tolerancia no es válida
+     */
+    public BlueprintsFilter resolve(String spec) {
+        List<String> parts = new ArrayList<>();
+        for (String part : spec.split(",")) {
+            String normalized = normalize(part);
+            if (normalized != null) parts.add(normalized);
+        }
+        if (parts.isEmpty()) return filters.get("identity");
+        if (parts.size() == 1 && filters.containsKey(parts.get(0))) return filters.get(parts.get(0));
+        return pipelines.get(String.join(",", parts), key -> {
+            List<BlueprintsFilter> chain = parts.stream().map(this::create).toList();
+            return chain.size() == 1 ? chain.get(0) : new FilterPipeline(key, chain);
+        });
+    }
+
+    /* Forma canónica de un elemento ("douglas-peucker:2.5"), o null si no aporta nada */
+    private String normalize(String part) {
+        String name = part.trim().toLowerCase(Locale.ROOT);
+        String param = null;
+        int colon = name.indexOf(':');
+        if (colon >= 0) {
+            param = name.substring(colon + 1).trim();
+            name = name.substring(0, colon).trim();
+        }
+        if (name.isEmpty() || (name.equals("identity") && param == null)) return null;
+        if (tunable.containsKey(name)) {
+            double tolerance;
+            try {
+                tolerance = param == null ? DEFAULT_TOLERANCE : Double.parseDouble(param);
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Tolerancia inválida para " + name + ": " + param);
+            }
+            if (!(tolerance >= 0) || Double.isInfinite(tolerance)) {
+                throw new IllegalArgumentException("Tolerancia inválida para " + name + ": " + param);
+            }
+            return name + ":" + tolerance;
+        }
+        if (!filters.containsKey(name)) {
+            throw new IllegalArgumentException("Filtro desconocido: " + name + " (disponibles: " + names() + ")");
+        }
+        if (param != null) throw new IllegalArgumentException("El filtro " + name + " no recibe parámetros");
+        return name;
+    }
+
+    private BlueprintsFilter create(String normalized) {
+        int colon = normalized.indexOf(':');
+        if (colon < 0) return filters.get(normalized);
+        return tunable.get(normalized.substring(0, colon)).apply(Double.parseDouble(normalized.substring(colon + 1)));
+    }
+}
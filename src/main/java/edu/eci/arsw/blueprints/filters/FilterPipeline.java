@@ -0,0 +1,139 @@
+package edu.eci.arsw.blueprints.filters;
+
+import java.util.List;
+import java.util.stream.IntStream;
+
+import edu.eci.arsw.blueprints.model.Blueprint;
+import edu.eci.arsw.blueprints.model.PackedPointList;
+import edu.eci.arsw.blueprints.model.Point;
+
+/**
+ * Composición ordenada de filtros (por ejemplo redundancy y luego undersampling).
+ * Los {@link PipelineFilter} consecutivos se fusionan: con pocos puntos se encadenan sus etapas y
+ * se hace una sola pasada sobre los puntos; desde {@link #PARALLEL_THRESHOLD} puntos los trozos
+ * de la entrada se procesan en paralelo en el pool fork-join y cada trozo pasa por todas las
+ * etapas antes de escribirse directamente en su posición de la salida, sin arreglos intermedios.
+ * Como {@link PipelineFilter#keeps} depende de la posición del punto en la entrada de su etapa y
+ * del tamaño de esa entrada (undersampling, lod), un trozo solo puede evaluar la etapa s sabiendo
+ * cuántos puntos dejaron pasar las etapas anteriores en los trozos previos: antes de la pasada que
+ * escribe hay un conteo por etapa (cuántos puntos salen de cada trozo y el último, con una suma de
+ * prefijos entre trozos). Con k etapas son k conteos más la escritura, no una sola pasada.
+ * Los demás filtros se aplican completos, en su posición, sobre el resultado parcial.
+ */
+public final class FilterPipeline implements BlueprintsFilter {
+
+    static final int PARALLEL_THRESHOLD = 1 << 16;
+    static final int CHUNK_SIZE = 1 << 14;
+
+    private final String name;
+    private final List<BlueprintsFilter> filters;
+
+    public FilterPipeline(String name, List<BlueprintsFilter> filters) {
+        this.name = name;
+        this.filters = List.copyOf(filters);
+    }
+
+    public String getName() { return name; }
+
+    @Override
+    public Blueprint apply(Blueprint bp) {
+        Blueprint current = bp;
+        int i = 0;
+        while (i < filters.size()) {
+            if (!(filters.get(i) instanceof PipelineFilter)) {
+                current = filters.get(i++).apply(current);
+                continue;
+            }
+            int j = i;
+            while (j < filters.size() && filters.get(j) instanceof PipelineFilter) j++;
+            List<PipelineFilter> run = filters.subList(i, j).stream().map(PipelineFilter.class::cast).toList();
+            List<Point> points = current.getPoints();
+            current = points.size() >= PARALLEL_THRESHOLD ? parallel(run, current, points) : fused(run, current, points);
+            i = j;
+        }
+        return current;
+    }
+
+    private static Blueprint fused(List<PipelineFilter> run, Blueprint bp, List<Point> points) {
+        Blueprint out = new Blueprint(bp.getAuthor(), bp.getName());
+        PointStage chain = out::addPoint;
+        for (int k = run.size() - 1; k >= 0; k--) chain = run.get(k).stage(chain);
+        for (Point p : points) chain.accept(p.getX(), p.getY());
+        chain.end();
+        return out;
+    }
+
+    private static Blueprint parallel(List<PipelineFilter> run, Blueprint bp, List<Point> points) {
+        PipelineFilter[] stages = run.toArray(PipelineFilter[]::new);
+        int n = points.size();
+        long[] in = new long[n];
+        IntStream.range(0, n).parallel().forEach(i -> {
+            Point p = points.get(i);
+            in[i] = PackedPointList.pack(p.getX(), p.getY());
+        });
+        int chunks = (n + CHUNK_SIZE - 1) / CHUNK_SIZE;
+        // Por etapa s y trozo c: posición en la entrada de la etapa del primer punto que aporta el
+        // trozo, el punto anterior a él en esa entrada y cuántos puntos recibe la etapa (sizes[s]).
+        // La fila stages describe la salida.
+        int[][] first = new int[stages.length + 1][chunks + 1];
+        long[][] before = new long[stages.length + 1][chunks + 1];
+        int[] sizes = new int[stages.length + 1];
+        for (int c = 0; c < chunks; c++) {
+            first[0][c] = c * CHUNK_SIZE;
+            if (c > 0) before[0][c] = in[c * CHUNK_SIZE - 1];
+        }
+        sizes[0] = n;
+        // Un conteo por etapa: cada trozo pasa por las etapas [0, s] y solo se guarda cuántos
+        // puntos salieron y el último, sin arreglos intermedios
+        for (int s = 0; s < stages.length; s++) {
+            int depth = s + 1;
+            int[] kept = new int[chunks];
+            long[] last = new long[chunks];
+            IntStream.range(0, chunks).parallel().forEach(c ->
+                kept[c] = stream(stages, depth, in, c, first, before, sizes, null, 0, last));
+            for (int c = 0; c < chunks; c++) {
+                first[depth][c + 1] = first[depth][c] + kept[c];
+                before[depth][c + 1] = kept[c] > 0 ? last[c] : before[depth][c];
+            }
+            sizes[depth] = first[depth][chunks];
+        }
+        // Una sola pasada que evalúa todas las etapas y escribe cada trozo en su posición final
+        long[] out = new long[sizes[stages.length]];
+        IntStream.range(0, chunks).parallel().forEach(c ->
+            stream(stages, stages.length, in, c, first, before, sizes, out, first[stages.length][c], null));
+        Blueprint result = new Blueprint(bp.getAuthor(), bp.getName());
+        for (long v : out) result.addPoint(PackedPointList.unpackX(v), PackedPointList.unpackY(v));
+        return result;
+    }
+
+    /* Pasa el trozo c de la entrada por las etapas [0, depth). Escribe en out, desde w, los puntos
+     * que salen (si out no es null), deja el último en last[c] (si last no es null) y retorna cuántos son.
+     */
+    private static int stream(PipelineFilter[] stages, int depth, long[] in, int c, int[][] first,
+                              long[][] before, int[] sizes, long[] out, int w, long[] last) {
+        int[] index = new int[depth];
+        long[] previous = new long[depth];
+        for (int s = 0; s < depth; s++) {
+            index[s] = first[s][c];
+            previous[s] = before[s][c];
+        }
+        int emitted = 0;
+        long tail = 0;
+        for (int i = c * CHUNK_SIZE, end = Math.min(in.length, i + CHUNK_SIZE); i < end; i++) {
+            long v = in[i];
+            int s = 0;
+            while (s < depth) {
+                boolean keep = stages[s].keeps(previous[s], v, index[s]++, sizes[s]);
+                previous[s] = v;
+                if (!keep) break;
+                s++;
+            }
+            if (s < depth) continue;
+            if (out != null) out[w + emitted] = v;
+            emitted++;
+            tail = v;
+        }
+        if (last != null) last[c] = tail;
+        return emitted;
+    }
+}
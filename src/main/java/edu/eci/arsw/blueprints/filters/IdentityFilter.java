@@ -10,7 +10,7 @@ import edu.eci.arsw.blueprints.model.Blueprint;
  * Se activa cuando no hay perfiles de filtro activos (perfil "default" o ninguno).
  */
 @Component
-@Profile("!redundancy & !undersampling")
+@Profile("!redundancy & !undersampling & !douglas-peucker & !visvalingam")
 public class IdentityFilter implements BlueprintsFilter {
     @Override
     public Blueprint apply(Blueprint bp) { return bp; }
@@ -0,0 +1,34 @@
+package edu.eci.arsw.blueprints.filters;
+
+import edu.eci.arsw.blueprints.model.Blueprint;
+import edu.eci.arsw.blueprints.model.Point;
+
+/**
+ * Filtro que además de la versión por lotes ({@link #apply}) sabe actualizar un resultado
+ * previo con los puntos que se agregaron después, en O(puntos nuevos).
+ * Para cualquier secuencia de puntos, alimentar un estado con ella y pedir {@link State#result}
+ * debe dar los mismos puntos que {@code apply} sobre el blueprint completo.
+ */
+public interface IncrementalBlueprintsFilter extends BlueprintsFilter {
+
+    /**
+     * Estado vacío para filtrar un blueprint desde su primer punto.
+     */
+    State newState(String author, String name);
+
+    /**
+     * Estado de filtrado de un blueprint. Los puntos se entregan en orden y una sola vez.
+     * No es seguro para varios hilos; quien lo usa debe serializar las llamadas.
+     */
+    interface State {
+
+        void append(Point p);
+
+        /**
+         * Resultado filtrado de los puntos recibidos hasta ahora. {@code source} es el blueprint
+         * original, que se retorna tal cual cuando el filtro no lo modifica (igual que {@code apply}).
+         * El blueprint retornado puede seguir creciendo con los siguientes {@link #append}.
+         */
+        Blueprint result(Blueprint source);
+    }
+}
@@ -0,0 +1,100 @@
+package edu.eci.arsw.blueprints.filters;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import edu.eci.arsw.blueprints.model.Blueprint;
+import edu.eci.arsw.blueprints.model.Point;
+
+/**
+ * Nivel de detalle k: conserva los puntos cuyo índice es múltiplo de 2^k (el nivel 0 es el
+ * blueprint completo). Cada nivel tiene la mitad de puntos que el anterior y, como solo depende del
+ * índice, se mantiene con cada punto agregado en O(1) a través de su estado incremental.
+ * Las instancias son únicas por nivel ({@link #of}), así que los resultados memoizados por
+ * filtro en BlueprintsServices quedan como niveles precalculados por blueprint.
+ */
+public final class LevelOfDetailFilter implements IncrementalBlueprintsFilter, PipelineFilter {
+
+    public static final int MAX_LEVEL = 30;
+    private static final LevelOfDetailFilter[] LEVELS = new LevelOfDetailFilter[MAX_LEVEL + 1];
+
+    static {
+        for (int k = 0; k <= MAX_LEVEL; k++) LEVELS[k] = new LevelOfDetailFilter(k);
+    }
+
+    private final int level;
+    private final int mask;
+
+    private LevelOfDetailFilter(int level) {
+        this.level = level;
+        this.mask = (1 << level) - 1;
+    }
+
+    /**
+     * @throws IllegalArgumentException si el nivel no está entre 0 y {@link #MAX_LEVEL}
+     */
+    public static LevelOfDetailFilter of(int level) {
+        if (level < 0 || level > MAX_LEVEL) {
+            throw new IllegalArgumentException("Nivel de detalle inválido: " + level + " (0.." + MAX_LEVEL + ")");
+        }
+        return LEVELS[level];
+    }
+
+    /**
+     * Nivel más detallado cuyo resultado no supera maxPoints puntos para un blueprint de n puntos.
+     */
+    public static int levelFor(int n, int maxPoints) {
+        if (maxPoints < 1) throw new IllegalArgumentException("maxPoints debe ser al menos 1");
+        int k = 0;
+        // El nivel k conserva ceil(n / 2^k) puntos
+        while (k < MAX_LEVEL && ((n + (1L << k) - 1) >> k) > maxPoints) k++;
+        return k;
+    }
+
+    public int getLevel() { return level; }
+
+    @Override
+    public Blueprint apply(Blueprint bp) {
+        if (level == 0) return bp;
+        List<Point> in = bp.getPoints();
+        List<Point> out = new ArrayList<>((in.size() >> level) + 1);
+        for (int i = 0; i < in.size(); i += mask + 1) out.add(in.get(i));
+        return new Blueprint(bp.getAuthor(), bp.getName(), out);
+    }
+
+    @Override
+    public State newState(String author, String name) {
+        Blueprint out = new Blueprint(author, name);
+        return new State() {
+            private int count;
+
+            @Override
+            public void append(Point p) {
+                if (level > 0 && (count++ & mask) == 0) out.addPoint(p.getX(), p.getY());
+            }
+
+            @Override
+            public Blueprint result(Blueprint source) { return level == 0 ? source : out; }
+        };
+    }
+
+    @Override
+    public PointStage stage(PointStage next) {
+        return new PointStage() {
+            private int count;
+
+            @Override
+            public void accept(int x, int y) {
+                if ((count++ & mask) == 0) next.accept(x, y);
+            }
+
+            @Override
+            public void end() { next.end(); }
+        };
+    }
+
+    @Override
+    public boolean keeps(long previous, long point, int i, int n) {
+        return (i & mask) == 0;
+    }
+}
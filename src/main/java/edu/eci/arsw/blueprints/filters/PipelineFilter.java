@@ -0,0 +1,21 @@
+package edu.eci.arsw.blueprints.filters;
+
+/**
+ * Filtro que puede fusionarse con otros en un {@link FilterPipeline}.
+ * Ofrece dos formas equivalentes a {@link #apply}: una etapa secuencial y una decisión por punto
+ * que solo mira vecinos inmediatos, con la que el pipeline procesa trozos en paralelo.
+ */
+public interface PipelineFilter extends BlueprintsFilter {
+
+    /**
+     * Etapa secuencial que entrega a {@code next} los puntos que este filtro conserva.
+     */
+    PointStage stage(PointStage next);
+
+    /**
+     * Indica si {@code point}, el punto {@code i} de los {@code n} de la entrada, se conserva.
+     * {@code previous} es el punto {@code i - 1} de la entrada (sin significado cuando i es 0).
+     * Los puntos vienen empaquetados como en {@link edu.eci.arsw.blueprints.model.PackedPointList#pack}.
+     */
+    boolean keeps(long previous, long point, int i, int n);
+}
@@ -0,0 +1,17 @@
+package edu.eci.arsw.blueprints.filters;
+
+/**
+ * Etapa de un pipeline de filtros: recibe los puntos uno a uno y entrega a la siguiente
+ * etapa los que conserva, sin construir listas intermedias.
+ */
+@FunctionalInterface
+public interface PointStage {
+
+    void accept(int x, int y);
+
+    /**
+     * Fin de la secuencia. Las etapas que retienen puntos los entregan aquí y luego
+     * propagan el fin a la siguiente etapa.
+     */
+    default void end() {}
+}
@@ -11,11 +11,12 @@ import edu.eci.arsw.blueprints.model.Point;
 
 /**
  * Elimina puntos consecutivos duplicados (x,y) para reducir redundancia.
+ * Incremental: solo necesita recordar el último punto conservado.
  * Perfil: "redundancy"
  */
 @Component
 @Profile("redundancy")
-public class RedundancyFilter implements BlueprintsFilter {
+public class RedundancyFilter implements IncrementalBlueprintsFilter, PipelineFilter {
     @Override
     public Blueprint apply(Blueprint bp) {
         List<Point> in = bp.getPoints();
@@ -30,4 +31,54 @@ public class RedundancyFilter implements BlueprintsFilter {
         }
         return new Blueprint(bp.getAuthor(), bp.getName(), out);
     }
+
+    @Override
+    public State newState(String author, String name) {
+        Blueprint out = new Blueprint(author, name);
+        return new State() {
+            private boolean empty = true;
+            private int lastX;
+            private int lastY;
+
+            @Override
+            public void append(Point p) {
+                if (empty || lastX != p.getX() || lastY != p.getY()) {
+                    out.addPoint(p.getX(), p.getY());
+                    lastX = p.getX();
+                    lastY = p.getY();
+                    empty = false;
+                }
+            }
+
+            @Override
+            public Blueprint result(Blueprint source) { return empty ? source : out; }
+        };
+    }
+
+    @Override
+    public PointStage stage(PointStage next) {
+        return new PointStage() {
+            private boolean empty = true;
+            private int lastX;
+            private int lastY;
+
+            @Override
+            public void accept(int x, int y) {
+                if (empty || lastX != x || lastY != y) {
+                    next.accept(x, y);
+                    lastX = x;
+                    lastY = y;
+                    empty = false;
+                }
+            }
+
+            @Override
+            public void end() { next.end(); }
+        };
+    }
+
+    @Override
+    public boolean keeps(long previous, long point, int i, int n) {
+        return i == 0 || point != previous;
+    }
 }
@@ -10,11 +10,14 @@ import java.util.List;
 
 /**
  * Undersampling: conserva 1 de cada 2 puntos (índices pares), reduciendo la densidad.
+ * Con 2 puntos o menos el blueprint se deja intacto; el estado incremental lo respeta
+ * devolviendo el original hasta que llega el tercer punto, sin sacar el punto impar de la salida,
+ * y la etapa de pipeline retiene el segundo punto hasta saber si llega un tercero.
  * Perfil: "undersampling"
  */
 @Component
 @Profile("undersampling")
-public class UndersamplingFilter implements BlueprintsFilter {
+public class UndersamplingFilter implements IncrementalBlueprintsFilter, PipelineFilter {
     @Override
     public Blueprint apply(Blueprint bp) {
         List<Point> in = bp.getPoints();
@@ -25,4 +28,54 @@ public class UndersamplingFilter implements BlueprintsFilter {
         }
         return new Blueprint(bp.getAuthor(), bp.getName(), out);
     }
+
+    @Override
+    public State newState(String author, String name) {
+        Blueprint out = new Blueprint(author, name);
+        return new State() {
+            private int count;
+
+            @Override
+            public void append(Point p) {
+                if (count++ % 2 == 0) out.addPoint(p.getX(), p.getY());
+            }
+
+            @Override
+            public Blueprint result(Blueprint source) { return count <= 2 ? source : out; }
+        };
+    }
+
+    @Override
+    public PointStage stage(PointStage next) {
+        return new PointStage() {
+            private int count;
+            private boolean pending;
+            private int pendingX;
+            private int pendingY;
+
+            @Override
+            public void accept(int x, int y) {
+                int i = count++;
+                if (i == 1) {
+                    pending = true;
+                    pendingX = x;
+                    pendingY = y;
+                    return;
+                }
+                pending = false;
+                if (i % 2 == 0) next.accept(x, y);
+            }
+
+            @Override
+            public void end() {
+                if (pending) next.accept(pendingX, pendingY);
+                next.end();
+            }
+        };
+    }
+
+    @Override
+    public boolean keeps(long previous, long point, int i, int n) {
+        return n <= 2 || i % 2 == 0;
+    }
 }
@@ -0,0 +1,134 @@
+package edu.eci.arsw.blueprints.filters;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+import edu.eci.arsw.blueprints.model.Blueprint;
+import edu.eci.arsw.blueprints.model.Point;
+
+/**
+ * Simplificación Visvalingam–Whyatt: elimina repetidamente el punto cuyo triángulo con sus
+ * vecinos tiene el área efectiva más pequeña, hasta que todas las áreas restantes alcanzan la
+ * tolerancia (en unidades²). Los extremos siempre se conservan.
+ * Usa listas enlazadas sobre arreglos y un montículo indexado, O(n log n) en cualquier caso.
+ * El área de un vecino recalculada nunca baja de la del punto eliminado, para que el orden
+ * de eliminación sea monótono.
+ * Perfil: "visvalingam" (tolerancia en blueprints.simplify.tolerance).
+ */
+@Component
+@Profile("visvalingam")
+public class VisvalingamFilter implements BlueprintsFilter {
+
+    private final double tolerance;
+
+    public VisvalingamFilter(@Value("${blueprints.simplify.tolerance:1.0}") double tolerance) {
+        if (!(tolerance >= 0) || Double.isInfinite(tolerance)) {
+            throw new IllegalArgumentException("Tolerancia inválida: " + tolerance);
+        }
+        this.tolerance = tolerance;
+    }
+
+    public double getTolerance() { return tolerance; }
+
+    @Override
+    public Blueprint apply(Blueprint bp) {
+        List<Point> in = bp.getPoints();
+        int n = in.size();
+        if (n <= 2) return bp;
+        int[] xs = new int[n];
+        int[] ys = new int[n];
+        for (int i = 0; i < n; i++) {
+            Point p = in.get(i);
+            xs[i] = p.getX();
+            ys[i] = p.getY();
+        }
+        int[] prev = new int[n];
+        int[] next = new int[n];
+        double[] area = new double[n];
+        for (int i = 0; i < n; i++) {
+            prev[i] = i - 1;
+            next[i] = i + 1;
+        }
+        // Montículo mínimo de los puntos interiores; pos[i] es la posición de i en el montículo (-1 = fuera)
+        int[] heap = new int[n - 2];
+        int[] pos = new int[n];
+        pos[0] = -1;
+        pos[n - 1] = -1;
+        for (int i = 1; i < n - 1; i++) {
+            area[i] = triangleArea(xs, ys, i - 1, i, i + 1);
+            heap[i - 1] = i;
+            pos[i] = i - 1;
+        }
+        int size = n - 2;
+        for (int k = size / 2 - 1; k >= 0; k--) siftDown(heap, pos, area, size, k);
+
+        int removed = 0;
+        while (size > 0 && area[heap[0]] < tolerance) {
+            int i = heap[0];
+            double removedArea = area[i];
+            size--;
+            pos[i] = -1;
+            if (size > 0) {
+                heap[0] = heap[size];
+                pos[heap[0]] = 0;
+                siftDown(heap, pos, area, size, 0);
+            }
+            int a = prev[i];
+            int b = next[i];
+            next[a] = b;
+            prev[b] = a;
+            removed++;
+            if (pos[a] >= 0) update(heap, pos, area, size, a, Math.max(removedArea, triangleArea(xs, ys, prev[a], a, b)));
+            if (pos[b] >= 0) update(heap, pos, area, size, b, Math.max(removedArea, triangleArea(xs, ys, a, b, next[b])));
+        }
+        if (removed == 0) return bp;
+        List<Point> out = new ArrayList<>(n - removed);
+        for (int i = 0; i < n; i = next[i]) out.add(in.get(i));
+        return new Blueprint(bp.getAuthor(), bp.getName(), out);
+    }
+
+    private static double triangleArea(int[] xs, int[] ys, int a, int b, int c) {
+        double cross = ((double) xs[b] - xs[a]) * ((double) ys[c] - ys[a])
+                     - ((double) xs[c] - xs[a]) * ((double) ys[b] - ys[a]);
+        return Math.abs(cross) / 2;
+    }
+
+    private static void update(int[] heap, int[] pos, double[] area, int size, int i, double value) {
+        double old = area[i];
+        area[i] = value;
+        if (value < old) siftUp(heap, pos, area, pos[i]);
+        else siftDown(heap, pos, area, size, pos[i]);
+    }
+
+    private static void siftUp(int[] heap, int[] pos, double[] area, int k) {
+        int item = heap[k];
+        while (k > 0) {
+            int parent = (k - 1) >>> 1;
+            if (area[heap[parent]] <= area[item]) break;
+            heap[k] = heap[parent];
+            pos[heap[k]] = k;
+            k = parent;
+        }
+        heap[k] = item;
+        pos[item] = k;
+    }
+
+    private static void siftDown(int[] heap, int[] pos, double[] area, int size, int k) {
+        int item = heap[k];
+        int half = size >>> 1;
+        while (k < half) {
+            int child = 2 * k + 1;
+            if (child + 1 < size && area[heap[child + 1]] < area[heap[child]]) child++;
+            if (area[item] <= area[heap[child]]) break;
+            heap[k] = heap[child];
+            pos[heap[k]] = k;
+            k = child;
+        }
+        heap[k] = item;
+        pos[item] = k;
+    }
+}
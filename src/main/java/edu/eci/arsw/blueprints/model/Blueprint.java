@@ -1,10 +1,16 @@
 package edu.eci.arsw.blueprints.model;
 
-import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLong;
 
+import org.hibernate.annotations.BatchSize;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
+import jakarta.persistence.Access;
+import jakarta.persistence.AccessType;
 import jakarta.persistence.CollectionTable;
 import jakarta.persistence.Column;
 import jakarta.persistence.ElementCollection;
@@ -13,9 +19,11 @@ import jakarta.persistence.FetchType;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.OrderColumn;
 import jakarta.persistence.Table;
+import jakarta.persistence.Transient;
 import jakarta.persistence.UniqueConstraint;
 
 @Entity
@@ -34,10 +42,37 @@ public class Blueprint {
     @Column(nullable = false)
     private String name;
 
-    @ElementCollection(fetch = FetchType.EAGER)
-    @CollectionTable(name = "blueprint_points", joinColumns = @JoinColumn(name = "blueprint_id"))
+    // LAZY: listings use BlueprintSummary projections; queries that need the points fetch them
+    // with an entity graph, and anything else is batch-loaded instead of one select per blueprint
+    @ElementCollection(fetch = FetchType.LAZY)
+    @BatchSize(size = 50)
+    // idx_blueprint_points_xy serves region queries within a blueprint; the (blueprint_id,
+    // point_order) key keeps serving appends. Bounding boxes live in the blueprint row (see getMinX)
+    @CollectionTable(name = "blueprint_points", joinColumns = @JoinColumn(name = "blueprint_id"),
+        indexes = @Index(name = "idx_blueprint_points_xy", columnList = "blueprint_id, x, y"))
     @OrderColumn(name = "point_order")
-    private List<Point> points = new ArrayList<>();
+    private List<Point> points = new PackedPointList();
+
+    // Bumped after every change to the points, once the change is visible to readers.
+    // Derived data (filtered copies) is valid for as long as the version it was built from.
+    @Transient
+    private final AtomicLong version = new AtomicLong();
+
+    // Bumped by setPoints only: appends keep it, so whatever is built incrementally from the points
+    // (a spatial index) can keep catching up while it holds and must start over when it changes
+    @Transient
+    private final AtomicLong pointsGeneration = new AtomicLong();
+
+    // Bounding box of the points as two packed corners (PackedPointList.pack), widened with a CAS
+    // on every append so region listings never read the points; minX > maxX means no points.
+    // Postgres stores it in min_x/min_y/max_x/max_y through the property accessors below.
+    @Transient
+    private final AtomicLong minCorner = new AtomicLong(EMPTY_MIN);
+    @Transient
+    private final AtomicLong maxCorner = new AtomicLong(EMPTY_MAX);
+
+    private static final long EMPTY_MIN = PackedPointList.pack(Integer.MAX_VALUE, Integer.MAX_VALUE);
+    private static final long EMPTY_MAX = PackedPointList.pack(Integer.MIN_VALUE, Integer.MIN_VALUE);
 
     public Blueprint() {}
     public Blueprint(String author, String name) {
@@ -50,7 +85,10 @@ public class Blueprint {
     public Blueprint(String author, String name, List<Point> pts) {
         this.author = author;
         this.name = name;
-        if (pts != null) points.addAll(pts);
+        if (pts != null) {
+            points.addAll(pts);
+            widen(pts);
+        }
     }
     public Long getId() { return id; }
     public void setId(Long id) { this.id = id; }
@@ -60,20 +98,127 @@ public class Blueprint {
 
     public String getName() { return name; }
     public void setName(String name) { this.name = name; }
-    /* Returns an unmodifiable view of the points list
+    /* Returns an unmodifiable view of the points list. With the packed storage this is a snapshot
+     * that concurrent appends and later setPoints calls do not disturb while it is being serialized.
+     */
+    public List<Point> getPoints() {
+        if (points instanceof PackedPointList packed) return packed.snapshot();
+        return Collections.unmodifiableList(points);
+    }
+    /* Modification counter of this instance; read it before the points so that whatever is derived
+     * from them is at least as new as the version it is recorded under
+     */
+    @JsonIgnore
+    public long getVersion() { return version.get(); }
+    /* Number of times the points were replaced (setPoints); read it before the points, like the version
      */
-    public List<Point> getPoints() { return Collections.unmodifiableList(points); }
+    @JsonIgnore
+    public long getPointsGeneration() { return pointsGeneration.get(); }
     /* Adds a point to the blueprint
      */
-    public void addPoint(Point p) { points.add(p); }
-    /* Overrides equals and hashCode based on author and name
+    public void addPoint(Point p) {
+        points.add(p);
+        widen(p.getX(), p.getY(), p.getX(), p.getY());
+        version.incrementAndGet();
+    }
+    /* Adds a point without allocating a Point when the packed storage is in use
+     * (Hibernate swaps in its own list for entities loaded from the database).
+     * Returns the index the point was stored at.
+     */
+    public int addPoint(int x, int y) {
+        int index;
+        if (points instanceof PackedPointList packed) {
+            index = packed.add(x, y);
+        } else {
+            points.add(new Point(x, y));
+            index = points.size() - 1;
+        }
+        widen(x, y, x, y);
+        version.incrementAndGet();
+        return index;
+    }
+    /* Appends pts contiguously and returns the index of the first one
      */
-    public void addPoints(List<Point> pts) {
-        if (pts != null) points.addAll(pts);
+    public int addPoints(List<Point> pts) {
+        int start;
+        if (points instanceof PackedPointList packed) {
+            start = packed.appendAll(pts == null ? List.of() : pts);
+        } else {
+            start = points.size();
+            if (pts != null) points.addAll(pts);
+        }
+        if (pts != null) widen(pts);
+        version.incrementAndGet();
+        return start;
     }
     public void setPoints(List<Point> pts) {
         points.clear();
-        if (pts != null) points.addAll(pts);
+        minCorner.set(EMPTY_MIN);
+        maxCorner.set(EMPTY_MAX);
+        if (pts != null) {
+            points.addAll(pts);
+            widen(pts);
+        }
+        pointsGeneration.incrementAndGet();
+        version.incrementAndGet();
+    }
+    /* Bounding box of the points as {minX, minY, maxX, maxY}, or null when there are none.
+     * Costs O(1): the box is kept up to date by every append.
+     */
+    @JsonIgnore
+    public int[] getBounds() {
+        long min = minCorner.get();
+        long max = maxCorner.get();
+        int minX = PackedPointList.unpackX(min);
+        int maxX = PackedPointList.unpackX(max);
+        if (minX > maxX) return null;
+        return new int[] {minX, PackedPointList.unpackY(min), maxX, PackedPointList.unpackY(max)};
+    }
+    /* Bounding box columns, null when there are no points. Mapped as properties so Hibernate reads
+     * and writes the same corners; PostgresBlueprintPersistence widens the columns in SQL on append.
+     */
+    @Access(AccessType.PROPERTY)
+    @Column(name = "min_x")
+    protected Integer getMinX() { int[] b = getBounds(); return b == null ? null : b[0]; }
+    protected void setMinX(Integer v) { if (v != null) minCorner.set(PackedPointList.pack(v, PackedPointList.unpackY(minCorner.get()))); }
+    @Access(AccessType.PROPERTY)
+    @Column(name = "min_y")
+    protected Integer getMinY() { int[] b = getBounds(); return b == null ? null : b[1]; }
+    protected void setMinY(Integer v) { if (v != null) minCorner.set(PackedPointList.pack(PackedPointList.unpackX(minCorner.get()), v)); }
+    @Access(AccessType.PROPERTY)
+    @Column(name = "max_x")
+    protected Integer getMaxX() { int[] b = getBounds(); return b == null ? null : b[2]; }
+    protected void setMaxX(Integer v) { if (v != null) maxCorner.set(PackedPointList.pack(v, PackedPointList.unpackY(maxCorner.get()))); }
+    @Access(AccessType.PROPERTY)
+    @Column(name = "max_y")
+    protected Integer getMaxY() { int[] b = getBounds(); return b == null ? null : b[3]; }
+    protected void setMaxY(Integer v) { if (v != null) maxCorner.set(PackedPointList.pack(PackedPointList.unpackX(maxCorner.get()), v)); }
+    private void widen(List<Point> pts) {
+        if (pts.isEmpty()) return;
+        int minX = Integer.MAX_VALUE, minY = Integer.MAX_VALUE, maxX = Integer.MIN_VALUE, maxY = Integer.MIN_VALUE;
+        for (Point p : pts) {
+            minX = Math.min(minX, p.getX());
+            minY = Math.min(minY, p.getY());
+            maxX = Math.max(maxX, p.getX());
+            maxY = Math.max(maxY, p.getY());
+        }
+        widen(minX, minY, maxX, maxY);
+    }
+    /* Only writes when the box actually grows, so appends inside it never contend on the corners
+     */
+    private void widen(int minX, int minY, int maxX, int maxY) {
+        long min = minCorner.get();
+        while (minX < PackedPointList.unpackX(min) || minY < PackedPointList.unpackY(min)) {
+            long next = PackedPointList.pack(Math.min(minX, PackedPointList.unpackX(min)), Math.min(minY, PackedPointList.unpackY(min)));
+            if (minCorner.compareAndSet(min, next)) break;
+            min = minCorner.get();
+        }
+        long max = maxCorner.get();
+        while (maxX > PackedPointList.unpackX(max) || maxY > PackedPointList.unpackY(max)) {
+            long next = PackedPointList.pack(Math.max(maxX, PackedPointList.unpackX(max)), Math.max(maxY, PackedPointList.unpackY(max)));
+            if (maxCorner.compareAndSet(max, next)) break;
+            max = maxCorner.get();
+        }
     }
     @Override
     public boolean equals(Object o) {
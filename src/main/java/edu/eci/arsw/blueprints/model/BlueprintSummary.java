@@ -0,0 +1,23 @@
+package edu.eci.arsw.blueprints.model;
+
+/**
+ * Listing view of a blueprint: identity, point count and bounding box, without the points.
+ * The bounding box fields are null when the blueprint has no points.
+ */
+public record BlueprintSummary(
+    String author,
+    String name,
+    long pointCount,
+    Integer minX,
+    Integer minY,
+    Integer maxX,
+    Integer maxY
+) {
+    /* Reads the point count and the bounding box Blueprint keeps, without walking the points */
+    public static BlueprintSummary of(Blueprint bp) {
+        int count = bp.getPoints().size();
+        int[] b = bp.getBounds();
+        if (count == 0 || b == null) return new BlueprintSummary(bp.getAuthor(), bp.getName(), count, null, null, null, null);
+        return new BlueprintSummary(bp.getAuthor(), bp.getName(), count, b[0], b[1], b[2], b[3]);
+    }
+}
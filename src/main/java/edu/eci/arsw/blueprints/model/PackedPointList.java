@@ -0,0 +1,223 @@
+package edu.eci.arsw.blueprints.model;
+
+import java.util.AbstractList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+import java.util.RandomAccess;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * List of points stored as one packed long per point (x in the high 32 bits, y in the low 32 bits).
+ * Point objects are only created when an element is read through the List view, so a blueprint
+ * with many points keeps primitive arrays on the heap instead of one object per point.
+ *
+ * Appends are safe from any number of threads without locking: a writer claims a contiguous range
+ * of slots, fills it and then publishes it in claim order, so readers never see a gap. Storage is
+ * a fixed directory of segments whose sizes double (16, 32, 64, ...), which means appends never
+ * copy or move existing slots and {@link #snapshot()} can share them with readers.
+ * The positional operations (add at index, set, remove, clear) exist for JPA and
+ * {@link Blueprint#setPoints}; they must not run concurrently with appends. They never write to
+ * slots a snapshot may be reading: clear() starts over with empty storage and the others copy the
+ * segments first (O(n)), so a snapshot keeps its points after the list is changed or refilled.
+ */
+public class PackedPointList extends AbstractList<Point> implements RandomAccess {
+
+    private static final int FIRST_SEGMENT_BITS = 4;
+    private static final int SEGMENTS = Integer.SIZE - FIRST_SEGMENT_BITS;
+
+    // Replaced, never rewritten in place, by the positional operations
+    private volatile AtomicReferenceArray<long[]> segments = new AtomicReferenceArray<>(SEGMENTS);
+    private final AtomicInteger claimed = new AtomicInteger();
+    private volatile int published;
+
+    public PackedPointList() {}
+
+    public PackedPointList(Collection<? extends Point> pts) { addAll(pts); }
+
+    public static long pack(int x, int y) { return ((long) x << 32) | (y & 0xFFFFFFFFL); }
+    public static int unpackX(long v) { return (int) (v >> 32); }
+    public static int unpackY(long v) { return (int) v; }
+
+    /* Coordinate accessors that do not materialize a Point
+     */
+    public int getX(int index) { return unpackX(read(Objects.checkIndex(index, published))); }
+    public int getY(int index) { return unpackY(read(Objects.checkIndex(index, published))); }
+
+    @Override
+    public Point get(int index) {
+        long v = read(Objects.checkIndex(index, published));
+        return new Point(unpackX(v), unpackY(v));
+    }
+
+    @Override
+    public int size() { return published; }
+
+    /* Appends one point and returns its index
+     */
+    public int add(int x, int y) {
+        return append(pack(x, y));
+    }
+
+    @Override
+    public boolean add(Point p) {
+        add(p.getX(), p.getY());
+        return true;
+    }
+
+    /* Appends all points as one contiguous range, so concurrent batches never interleave
+     */
+    @Override
+    public boolean addAll(Collection<? extends Point> pts) {
+        if (pts.isEmpty()) return false;
+        appendAll(pts);
+        return true;
+    }
+
+    /* Like addAll, but returns the index of the first appended point
+     */
+    public int appendAll(Collection<? extends Point> pts) {
+        long[] packed = new long[pts.size()];
+        int i = 0;
+        for (Point p : pts) packed[i++] = pack(p.getX(), p.getY());
+        return append(packed);
+    }
+
+    /* Returns an immutable view of the points published so far. It shares storage with this list
+     * and costs O(1); later appends are not visible through it, and clear(), set() and the other
+     * positional operations leave it untouched because they move the list to new storage.
+     */
+    public List<Point> snapshot() {
+        // clear() empties the list before swapping the storage: a size read between two reads of
+        // the same storage belongs to it
+        AtomicReferenceArray<long[]> storage;
+        int size;
+        do {
+            storage = segments;
+            size = published;
+        } while (storage != segments);
+        return new Snapshot(storage, size);
+    }
+
+    /* Single-slot version of append(long[]) for the per-point path: no array per call
+     */
+    private int append(long packed) {
+        int index = claimed.getAndIncrement();
+        write(index, packed);
+        awaitPublished(index);
+        published = index + 1;
+        return index;
+    }
+
+    private int append(long[] packed) {
+        int start = claimed.getAndAdd(packed.length);
+        for (int i = 0; i < packed.length; i++) write(start + i, packed[i]);
+        awaitPublished(start);
+        published = start + packed.length;
+        return start;
+    }
+
+    /* Publish in claim order: wait until every range before start is visible
+     */
+    private void awaitPublished(int start) {
+        int spins = 0;
+        while (published != start) {
+            if (++spins % 64 == 0) Thread.yield();
+            else Thread.onSpinWait();
+        }
+    }
+
+    @Override
+    public synchronized void add(int index, Point p) {
+        int n = published;
+        if (index < 0 || index > n) throw new IndexOutOfBoundsException(index);
+        segments = copyOfSegments();
+        add(p);
+        for (int i = n; i > index; i--) write(i, read(i - 1));
+        write(index, pack(p.getX(), p.getY()));
+        modCount++;
+    }
+
+    @Override
+    public synchronized Point set(int index, Point p) {
+        Point old = get(index);
+        segments = copyOfSegments();
+        write(index, pack(p.getX(), p.getY()));
+        return old;
+    }
+
+    @Override
+    public synchronized Point remove(int index) {
+        Point old = get(index);
+        int n = published;
+        segments = copyOfSegments();
+        for (int i = index; i < n - 1; i++) write(i, read(i + 1));
+        claimed.set(n - 1);
+        published = n - 1;
+        modCount++;
+        return old;
+    }
+
+    @Override
+    public synchronized void clear() {
+        claimed.set(0);
+        published = 0;
+        segments = new AtomicReferenceArray<>(SEGMENTS);
+        modCount++;
+    }
+
+    private AtomicReferenceArray<long[]> copyOfSegments() {
+        AtomicReferenceArray<long[]> current = segments;
+        AtomicReferenceArray<long[]> copy = new AtomicReferenceArray<>(SEGMENTS);
+        for (int seg = 0; seg < SEGMENTS; seg++) {
+            long[] segment = current.get(seg);
+            if (segment == null) break;
+            copy.set(seg, segment.clone());
+        }
+        return copy;
+    }
+
+    private long read(int index) { return read(segments, index); }
+
+    private static long read(AtomicReferenceArray<long[]> storage, int index) {
+        int pos = index + (1 << FIRST_SEGMENT_BITS);
+        int seg = segmentOf(pos);
+        return storage.get(seg)[pos - (1 << (seg + FIRST_SEGMENT_BITS))];
+    }
+
+    private void write(int index, long value) {
+        AtomicReferenceArray<long[]> segments = this.segments;
+        int pos = index + (1 << FIRST_SEGMENT_BITS);
+        int seg = segmentOf(pos);
+        long[] segment = segments.get(seg);
+        if (segment == null) {
+            segments.compareAndSet(seg, null, new long[1 << (seg + FIRST_SEGMENT_BITS)]);
+            segment = segments.get(seg);
+        }
+        segment[pos - (1 << (seg + FIRST_SEGMENT_BITS))] = value;
+    }
+
+    private static int segmentOf(int pos) {
+        return Integer.SIZE - 1 - Integer.numberOfLeadingZeros(pos) - FIRST_SEGMENT_BITS;
+    }
+
+    private static final class Snapshot extends AbstractList<Point> implements RandomAccess {
+        private final AtomicReferenceArray<long[]> storage;
+        private final int size;
+
+        Snapshot(AtomicReferenceArray<long[]> storage, int size) {
+            this.storage = storage;
+            this.size = size;
+        }
+
+        @Override
+        public Point get(int index) {
+            long v = read(storage, Objects.checkIndex(index, size));
+            return new Point(unpackX(v), unpackY(v));
+        }
+
+        @Override
+        public int size() { return size; }
+    }
+}
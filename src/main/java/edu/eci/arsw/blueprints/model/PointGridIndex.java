@@ -0,0 +1,138 @@
+package edu.eci.arsw.blueprints.model;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Uniform grid over the points of one blueprint, for bounding-box queries.
+ * Each non-empty cell keeps the indices and packed coordinates of its points in append order.
+ * The index is append-only and is brought up to date with {@link #catchUp}, which only reads
+ * the points added since the previous call. It also tracks the bounding box of everything indexed.
+ * All methods are synchronized; a query holds the lock only while it scans the cells it touches,
+ * and a query with a box larger than the indexed extent scans the non-empty cells instead.
+ */
+public class PointGridIndex {
+
+    public static final int DEFAULT_CELL_SIZE = 64;
+
+    private final int cellShift;
+    private final Map<Long, Cell> cells = new HashMap<>();
+    private int indexed;
+    private int minX = Integer.MAX_VALUE;
+    private int minY = Integer.MAX_VALUE;
+    private int maxX = Integer.MIN_VALUE;
+    private int maxY = Integer.MIN_VALUE;
+
+    public PointGridIndex() { this(DEFAULT_CELL_SIZE); }
+
+    /* cellSize is rounded up to a power of two so cell coordinates are a shift away */
+    public PointGridIndex(int cellSize) {
+        this.cellShift = 32 - Integer.numberOfLeadingZeros(Math.max(1, cellSize) - 1);
+    }
+
+    /* Indexes points[indexed, size); points must only ever grow by appends */
+    public synchronized void catchUp(List<Point> points) {
+        for (int i = indexed; i < points.size(); i++) {
+            Point p = points.get(i);
+            int x = p.getX();
+            int y = p.getY();
+            cells.computeIfAbsent(cellKey(x >> cellShift, y >> cellShift), k -> new Cell()).add(i, PackedPointList.pack(x, y));
+            minX = Math.min(minX, x);
+            minY = Math.min(minY, y);
+            maxX = Math.max(maxX, x);
+            maxY = Math.max(maxY, y);
+        }
+        indexed = Math.max(indexed, points.size());
+    }
+
+    public synchronized int size() { return indexed; }
+
+    /* Bounding box of the indexed points, or null when there are none */
+    public synchronized int[] bounds() {
+        return indexed == 0 ? null : new int[] {minX, minY, maxX, maxY};
+    }
+
+    public synchronized boolean intersects(int qMinX, int qMinY, int qMaxX, int qMaxY) {
+        return indexed > 0 && minX <= qMaxX && maxX >= qMinX && minY <= qMaxY && maxY >= qMinY;
+    }
+
+    /* Indices of the points inside the closed box, in ascending (append) order */
+    public int[] query(int qMinX, int qMinY, int qMaxX, int qMaxY) {
+        Hits hits = new Hits();
+        synchronized (this) {
+            if (!intersects(qMinX, qMinY, qMaxX, qMaxY)) return new int[0];
+            // Clip to the indexed extent, then scan whichever is smaller: the covered cells or the non-empty ones
+            int x0 = Math.max(qMinX, minX) >> cellShift;
+            int y0 = Math.max(qMinY, minY) >> cellShift;
+            int x1 = Math.min(qMaxX, maxX) >> cellShift;
+            int y1 = Math.min(qMaxY, maxY) >> cellShift;
+            long covered = ((long) x1 - x0 + 1) * ((long) y1 - y0 + 1);
+            if (covered <= cells.size()) {
+                for (int cx = x0; cx <= x1; cx++) {
+                    for (int cy = y0; cy <= y1; cy++) {
+                        Cell cell = cells.get(cellKey(cx, cy));
+                        if (cell != null) cell.collect(qMinX, qMinY, qMaxX, qMaxY, hits);
+                    }
+                }
+            } else {
+                for (Cell cell : cells.values()) cell.collect(qMinX, qMinY, qMaxX, qMaxY, hits);
+            }
+        }
+        int[] result = Arrays.copyOf(hits.values, hits.size);
+        Arrays.sort(result);
+        return result;
+    }
+
+    /* Points of a snapshot of the indexed list inside the closed box, in order. Hits past the end of
+     * the snapshot (indexed from a newer one by a concurrent caller) are left out.
+     */
+    public List<Point> query(List<Point> points, int qMinX, int qMinY, int qMaxX, int qMaxY) {
+        int[] indices = query(qMinX, qMinY, qMaxX, qMaxY);
+        List<Point> out = new ArrayList<>(indices.length);
+        for (int i : indices) {
+            if (i >= points.size()) break;
+            out.add(points.get(i));
+        }
+        return out;
+    }
+
+    private static long cellKey(int cx, int cy) {
+        return ((long) cx << 32) | (cy & 0xFFFFFFFFL);
+    }
+
+    private static final class Hits {
+        private int[] values = new int[16];
+        private int size;
+
+        void add(int v) {
+            if (size == values.length) values = Arrays.copyOf(values, size * 2);
+            values[size++] = v;
+        }
+    }
+
+    private static final class Cell {
+        private int[] indices = new int[4];
+        private long[] packed = new long[4];
+        private int size;
+
+        void add(int index, long value) {
+            if (size == indices.length) {
+                indices = Arrays.copyOf(indices, size * 2);
+                packed = Arrays.copyOf(packed, size * 2);
+            }
+            indices[size] = index;
+            packed[size++] = value;
+        }
+
+        void collect(int qMinX, int qMinY, int qMaxX, int qMaxY, Hits hits) {
+            for (int i = 0; i < size; i++) {
+                int x = PackedPointList.unpackX(packed[i]);
+                int y = PackedPointList.unpackY(packed[i]);
+                if (x >= qMinX && x <= qMaxX && y >= qMinY && y <= qMaxY) hits.add(indices[i]);
+            }
+        }
+    }
+}
@@ -1,8 +1,11 @@
 package edu.eci.arsw.blueprints.persistence;
 
+import java.util.List;
 import java.util.Set;
 
 import edu.eci.arsw.blueprints.model.Blueprint;
+import edu.eci.arsw.blueprints.model.BlueprintSummary;
+import edu.eci.arsw.blueprints.model.Point;
 
 public interface BlueprintPersistence {
 
@@ -14,7 +17,28 @@ public interface BlueprintPersistence {
 
     Set<Blueprint> getAllBlueprints();
 
-    void addPoint(String author, String name, int x, int y) throws BlueprintNotFoundException;
+    /* Up to limit blueprints ordered by (author, name), strictly after the given cursor
+     * (afterAuthor == null starts from the beginning). Keyset pagination: cost does not grow with the offset.
+     */
+    List<Blueprint> getBlueprintsPage(String afterAuthor, String afterName, int limit);
+
+    /* Author, name, point count and bounding box of every blueprint, without loading points */
+    Set<BlueprintSummary> getBlueprintSummaries();
+
+    Set<BlueprintSummary> getBlueprintSummariesByAuthor(String author) throws BlueprintNotFoundException;
+
+    /* Points of one blueprint inside the closed box [minX, maxX] x [minY, maxY], in drawing order */
+    List<Point> getPointsInBox(String author, String name, int minX, int minY, int maxX, int maxY)
+        throws BlueprintNotFoundException;
+
+    /* Summaries of the blueprints whose bounding box intersects the closed box; empty blueprints never match */
+    Set<BlueprintSummary> getBlueprintsIntersecting(int minX, int minY, int maxX, int maxY);
+
+    /* Returns the index the point was stored at, usable as a sequence number for deltas */
+    int addPoint(String author, String name, int x, int y) throws BlueprintNotFoundException;
+
+    /* Returns the index of the first appended point; the batch is stored contiguously */
+    int addPoints(String author, String name, List<Point> points) throws BlueprintNotFoundException;
 
     void deleteBlueprint(String author, String name) throws BlueprintNotFoundException;
 }
@@ -0,0 +1,160 @@
+package edu.eci.arsw.blueprints.persistence;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+
+import edu.eci.arsw.blueprints.model.Blueprint;
+import edu.eci.arsw.blueprints.model.BlueprintSummary;
+import edu.eci.arsw.blueprints.model.Point;
+
+/**
+ * Read-through cache for single-blueprint lookups in front of another BlueprintPersistence.
+ * Entries are bounded by count (Caffeine's W-TinyLFU admission keeps the frequently read
+ * blueprints) and by time since they were loaded. Every write that touches a blueprint
+ * invalidates its entry after the delegate returns; listings, pages and summaries pass through.
+ *
+ * A miss installs an incomplete future for its key and the caller that installed it loads the
+ * blueprint outside the map lock; concurrent readers of the same key wait on that future. Loading
+ * inside the map's compute() would pin a virtual thread's carrier for the whole query (Java 21).
+ * An invalidation that races a load removes the pending future, so a value read before a write
+ * committed is never left behind in the cache. A lookup that finds nothing completes its future
+ * with null rather than exceptionally, so Caffeine drops the entry without logging a warning;
+ * waiters turn the null back into BlueprintNotFoundException. Other failed loads are dropped too.
+ */
+public class CachingBlueprintPersistence implements BlueprintPersistence {
+
+    private final BlueprintPersistence delegate;
+    private final AsyncCache<Key, Blueprint> cache;
+
+    public CachingBlueprintPersistence(BlueprintPersistence delegate, long maximumSize, Duration expireAfterWrite) {
+        this.delegate = delegate;
+        this.cache = Caffeine.newBuilder()
+            .maximumSize(maximumSize)
+            .expireAfterWrite(expireAfterWrite)
+            .recordStats()
+            // Eviction bookkeeping runs on the calling thread instead of the common pool
+            .executor(Runnable::run)
+            .buildAsync();
+    }
+
+    @Override
+    public void saveBlueprint(Blueprint bp) throws BlueprintPersistenceException {
+        delegate.saveBlueprint(bp);
+        cache.synchronous().invalidate(new Key(bp.getAuthor(), bp.getName()));
+    }
+
+    @Override
+    public Blueprint getBlueprint(String author, String name) throws BlueprintNotFoundException {
+        CompletableFuture<Blueprint> loading = new CompletableFuture<>();
+        CompletableFuture<Blueprint> cached = cache.get(new Key(author, name), (key, executor) -> loading);
+        if (cached != loading) return await(cached, author, name);
+        // Misses are not cached: a null value is dropped by Caffeine (quietly, unlike a failed
+        // future, which it logs) and a later save is visible right away
+        try {
+            Blueprint bp = delegate.getBlueprint(author, name);
+            loading.complete(bp);
+            if (bp == null) throw notFound(author, name);
+            return bp;
+        } catch (BlueprintNotFoundException e) {
+            loading.complete(null);
+            throw e;
+        } catch (RuntimeException e) {
+            loading.completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    private static Blueprint await(CompletableFuture<Blueprint> future, String author, String name)
+            throws BlueprintNotFoundException {
+        Blueprint bp;
+        try {
+            bp = future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException failure) throw failure;
+            throw e;
+        }
+        if (bp == null) throw notFound(author, name);
+        return bp;
+    }
+
+    private static BlueprintNotFoundException notFound(String author, String name) {
+        return new BlueprintNotFoundException("Blueprint not found: %s/%s".formatted(author, name));
+    }
+
+    @Override
+    public Set<Blueprint> getBlueprintsByAuthor(String author) throws BlueprintNotFoundException {
+        return delegate.getBlueprintsByAuthor(author);
+    }
+
+    @Override
+    public Set<Blueprint> getAllBlueprints() {
+        return delegate.getAllBlueprints();
+    }
+
+    @Override
+    public List<Blueprint> getBlueprintsPage(String afterAuthor, String afterName, int limit) {
+        return delegate.getBlueprintsPage(afterAuthor, afterName, limit);
+    }
+
+    @Override
+    public Set<BlueprintSummary> getBlueprintSummaries() {
+        return delegate.getBlueprintSummaries();
+    }
+
+    @Override
+    public Set<BlueprintSummary> getBlueprintSummariesByAuthor(String author) throws BlueprintNotFoundException {
+        return delegate.getBlueprintSummariesByAuthor(author);
+    }
+
+    @Override
+    public List<Point> getPointsInBox(String author, String name, int minX, int minY, int maxX, int maxY)
+            throws BlueprintNotFoundException {
+        return delegate.getPointsInBox(author, name, minX, minY, maxX, maxY);
+    }
+
+    @Override
+    public Set<BlueprintSummary> getBlueprintsIntersecting(int minX, int minY, int maxX, int maxY) {
+        return delegate.getBlueprintsIntersecting(minX, minY, maxX, maxY);
+    }
+
+    @Override
+    public int addPoint(String author, String name, int x, int y) throws BlueprintNotFoundException {
+        try {
+            return delegate.addPoint(author, name, x, y);
+        } finally {
+            cache.synchronous().invalidate(new Key(author, name));
+        }
+    }
+
+    @Override
+    public int addPoints(String author, String name, List<Point> points) throws BlueprintNotFoundException {
+        try {
+            return delegate.addPoints(author, name, points);
+        } finally {
+            cache.synchronous().invalidate(new Key(author, name));
+        }
+    }
+
+    @Override
+    public void deleteBlueprint(String author, String name) throws BlueprintNotFoundException {
+        try {
+            delegate.deleteBlueprint(author, name);
+        } finally {
+            cache.synchronous().invalidate(new Key(author, name));
+        }
+    }
+
+    /* Hit, miss, load and eviction counters since startup */
+    public CacheStats getStats() { return cache.synchronous().stats(); }
+
+    public long getEstimatedSize() { return cache.synchronous().estimatedSize(); }
+
+    private record Key(String author, String name) {}
+}
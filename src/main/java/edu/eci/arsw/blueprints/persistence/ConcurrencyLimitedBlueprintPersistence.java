@@ -0,0 +1,177 @@
+package edu.eci.arsw.blueprints.persistence;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.dao.TransientDataAccessResourceException;
+
+import edu.eci.arsw.blueprints.model.Blueprint;
+import edu.eci.arsw.blueprints.model.BlueprintSummary;
+import edu.eci.arsw.blueprints.model.Point;
+
+/**
+ * Lets at most maxConcurrency calls reach the delegate at the same time; the rest wait in FIFO
+ * order for up to acquireTimeout and then fail with a TransientDataAccessResourceException.
+ *
+ * Sized to the connection pool, this keeps callers queued here instead of inside Hikari: with
+ * virtual threads there can be thousands of requests in flight, and piling them onto the pool's
+ * handoff queue turns into connection timeouts for the unlucky ones. Waiting on the semaphore
+ * parks the thread without holding anything, and a request that gives up does so before it
+ * opens a transaction.
+ */
+public class ConcurrencyLimitedBlueprintPersistence implements BlueprintPersistence {
+
+    private final BlueprintPersistence delegate;
+    private final int maxConcurrency;
+    private final Semaphore permits;
+    private final long timeoutNanos;
+
+    public ConcurrencyLimitedBlueprintPersistence(BlueprintPersistence delegate, int maxConcurrency, Duration acquireTimeout) {
+        if (maxConcurrency < 1) throw new IllegalArgumentException("maxConcurrency must be at least 1: " + maxConcurrency);
+        this.delegate = delegate;
+        this.maxConcurrency = maxConcurrency;
+        this.permits = new Semaphore(maxConcurrency, true);
+        this.timeoutNanos = acquireTimeout.toNanos();
+    }
+
+    private void acquire() {
+        try {
+            if (!permits.tryAcquire(timeoutNanos, TimeUnit.NANOSECONDS)) {
+                throw new TransientDataAccessResourceException(
+                    "Database busy: no slot freed up within " + Duration.ofNanos(timeoutNanos));
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new TransientDataAccessResourceException("Interrupted while waiting for a database slot", e);
+        }
+    }
+
+    @Override
+    public void saveBlueprint(Blueprint bp) throws BlueprintPersistenceException {
+        acquire();
+        try {
+            delegate.saveBlueprint(bp);
+        } finally {
+            permits.release();
+        }
+    }
+
+    @Override
+    public Blueprint getBlueprint(String author, String name) throws BlueprintNotFoundException {
+        acquire();
+        try {
+            return delegate.getBlueprint(author, name);
+        } finally {
+            permits.release();
+        }
+    }
+
+    @Override
+    public Set<Blueprint> getBlueprintsByAuthor(String author) throws BlueprintNotFoundException {
+        acquire();
+        try {
+            return delegate.getBlueprintsByAuthor(author);
+        } finally {
+            permits.release();
+        }
+    }
+
+    @Override
+    public Set<Blueprint> getAllBlueprints() {
+        acquire();
+        try {
+            return delegate.getAllBlueprints();
+        } finally {
+            permits.release();
+        }
+    }
+
+    @Override
+    public List<Blueprint> getBlueprintsPage(String afterAuthor, String afterName, int limit) {
+        acquire();
+        try {
+            return delegate.getBlueprintsPage(afterAuthor, afterName, limit);
+        } finally {
+            permits.release();
+        }
+    }
+
+    @Override
+    public Set<BlueprintSummary> getBlueprintSummaries() {
+        acquire();
+        try {
+            return delegate.getBlueprintSummaries();
+        } finally {
+            permits.release();
+        }
+    }
+
+    @Override
+    public Set<BlueprintSummary> getBlueprintSummariesByAuthor(String author) throws BlueprintNotFoundException {
+        acquire();
+        try {
+            return delegate.getBlueprintSummariesByAuthor(author);
+        } finally {
+            permits.release();
+        }
+    }
+
+    @Override
+    public List<Point> getPointsInBox(String author, String name, int minX, int minY, int maxX, int maxY)
+            throws BlueprintNotFoundException {
+        acquire();
+        try {
+            return delegate.getPointsInBox(author, name, minX, minY, maxX, maxY);
+        } finally {
+            permits.release();
+        }
+    }
+
+    @Override
+    public Set<BlueprintSummary> getBlueprintsIntersecting(int minX, int minY, int maxX, int maxY) {
+        acquire();
+        try {
+            return delegate.getBlueprintsIntersecting(minX, minY, maxX, maxY);
+        } finally {
+            permits.release();
+        }
+    }
+
+    @Override
+    public int addPoint(String author, String name, int x, int y) throws BlueprintNotFoundException {
+        acquire();
+        try {
+            return delegate.addPoint(author, name, x, y);
+        } finally {
+            permits.release();
+        }
+    }
+
+    @Override
+    public int addPoints(String author, String name, List<Point> points) throws BlueprintNotFoundException {
+        acquire();
+        try {
+            return delegate.addPoints(author, name, points);
+        } finally {
+            permits.release();
+        }
+    }
+
+    @Override
+    public void deleteBlueprint(String author, String name) throws BlueprintNotFoundException {
+        acquire();
+        try {
+            delegate.deleteBlueprint(author, name);
+        } finally {
+            permits.release();
+        }
+    }
+
+    /* Calls currently inside the delegate and callers waiting for a slot */
+    public int getActiveCount() { return maxConcurrency - permits.availablePermits(); }
+
+    public int getWaitingCount() { return permits.getQueueLength(); }
+}
@@ -1,28 +1,48 @@
 package edu.eci.arsw.blueprints.persistence;
 
+import java.util.ArrayList;
 import java.util.HashSet;
 import java.util.List;
-import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.stream.Collectors;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.atomic.AtomicInteger;
 
-import org.springframework.context.annotation.Primary;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.stereotype.Repository;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
 import edu.eci.arsw.blueprints.model.Blueprint;
+import edu.eci.arsw.blueprints.model.BlueprintSummary;
 import edu.eci.arsw.blueprints.model.Point;
+import edu.eci.arsw.blueprints.model.PointGridIndex;
 
 /**
  * In-memory implementation of BlueprintPersistence.
- * Not active by default - use PostgresBlueprintPersistence instead.
- * To use this implementation, annotate it with @Repository and remove @Primary from PostgresBlueprintPersistence.
+ * Active by default (blueprints.persistence=memory); set blueprints.persistence=postgres to use
+ * PostgresBlueprintPersistence instead (see PersistenceConfig).
  */
 @Repository
-@Primary
+@ConditionalOnProperty(name = "blueprints.persistence", havingValue = "memory", matchIfMissing = true)
 public class InMemoryBlueprintPersistence implements BlueprintPersistence {
 
-    private final Map<String, Blueprint> blueprints = new ConcurrentHashMap<>();
+    // author -> (name -> blueprint). Lookups go straight through both levels without building a
+    // composite key, and writes run inside compute() on the author's entry so an empty author map
+    // can be dropped without racing a concurrent save for the same author.
+    private final ConcurrentHashMap<String, ConcurrentNavigableMap<String, Blueprint>> blueprints = new ConcurrentHashMap<>();
+    // Authors in order, maintained in the same compute() calls; with the sorted name maps this
+    // gives (author, name) keyset pagination without sorting the whole store
+    private final ConcurrentSkipListSet<String> authorOrder = new ConcurrentSkipListSet<>();
+    // Spatial index per blueprint instance (weak keys, identity), built on the first getPointsInBox
+    // for it and caught up with the appended points on each later one; a deleted blueprint takes its
+    // index with it. Region listings use the bounding box each Blueprint keeps instead.
+    private final Cache<Blueprint, SpatialIndex> spatialIndexes = Caffeine.newBuilder().weakKeys().build();
+    // Kept in the same compute() calls as the maps, so reading it never walks the store
+    private final AtomicInteger blueprintCount = new AtomicInteger();
 
     public InMemoryBlueprintPersistence() {
         // Sample data 1:1 style (author/name key)
@@ -32,54 +52,170 @@ public class InMemoryBlueprintPersistence implements BlueprintPersistence {
                 List.of(new Point(5,5), new Point(15,5), new Point(15,15)));
         Blueprint bp3 = new Blueprint("jane", "garden",
                 List.of(new Point(2,2), new Point(3,4), new Point(6,7)));
-        blueprints.put(keyOf(bp1), bp1);
-        blueprints.put(keyOf(bp2), bp2);
-        blueprints.put(keyOf(bp3), bp3);
+        insert(bp1);
+        insert(bp2);
+        insert(bp3);
     }
 
-    private String keyOf(Blueprint bp) { return bp.getAuthor() + ":" + bp.getName(); }
-    private String keyOf(String author, String name) { return author + ":" + name; }
+    /* Adds bp under its author; returns false if a blueprint with the same author/name exists.
+     */
+    private boolean insert(Blueprint bp) {
+        boolean[] inserted = {false};
+        blueprints.compute(bp.getAuthor(), (author, names) -> {
+            ConcurrentNavigableMap<String, Blueprint> m = names;
+            if (m == null) {
+                m = new ConcurrentSkipListMap<>();
+                authorOrder.add(author);
+            }
+            inserted[0] = m.putIfAbsent(bp.getName(), bp) == null;
+            if (inserted[0]) blueprintCount.incrementAndGet();
+            return m;
+        });
+        return inserted[0];
+    }
 
     @Override
     public void saveBlueprint(Blueprint bp) throws BlueprintPersistenceException {
-        String k = keyOf(bp);
-        if (blueprints.containsKey(k)) throw new BlueprintPersistenceException("Blueprint already exists: " + k);
-        blueprints.put(k, bp);
+        if (!insert(bp)) {
+            throw new BlueprintPersistenceException("Blueprint already exists: " + bp.getAuthor() + ":" + bp.getName());
+        }
     }
 
     @Override
     public Blueprint getBlueprint(String author, String name) throws BlueprintNotFoundException {
-        Blueprint bp = blueprints.get(keyOf(author, name));
+        ConcurrentNavigableMap<String, Blueprint> names = blueprints.get(author);
+        Blueprint bp = names == null ? null : names.get(name);
         if (bp == null) throw new BlueprintNotFoundException("Blueprint not found: %s/%s".formatted(author, name));
         return bp;
     }
 
     @Override
     public Set<Blueprint> getBlueprintsByAuthor(String author) throws BlueprintNotFoundException {
-        Set<Blueprint> set = blueprints.values().stream()
-                .filter(bp -> bp.getAuthor().equals(author))
-                .collect(Collectors.toSet());
+        ConcurrentNavigableMap<String, Blueprint> names = blueprints.get(author);
+        Set<Blueprint> set = names == null ? Set.of() : new HashSet<>(names.values());
         if (set.isEmpty()) throw new BlueprintNotFoundException("No blueprints for author: " + author);
         return set;
     }
 
     @Override
     public Set<Blueprint> getAllBlueprints() {
-        return new HashSet<>(blueprints.values());
+        Set<Blueprint> all = new HashSet<>();
+        for (ConcurrentNavigableMap<String, Blueprint> names : blueprints.values()) all.addAll(names.values());
+        return all;
+    }
+
+    @Override
+    public List<Blueprint> getBlueprintsPage(String afterAuthor, String afterName, int limit) {
+        List<Blueprint> page = new ArrayList<>(limit);
+        Set<String> authors = afterAuthor == null ? authorOrder : authorOrder.tailSet(afterAuthor, true);
+        for (String author : authors) {
+            ConcurrentNavigableMap<String, Blueprint> names = blueprints.get(author);
+            if (names == null) continue;
+            if (author.equals(afterAuthor)) names = names.tailMap(afterName, false);
+            for (Blueprint bp : names.values()) {
+                if (page.size() == limit) return page;
+                page.add(bp);
+            }
+        }
+        return page;
+    }
+
+    @Override
+    public Set<BlueprintSummary> getBlueprintSummaries() {
+        Set<BlueprintSummary> all = new HashSet<>();
+        for (ConcurrentNavigableMap<String, Blueprint> names : blueprints.values()) {
+            for (Blueprint bp : names.values()) all.add(BlueprintSummary.of(bp));
+        }
+        return all;
+    }
+
+    @Override
+    public Set<BlueprintSummary> getBlueprintSummariesByAuthor(String author) throws BlueprintNotFoundException {
+        Set<BlueprintSummary> set = new HashSet<>();
+        for (Blueprint bp : getBlueprintsByAuthor(author)) set.add(BlueprintSummary.of(bp));
+        return set;
+    }
+
+    @Override
+    public List<Point> getPointsInBox(String author, String name, int minX, int minY, int maxX, int maxY)
+            throws BlueprintNotFoundException {
+        Blueprint bp = getBlueprint(author, name);
+        long generation = bp.getPointsGeneration();
+        List<Point> points = bp.getPoints();
+        return indexOf(bp, generation, points).query(points, minX, minY, maxX, maxY);
+    }
+
+    @Override
+    public Set<BlueprintSummary> getBlueprintsIntersecting(int minX, int minY, int maxX, int maxY) {
+        Set<BlueprintSummary> hits = new HashSet<>();
+        for (ConcurrentNavigableMap<String, Blueprint> names : blueprints.values()) {
+            for (Blueprint bp : names.values()) {
+                // The box each blueprint keeps on append: no points are read and no grid is built
+                int[] b = bp.getBounds();
+                if (b != null && b[0] <= maxX && b[2] >= minX && b[1] <= maxY && b[3] >= minY) {
+                    hits.add(BlueprintSummary.of(bp));
+                }
+            }
+        }
+        return hits;
+    }
+
+    /* The index of bp, brought up to date with the given snapshot of its points. The index only starts
+     * over when setPoints replaced the points (a newer generation). A snapshot older than the index,
+     * from a reader that raced an append, leaves it as is: the catch-up is a no-op and the query drops
+     * hits past the end of that snapshot.
+     */
+    private PointGridIndex indexOf(Blueprint bp, long generation, List<Point> points) {
+        SpatialIndex index = spatialIndexes.get(bp, k -> new SpatialIndex(generation, new PointGridIndex()));
+        if (index.generation() < generation) {
+            index = spatialIndexes.asMap().compute(bp, (k, current) -> current != null && current.generation() >= generation
+                ? current : new SpatialIndex(generation, new PointGridIndex()));
+        }
+        index.grid().catchUp(points);
+        return index.grid();
+    }
+
+    private record SpatialIndex(long generation, PointGridIndex grid) {}
+
+    @Override
+    public int addPoint(String author, String name, int x, int y) throws BlueprintNotFoundException {
+        Blueprint bp = getBlueprint(author, name);
+        return bp.addPoint(x, y);
     }
 
     @Override
-    public void addPoint(String author, String name, int x, int y) throws BlueprintNotFoundException {
+    public int addPoints(String author, String name, List<Point> points) throws BlueprintNotFoundException {
         Blueprint bp = getBlueprint(author, name);
-        bp.addPoint(new Point(x, y));
+        return bp.addPoints(points);
     }
 
     @Override
     public void deleteBlueprint(String author, String name) throws BlueprintNotFoundException {
-        String key = keyOf(author, name);
-        if (!blueprints.containsKey(key)) {
+        boolean[] removed = {false};
+        blueprints.computeIfPresent(author, (a, names) -> {
+            removed[0] = names.remove(name) != null;
+            if (removed[0]) blueprintCount.decrementAndGet();
+            if (!names.isEmpty()) return names;
+            authorOrder.remove(a);
+            return null;
+        });
+        if (!removed[0]) {
             throw new BlueprintNotFoundException("Blueprint not found: %s/%s".formatted(author, name));
         }
-        blueprints.remove(key);
+    }
+
+    /* Sizes of the store, for metrics. Blueprints and authors are counted as they change; points
+     * are summed over every blueprint on each call, so read them at scrape rate, not per request.
+     */
+    public int getBlueprintCount() { return blueprintCount.get(); }
+
+    public int getAuthorCount() { return blueprints.size(); }
+
+    public long getPointCount() {
+        long total = 0;
+        for (ConcurrentNavigableMap<String, Blueprint> names : blueprints.values()) {
+            for (Blueprint bp : names.values()) total += bp.getPoints().size();
+        }
+        return total;
     }
 }
@@ -0,0 +1,191 @@
+package edu.eci.arsw.blueprints.persistence;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.util.ClassUtils;
+
+import edu.eci.arsw.blueprints.model.Blueprint;
+import edu.eci.arsw.blueprints.model.BlueprintSummary;
+import edu.eci.arsw.blueprints.model.Point;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Times every call to another BlueprintPersistence as blueprints.persistence, tagged with the
+ * operation and the store (the delegate's class without Spring's proxy suffix). The configs wrap
+ * the store itself (see InMemoryPersistenceConfig and PersistenceConfig), so the tag names the
+ * in-memory store or Postgres, not the cache or the limiter in front of it. Calls that throw are
+ * recorded too, under the same timer.
+ *
+ * Timers are resolved once here; a call costs two System.nanoTime() reads and one record.
+ */
+public class InstrumentedBlueprintPersistence implements BlueprintPersistence {
+
+    public static final String TIMER = "blueprints.persistence";
+
+    private final BlueprintPersistence delegate;
+    private final Timer save;
+    private final Timer get;
+    private final Timer byAuthor;
+    private final Timer all;
+    private final Timer page;
+    private final Timer summaries;
+    private final Timer summariesByAuthor;
+    private final Timer pointsInBox;
+    private final Timer intersecting;
+    private final Timer addPoint;
+    private final Timer addPoints;
+    private final Timer delete;
+
+    public InstrumentedBlueprintPersistence(BlueprintPersistence delegate, MeterRegistry registry) {
+        this.delegate = delegate;
+        String store = ClassUtils.getUserClass(delegate).getSimpleName();
+        this.save = timer(registry, store, "save");
+        this.get = timer(registry, store, "get");
+        this.byAuthor = timer(registry, store, "getByAuthor");
+        this.all = timer(registry, store, "getAll");
+        this.page = timer(registry, store, "getPage");
+        this.summaries = timer(registry, store, "getSummaries");
+        this.summariesByAuthor = timer(registry, store, "getSummariesByAuthor");
+        this.pointsInBox = timer(registry, store, "getPointsInBox");
+        this.intersecting = timer(registry, store, "getIntersecting");
+        this.addPoint = timer(registry, store, "addPoint");
+        this.addPoints = timer(registry, store, "addPoints");
+        this.delete = timer(registry, store, "delete");
+    }
+
+    private static Timer timer(MeterRegistry registry, String store, String operation) {
+        return Timer.builder(TIMER)
+            .description("Latency of BlueprintPersistence calls")
+            .tag("store", store)
+            .tag("operation", operation)
+            .register(registry);
+    }
+
+    private static void stop(Timer timer, long start) {
+        timer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+    }
+
+    @Override
+    public void saveBlueprint(Blueprint bp) throws BlueprintPersistenceException {
+        long start = System.nanoTime();
+        try {
+            delegate.saveBlueprint(bp);
+        } finally {
+            stop(save, start);
+        }
+    }
+
+    @Override
+    public Blueprint getBlueprint(String author, String name) throws BlueprintNotFoundException {
+        long start = System.nanoTime();
+        try {
+            return delegate.getBlueprint(author, name);
+        } finally {
+            stop(get, start);
+        }
+    }
+
+    @Override
+    public Set<Blueprint> getBlueprintsByAuthor(String author) throws BlueprintNotFoundException {
+        long start = System.nanoTime();
+        try {
+            return delegate.getBlueprintsByAuthor(author);
+        } finally {
+            stop(byAuthor, start);
+        }
+    }
+
+    @Override
+    public Set<Blueprint> getAllBlueprints() {
+        long start = System.nanoTime();
+        try {
+            return delegate.getAllBlueprints();
+        } finally {
+            stop(all, start);
+        }
+    }
+
+    @Override
+    public List<Blueprint> getBlueprintsPage(String afterAuthor, String afterName, int limit) {
+        long start = System.nanoTime();
+        try {
+            return delegate.getBlueprintsPage(afterAuthor, afterName, limit);
+        } finally {
+            stop(page, start);
+        }
+    }
+
+    @Override
+    public Set<BlueprintSummary> getBlueprintSummaries() {
+        long start = System.nanoTime();
+        try {
+            return delegate.getBlueprintSummaries();
+        } finally {
+            stop(summaries, start);
+        }
+    }
+
+    @Override
+    public Set<BlueprintSummary> getBlueprintSummariesByAuthor(String author) throws BlueprintNotFoundException {
+        long start = System.nanoTime();
+        try {
+            return delegate.getBlueprintSummariesByAuthor(author);
+        } finally {
+            stop(summariesByAuthor, start);
+        }
+    }
+
+    @Override
+    public List<Point> getPointsInBox(String author, String name, int minX, int minY, int maxX, int maxY)
+            throws BlueprintNotFoundException {
+        long start = System.nanoTime();
+        try {
+            return delegate.getPointsInBox(author, name, minX, minY, maxX, maxY);
+        } finally {
+            stop(pointsInBox, start);
+        }
+    }
+
+    @Override
+    public Set<BlueprintSummary> getBlueprintsIntersecting(int minX, int minY, int maxX, int maxY) {
+        long start = System.nanoTime();
+        try {
+            return delegate.getBlueprintsIntersecting(minX, minY, maxX, maxY);
+        } finally {
+            stop(intersecting, start);
+        }
+    }
+
+    @Override
+    public int addPoint(String author, String name, int x, int y) throws BlueprintNotFoundException {
+        long start = System.nanoTime();
+        try {
+            return delegate.addPoint(author, name, x, y);
+        } finally {
+            stop(addPoint, start);
+        }
+    }
+
+    @Override
+    public int addPoints(String author, String name, List<Point> points) throws BlueprintNotFoundException {
+        long start = System.nanoTime();
+        try {
+            return delegate.addPoints(author, name, points);
+        } finally {
+            stop(addPoints, start);
+        }
+    }
+
+    @Override
+    public void deleteBlueprint(String author, String name) throws BlueprintNotFoundException {
+        long start = System.nanoTime();
+        try {
+            delegate.deleteBlueprint(author, name);
+        } finally {
+            stop(delete, start);
+        }
+    }
+}
@@ -4,9 +4,11 @@ import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
 
+import org.springframework.data.domain.Limit;
 import org.springframework.transaction.annotation.Transactional;
 
 import edu.eci.arsw.blueprints.model.Blueprint;
+import edu.eci.arsw.blueprints.model.BlueprintSummary;
 import edu.eci.arsw.blueprints.model.Point;
 import edu.eci.arsw.blueprints.persistence.repository.JpaBlueprintRepository;
 
@@ -53,15 +55,89 @@ public class PostgresBlueprintPersistence implements BlueprintPersistence {
         return new HashSet<>(repository.findAll());
     }
 
+    /* Points are initialized here, in @BatchSize groups, because pages are also consumed
+     * outside any open session (streaming responses)
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public List<Blueprint> getBlueprintsPage(String afterAuthor, String afterName, int limit) {
+        List<Blueprint> page = afterAuthor == null
+            ? repository.findPage(Limit.of(limit))
+            : repository.findPageAfter(afterAuthor, afterName, Limit.of(limit));
+        page.forEach(bp -> bp.getPoints().size());
+        return page;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Set<BlueprintSummary> getBlueprintSummaries() {
+        return new HashSet<>(repository.findAllSummaries());
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Set<BlueprintSummary> getBlueprintSummariesByAuthor(String author) throws BlueprintNotFoundException {
+        List<BlueprintSummary> summaries = repository.findSummariesByAuthor(author);
+        if (summaries.isEmpty()) {
+            throw new BlueprintNotFoundException("No blueprints for author: " + author);
+        }
+        return new HashSet<>(summaries);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<Point> getPointsInBox(String author, String name, int minX, int minY, int maxX, int maxY)
+            throws BlueprintNotFoundException {
+        List<Point> points = repository.findPointsInBox(author, name, minX, minY, maxX, maxY);
+        if (points.isEmpty() && !repository.existsByAuthorAndName(author, name)) {
+            throw new BlueprintNotFoundException("Blueprint not found: %s/%s".formatted(author, name));
+        }
+        return points;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Set<BlueprintSummary> getBlueprintsIntersecting(int minX, int minY, int maxX, int maxY) {
+        return new HashSet<>(repository.findSummariesIntersecting(minX, minY, maxX, maxY));
+    }
+
+    /* Appends without hydrating the points collection: the blueprint row is locked, the next
+     * point_order is computed in the database, exactly one blueprint_points row is inserted and
+     * the bounding box columns of the locked row are widened to cover it.
+     */
     @Override
     @Transactional
-    public void addPoint(String author, String name, int x, int y) throws BlueprintNotFoundException {
-        Blueprint bp = repository.findByAuthorAndName(author, name)
+    public int addPoint(String author, String name, int x, int y) throws BlueprintNotFoundException {
+        Long id = lockBlueprintId(author, name);
+        int order = repository.nextPointOrder(id);
+        repository.insertPoint(id, x, y, order);
+        repository.widenBounds(id, x, y, x, y);
+        return order;
+    }
+
+    @Override
+    @Transactional
+    public int addPoints(String author, String name, List<Point> points) throws BlueprintNotFoundException {
+        Long id = lockBlueprintId(author, name);
+        int start = repository.nextPointOrder(id);
+        if (points.isEmpty()) return start;
+        int minX = Integer.MAX_VALUE, minY = Integer.MAX_VALUE, maxX = Integer.MIN_VALUE, maxY = Integer.MIN_VALUE;
+        for (int i = 0; i < points.size(); i++) {
+            Point p = points.get(i);
+            repository.insertPoint(id, p.getX(), p.getY(), start + i);
+            minX = Math.min(minX, p.getX());
+            minY = Math.min(minY, p.getY());
+            maxX = Math.max(maxX, p.getX());
+            maxY = Math.max(maxY, p.getY());
+        }
+        repository.widenBounds(id, minX, minY, maxX, maxY);
+        return start;
+    }
+
+    private Long lockBlueprintId(String author, String name) throws BlueprintNotFoundException {
+        return repository.lockIdByAuthorAndName(author, name)
             .orElseThrow(() -> new BlueprintNotFoundException(
                 "Blueprint not found: %s/%s".formatted(author, name)));
-        
-        bp.addPoint(new Point(x, y));
-        repository.save(bp);
     }
 
     @Override
@@ -3,19 +3,108 @@ package edu.eci.arsw.blueprints.persistence.repository;
 import java.util.List;
 import java.util.Optional;
 
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import edu.eci.arsw.blueprints.model.Blueprint;
+import edu.eci.arsw.blueprints.model.BlueprintSummary;
+import edu.eci.arsw.blueprints.model.Point;
+import jakarta.persistence.LockModeType;
 
 @Repository
 public interface JpaBlueprintRepository extends JpaRepository<Blueprint, Long> {
 
+    @EntityGraph(attributePaths = "points")
     Optional<Blueprint> findByAuthorAndName(String author, String name);
 
+    @EntityGraph(attributePaths = "points")
     List<Blueprint> findByAuthor(String author);
 
+    @Override
+    @EntityGraph(attributePaths = "points")
+    List<Blueprint> findAll();
+
+    @Query("select b from Blueprint b order by b.author, b.name")
+    List<Blueprint> findPage(Limit limit);
+
+    @Query("""
+        select b from Blueprint b
+        where b.author > :author or (b.author = :author and b.name > :name)
+        order by b.author, b.name""")
+    List<Blueprint> findPageAfter(@Param("author") String author, @Param("name") String name, Limit limit);
+
+    /* Summaries computed in SQL with one grouped query; no points are transferred */
+    @Query("""
+        select new edu.eci.arsw.blueprints.model.BlueprintSummary(
+            b.author, b.name, count(p.x), min(p.x), min(p.y), max(p.x), max(p.y))
+        from Blueprint b left join b.points p
+        group by b.id, b.author, b.name""")
+    List<BlueprintSummary> findAllSummaries();
+
+    @Query("""
+        select new edu.eci.arsw.blueprints.model.BlueprintSummary(
+            b.author, b.name, count(p.x), min(p.x), min(p.y), max(p.x), max(p.y))
+        from Blueprint b left join b.points p
+        where b.author = :author
+        group by b.id, b.author, b.name""")
+    List<BlueprintSummary> findSummariesByAuthor(@Param("author") String author);
+
+    /* Served by idx_blueprint_points_xy (blueprint_id, x, y): a range scan inside one blueprint */
+    @Query("""
+        select p from Blueprint b join b.points p
+        where b.author = :author and b.name = :name
+          and p.x between :minX and :maxX and p.y between :minY and :maxY
+        order by index(p)""")
+    List<Point> findPointsInBox(@Param("author") String author, @Param("name") String name,
+                                @Param("minX") int minX, @Param("minY") int minY,
+                                @Param("maxX") int maxX, @Param("maxY") int maxY);
+
+    /* Filters on the bounding box columns of the blueprint row, which every append widens, so no
+     * points are aggregated; only the matches count their points, through the (blueprint_id,
+     * point_order) key. Blueprints without points have null boxes and drop out.
+     */
+    @Query("""
+        select new edu.eci.arsw.blueprints.model.BlueprintSummary(
+            b.author, b.name, cast(size(b.points) as long), b.minX, b.minY, b.maxX, b.maxY)
+        from Blueprint b
+        where b.minX <= :maxX and b.maxX >= :minX and b.minY <= :maxY and b.maxY >= :minY""")
+    List<BlueprintSummary> findSummariesIntersecting(@Param("minX") int minX, @Param("minY") int minY,
+                                                     @Param("maxX") int maxX, @Param("maxY") int maxY);
+
     boolean existsByAuthorAndName(String author, String name);
 
     void deleteByAuthorAndName(String author, String name);
+
+    /* Locks the blueprint row (SELECT ... FOR UPDATE) so appenders to the same blueprint
+     * take turns computing the next point_order; the points are not loaded.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select b.id from Blueprint b where b.author = :author and b.name = :name")
+    Optional<Long> lockIdByAuthorAndName(@Param("author") String author, @Param("name") String name);
+
+    /* Next free point_order, resolved through the (blueprint_id, point_order) primary key */
+    @Query(value = "SELECT COALESCE(MAX(point_order) + 1, 0) FROM blueprint_points WHERE blueprint_id = :id",
+           nativeQuery = true)
+    int nextPointOrder(@Param("id") Long id);
+
+    @Modifying
+    @Query(value = "INSERT INTO blueprint_points (blueprint_id, x, y, point_order) VALUES (:id, :x, :y, :order)",
+           nativeQuery = true)
+    int insertPoint(@Param("id") Long id, @Param("x") int x, @Param("y") int y, @Param("order") int order);
+
+    /* Grows the stored bounding box to cover the given one; called under the lock of lockIdByAuthorAndName */
+    @Modifying
+    @Query(value = """
+        UPDATE blueprints SET
+            min_x = LEAST(COALESCE(min_x, :minX), :minX), min_y = LEAST(COALESCE(min_y, :minY), :minY),
+            max_x = GREATEST(COALESCE(max_x, :maxX), :maxX), max_y = GREATEST(COALESCE(max_y, :maxY), :maxY)
+        WHERE id = :id""", nativeQuery = true)
+    int widenBounds(@Param("id") Long id, @Param("minX") int minX, @Param("minY") int minY,
+                    @Param("maxX") int maxX, @Param("maxY") int maxY);
 }
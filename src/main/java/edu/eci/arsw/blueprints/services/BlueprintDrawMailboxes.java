@@ -0,0 +1,306 @@
+package edu.eci.arsw.blueprints.services;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.VirtualThreadTaskExecutor;
+import org.springframework.dao.TransientDataAccessException;
+import org.springframework.stereotype.Service;
+
+import edu.eci.arsw.blueprints.dto.BlueprintEvent;
+import edu.eci.arsw.blueprints.model.Point;
+import edu.eci.arsw.blueprints.persistence.BlueprintNotFoundException;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Un único escritor por blueprint para el dibujo por STOMP (/app/draw y /app/draw/batch).
+ * Cada blueprint activo tiene un buzón: los controladores encolan los puntos y retornan; un solo
+ * turno a la vez por buzón, en los hilos compartidos de escritura, toma hasta
+ * blueprints.draw.max-batch mensajes pendientes, los guarda con un solo addPoints y publica un
+ * solo POINTS_APPENDED. Así los deltas de un blueprint salen en el mismo orden que su sequence y
+ * las ráfagas sobre el mismo blueprint cuestan una escritura (una transacción con Postgres) en
+ * lugar de una por mensaje, sin esperar el bloqueo de la fila. Blueprints distintos se escriben
+ * en paralelo; tras cada lote el buzón cede su hilo a los demás.
+ *
+ * Los buzones sin actividad por blueprints.draw.idle-ms se eliminan. Encolar y eliminar pasan por
+ * el mismo compute del mapa para esa llave, así que nunca quedan dos buzones del mismo blueprint
+ * atendiéndose a la vez; la escritura en sí ocurre fuera de ese bloqueo.
+ * Con blueprints.draw.mailbox-capacity mensajes pendientes en un buzón, los siguientes se
+ * rechazan y se cuentan. Los puntos null se rechazan antes de encolar; si aun así falla la
+ * escritura de un lote por otra causa que un blueprint inexistente o una base ocupada, sus
+ * mensajes se escriben de a uno para que solo falle el que la provocó.
+ * Los hilos de escritura son blueprints.draw.threads (0 = uno por núcleo), o hilos virtuales con
+ * spring.threads.virtual.enabled=true.
+ * Métricas: buzones activos, mensajes pendientes, mensajes por escritura (blueprints.draw.batch),
+ * rechazados y buzones eliminados.
+ */
+@Service
+public class BlueprintDrawMailboxes {
+
+    private final BlueprintsServices services;
+    private final BlueprintEventBroadcaster broadcaster;
+    private final Executor writers;
+    private final ExecutorService writerPool;
+    private final int maxBatch;
+    private final int mailboxCapacity;
+    private final long idleNanos;
+    private final Map<Key, Mailbox> mailboxes = new ConcurrentHashMap<>();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder evicted = new LongAdder();
+    private final DistributionSummary batchSize;
+    private ScheduledExecutorService sweeper;
+
+    public BlueprintDrawMailboxes(BlueprintsServices services,
+                                  BlueprintEventBroadcaster broadcaster,
+                                  MeterRegistry registry,
+                                  @Value("${blueprints.draw.threads:0}") int threads,
+                                  @Value("${blueprints.draw.max-batch:256}") int maxBatch,
+                                  @Value("${blueprints.draw.mailbox-capacity:10000}") int mailboxCapacity,
+                                  @Value("${blueprints.draw.idle-ms:30000}") long idleMs,
+                                  @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads) {
+        if (maxBatch < 1) throw new IllegalArgumentException("maxBatch must be at least 1: " + maxBatch);
+        this.services = services;
+        this.broadcaster = broadcaster;
+        this.maxBatch = maxBatch;
+        this.mailboxCapacity = mailboxCapacity;
+        this.idleNanos = TimeUnit.MILLISECONDS.toNanos(idleMs);
+        if (virtualThreads) {
+            this.writerPool = null;
+            this.writers = new VirtualThreadTaskExecutor("blueprint-writer-");
+        } else {
+            AtomicInteger next = new AtomicInteger();
+            this.writerPool = Executors.newFixedThreadPool(
+                threads > 0 ? threads : Runtime.getRuntime().availableProcessors(), r -> {
+                    Thread t = new Thread(r, "blueprint-writer-" + next.getAndIncrement());
+                    t.setDaemon(true);
+                    return t;
+                });
+            this.writers = writerPool;
+        }
+        this.batchSize = DistributionSummary.builder("blueprints.draw.batch")
+            .description("Mensajes de dibujo guardados en una misma escritura")
+            .register(registry);
+        Gauge.builder("blueprints.draw.mailboxes", mailboxes, Map::size)
+            .description("Blueprints con buzón de escritura activo")
+            .register(registry);
+        Gauge.builder("blueprints.draw.pending", this, BlueprintDrawMailboxes::getPendingCount)
+            .description("Mensajes de dibujo esperando su escritura")
+            .register(registry);
+        FunctionCounter.builder("blueprints.draw.rejected", rejected, LongAdder::sum)
+            .description("Mensajes de dibujo rechazados por buzón lleno")
+            .register(registry);
+        FunctionCounter.builder("blueprints.draw.evicted", evicted, LongAdder::sum)
+            .description("Buzones eliminados por inactividad")
+            .register(registry);
+    }
+
+    @PostConstruct
+    public void start() {
+        sweeper = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "blueprint-mailbox-sweeper");
+            t.setDaemon(true);
+            return t;
+        });
+        long period = Math.max(1, TimeUnit.NANOSECONDS.toMillis(idleNanos) / 2);
+        sweeper.scheduleWithFixedDelay(this::evictIdle, period, period, TimeUnit.MILLISECONDS);
+    }
+
+    /* Los lotes ya encolados en el pool terminan; los mensajes que lleguen después fallan con
+     * RejectedExecutionException */
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        if (sweeper != null) sweeper.shutdown();
+        if (writerPool != null) {
+            writerPool.shutdown();
+            writerPool.awaitTermination(5, TimeUnit.SECONDS);
+        }
+    }
+
+    /**
+     * Encola puntos para el blueprint; no bloquea.
+     * @return se completa con el sequence del primer punto una vez guardados y publicados, o con
+     *         la excepción de la escritura (BlueprintNotFoundException, entre otras),
+     *         IllegalArgumentException si points es null o trae puntos null (no se encola) o
+     *         RejectedExecutionException si el buzón está lleno o los escritores se detuvieron
+     */
+    public CompletableFuture<Integer> append(String author, String name, List<Point> points) {
+        if (hasNull(points)) {
+            return CompletableFuture.failedFuture(new IllegalArgumentException(
+                "Puntos nulos en el dibujo de %s/%s".formatted(author, name)));
+        }
+        Draw draw = new Draw(points, new CompletableFuture<>());
+        mailboxes.compute(new Key(author, name), (key, mailbox) -> {
+            Mailbox m = mailbox != null ? mailbox : new Mailbox(author, name);
+            if (!m.offer(draw)) {
+                rejected.increment();
+                draw.result().completeExceptionally(new RejectedExecutionException(
+                    "Buzón lleno para %s/%s (%d pendientes)".formatted(author, name, mailboxCapacity)));
+            }
+            return m;
+        });
+        return draw.result();
+    }
+
+    /* contains(null) lanza NullPointerException en las listas de List.of */
+    private static boolean hasNull(List<Point> points) {
+        if (points == null) return true;
+        for (Point p : points) if (p == null) return true;
+        return false;
+    }
+
+    /**
+     * Elimina los buzones sin mensajes pendientes ni actividad en el último blueprints.draw.idle-ms.
+     * Lo invoca el hilo de limpieza periódicamente.
+     */
+    public void evictIdle() {
+        long cutoff = System.nanoTime() - idleNanos;
+        for (Key key : mailboxes.keySet()) {
+            mailboxes.computeIfPresent(key, (k, m) -> {
+                if (!m.isIdleSince(cutoff)) return m;
+                evicted.increment();
+                return null;
+            });
+        }
+    }
+
+    public int getMailboxCount() { return mailboxes.size(); }
+
+    public long getPendingCount() {
+        long total = 0;
+        for (Mailbox m : mailboxes.values()) total += m.size.get();
+        return total;
+    }
+
+    public long getRejectedCount() { return rejected.sum(); }
+
+    public long getEvictedCount() { return evicted.sum(); }
+
+    private record Key(String author, String name) {}
+
+    private record Draw(List<Point> points, CompletableFuture<Integer> result) {}
+
+    private final class Mailbox implements Runnable {
+
+        private final String author;
+        private final String name;
+        private final String topic;
+        private final Queue<Draw> queue = new ConcurrentLinkedQueue<>();
+        private final AtomicInteger size = new AtomicInteger();
+        // true desde que se encola un turno hasta que termina: nunca hay dos escritores del buzón
+        private final AtomicBoolean scheduled = new AtomicBoolean();
+        private volatile long lastActive = System.nanoTime();
+
+        Mailbox(String author, String name) {
+            this.author = author;
+            this.name = name;
+            this.topic = "/topic/blueprints.%s.%s".formatted(author, name);
+        }
+
+        /* Se llama dentro del compute de su llave */
+        boolean offer(Draw draw) {
+            if (size.incrementAndGet() > mailboxCapacity) {
+                size.decrementAndGet();
+                return false;
+            }
+            queue.offer(draw);
+            lastActive = System.nanoTime();
+            if (scheduled.compareAndSet(false, true)) schedule();
+            return true;
+        }
+
+        /* Encola el turno (con scheduled ya en true). Si los escritores ya no aceptan tareas
+         * (stop()), libera el turno antes de fallar los pendientes: un offer que encole después
+         * vuelve a intentarlo y falla su propio mensaje, así que ninguno queda sin completar.
+         */
+        private void schedule() {
+            try {
+                writers.execute(this);
+            } catch (RejectedExecutionException e) {
+                scheduled.set(false);
+                Draw draw;
+                while ((draw = queue.poll()) != null) {
+                    size.decrementAndGet();
+                    draw.result().completeExceptionally(e);
+                }
+            }
+        }
+
+        /* También se llama dentro del compute: ningún offer puede ocurrir a la vez */
+        boolean isIdleSince(long cutoff) {
+            return !scheduled.get() && queue.isEmpty() && lastActive - cutoff < 0;
+        }
+
+        @Override
+        public void run() {
+            try {
+                writeBatch();
+            } finally {
+                scheduled.set(false);
+                // Un offer que vio scheduled=true antes del set anterior no encoló turno
+                if (!queue.isEmpty() && scheduled.compareAndSet(false, true)) schedule();
+            }
+        }
+
+        private void writeBatch() {
+            List<Draw> batch = new ArrayList<>();
+            List<Point> points = new ArrayList<>();
+            Draw draw;
+            while (batch.size() < maxBatch && (draw = queue.poll()) != null) {
+                batch.add(draw);
+                points.addAll(draw.points());
+            }
+            if (batch.isEmpty()) return;
+            size.addAndGet(-batch.size());
+            batchSize.record(batch.size());
+            try {
+                write(batch, points);
+            } catch (Exception e) {
+                if (batch.size() == 1 || e instanceof BlueprintNotFoundException
+                        || e instanceof TransientDataAccessException) {
+                    for (Draw d : batch) d.result().completeExceptionally(e);
+                } else {
+                    // Un mensaje que la escritura rechaza no debe hacer fallar a los demás del lote;
+                    // la escritura fallida no dejó puntos, así que se reintenta uno por uno en orden
+                    for (Draw d : batch) {
+                        try {
+                            write(List.of(d), d.points());
+                        } catch (Exception single) {
+                            d.result().completeExceptionally(single);
+                        }
+                    }
+                }
+            } finally {
+                lastActive = System.nanoTime();
+            }
+        }
+
+        private void write(List<Draw> batch, List<Point> points) throws BlueprintNotFoundException {
+            int sequence = services.addPoints(author, name, points);
+            broadcaster.publish(topic, BlueprintEvent.pointsAppended(author, name, sequence, points));
+            for (Draw d : batch) {
+                d.result().complete(sequence);
+                sequence += d.points().size();
+            }
+        }
+    }
+}
@@ -0,0 +1,190 @@
+package edu.eci.arsw.blueprints.services;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.messaging.simp.SimpMessageSendingOperations;
+import org.springframework.stereotype.Service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+
+import edu.eci.arsw.blueprints.config.WireFormat;
+import edu.eci.arsw.blueprints.dto.BlueprintEvent;
+import edu.eci.arsw.blueprints.model.Point;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Etapa asíncrona de broadcast STOMP.
+ * Los controladores encolan mensajes y retornan de inmediato; un hilo dedicado vacía la cola
+ * cada ventana (blueprints.broadcast.window-ms, 16 ms por defecto) y hace el fan-out al broker.
+ * Dentro de una ventana, los eventos consecutivos del mismo blueprint hacia el mismo destino
+ * se fusionan: un UPDATED reemplaza al anterior y los POINTS_APPENDED contiguos se concatenan.
+ * Si la cola está llena (blueprints.broadcast.queue-capacity) el mensaje se descarta y se cuenta.
+ * Cada payload se serializa una sola vez, en el formato de blueprints.stomp.format, y el mismo
+ * mensaje se envía a todos sus destinos (ver {@link BroadcastPayloadCache}).
+ * Métricas: blueprints.broadcast.fanout (duración de cada envío al broker), la profundidad de la
+ * cola y los contadores de enviados, fusionados, descartados y serializados; estos se leen al
+ * consultar las métricas, sin costo en el camino del envío.
+ */
+@Service
+public class BlueprintEventBroadcaster {
+
+    private static final long ENCODED_CACHE_SIZE = 1_000;
+
+    private final SimpMessageSendingOperations messagingTemplate;
+    private final BroadcastPayloadCache payloads;
+    private final long windowMs;
+    private final BlockingQueue<Outbound> queue;
+    private final AtomicLong sent = new AtomicLong();
+    private final AtomicLong merged = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+    private final Timer fanout;
+    private ScheduledExecutorService scheduler;
+
+    public BlueprintEventBroadcaster(SimpMessageSendingOperations messagingTemplate,
+                                     Jackson2ObjectMapperBuilder mapperBuilder,
+                                     MeterRegistry registry,
+                                     @Value("${blueprints.stomp.format:json}") String format,
+                                     @Value("${blueprints.broadcast.window-ms:16}") long windowMs,
+                                     @Value("${blueprints.broadcast.queue-capacity:10000}") int queueCapacity) {
+        WireFormat wireFormat = WireFormat.of(format);
+        this.messagingTemplate = messagingTemplate;
+        this.payloads = new BroadcastPayloadCache(
+            wireFormat.newMapper(mapperBuilder), wireFormat.getStompContentType(), ENCODED_CACHE_SIZE);
+        this.windowMs = windowMs;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.fanout = Timer.builder("blueprints.broadcast.fanout")
+            .description("Tiempo de entregar un mensaje fusionado al broker, serialización incluida")
+            .register(registry);
+        Gauge.builder("blueprints.broadcast.queue", queue, BlockingQueue::size)
+            .description("Mensajes esperando la siguiente ventana")
+            .register(registry);
+        counter(registry, "sent", sent, "Mensajes entregados al broker");
+        counter(registry, "merged", merged, "Mensajes fusionados con uno anterior de la misma ventana");
+        counter(registry, "dropped", dropped, "Mensajes descartados por cola llena o error al enviar");
+        FunctionCounter.builder("blueprints.broadcast.serialized", payloads, BroadcastPayloadCache::getSerializedCount)
+            .description("Payloads serializados; los demás envíos reutilizaron los bytes")
+            .register(registry);
+    }
+
+    private static void counter(MeterRegistry registry, String name, AtomicLong value, String description) {
+        FunctionCounter.builder("blueprints.broadcast." + name, value, AtomicLong::get)
+            .description(description)
+            .register(registry);
+    }
+
+    @PostConstruct
+    public void start() {
+        scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "blueprint-broadcaster");
+            t.setDaemon(true);
+            return t;
+        });
+        scheduler.scheduleWithFixedDelay(this::flush, windowMs, windowMs, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (scheduler != null) scheduler.shutdown();
+        flush();
+    }
+
+    /**
+     * Encola un evento para /topic/blueprints y para /topic/blueprints/{author}.
+     */
+    public void broadcast(BlueprintEvent event) {
+        publish("/topic/blueprints", event);
+        if (event.author() != null) {
+            publish("/topic/blueprints/" + event.author(), event);
+        }
+    }
+
+    /**
+     * Encola un payload para un destino; no bloquea al hilo que atiende la petición.
+     */
+    public void publish(String destination, Object payload) {
+        if (!queue.offer(new Outbound(destination, payload))) dropped.incrementAndGet();
+    }
+
+    /**
+     * Vacía la cola, fusiona y envía. Lo invoca el hilo del broadcaster en cada ventana.
+     */
+    public synchronized void flush() {
+        List<Outbound> batch = new ArrayList<>();
+        queue.drainTo(batch);
+        if (batch.isEmpty()) return;
+
+        List<Outbound> out = new ArrayList<>(batch.size());
+        Map<String, Integer> lastByDestination = new HashMap<>();
+        for (Outbound o : batch) {
+            Integer last = lastByDestination.get(o.destination());
+            Object combined = last == null ? null : coalesce(out.get(last).payload(), o.payload());
+            if (combined != null) {
+                out.set(last, new Outbound(o.destination(), combined));
+                merged.incrementAndGet();
+            } else {
+                lastByDestination.put(o.destination(), out.size());
+                out.add(o);
+            }
+        }
+        for (Outbound o : out) {
+            long start = System.nanoTime();
+            try {
+                messagingTemplate.send(o.destination(), payloads.encode(o.payload()));
+                sent.incrementAndGet();
+            } catch (JsonProcessingException | RuntimeException e) {
+                dropped.incrementAndGet();
+                System.err.println("Error enviando a " + o.destination() + ": " + e.getMessage());
+            } finally {
+                fanout.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            }
+        }
+    }
+
+    /* Devuelve el evento fusionado, o null si los dos payloads no se pueden fusionar */
+    private static Object coalesce(Object previous, Object next) {
+        if (!(previous instanceof BlueprintEvent a) || !(next instanceof BlueprintEvent b)) return null;
+        if (a.eventType() != b.eventType()
+                || !Objects.equals(a.author(), b.author())
+                || !Objects.equals(a.blueprintName(), b.blueprintName())) return null;
+        return switch (a.eventType()) {
+            case UPDATED -> b;
+            case POINTS_APPENDED -> {
+                if (a.sequence() + a.points().size() != b.sequence()) yield null;
+                List<Point> points = new ArrayList<>(a.points().size() + b.points().size());
+                points.addAll(a.points());
+                points.addAll(b.points());
+                yield BlueprintEvent.pointsAppended(a.author(), a.blueprintName(), a.sequence(), points);
+            }
+            default -> null;
+        };
+    }
+
+    public int getQueueDepth() { return queue.size(); }
+
+    public long getSentCount() { return sent.get(); }
+
+    public long getMergedCount() { return merged.get(); }
+
+    public long getDroppedCount() { return dropped.get(); }
+
+    public long getSerializedCount() { return payloads.getSerializedCount(); }
+
+    private record Outbound(String destination, Object payload) {}
+}
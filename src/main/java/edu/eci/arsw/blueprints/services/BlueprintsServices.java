@@ -1,25 +1,108 @@
 package edu.eci.arsw.blueprints.services;
 
+import java.util.List;
 import java.util.Set;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
 import edu.eci.arsw.blueprints.filters.BlueprintsFilter;
+import edu.eci.arsw.blueprints.filters.LevelOfDetailFilter;
 import edu.eci.arsw.blueprints.model.Blueprint;
+import edu.eci.arsw.blueprints.model.BlueprintSummary;
+import edu.eci.arsw.blueprints.model.Point;
 import edu.eci.arsw.blueprints.persistence.BlueprintNotFoundException;
 import edu.eci.arsw.blueprints.persistence.BlueprintPersistence;
 import edu.eci.arsw.blueprints.persistence.BlueprintPersistenceException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.composite.CompositeMeterRegistry;
 
 @Service
 public class BlueprintsServices {
 
+    // Number of blueprints whose filtered output is kept between reads, per filter
+    private static final long FILTERED_CACHE_SIZE = 10_000;
+    // Number of distinct filters (per-request pipelines included) with a memo at the same time
+    private static final long FILTERS_CACHED = 64;
+
     private final BlueprintPersistence persistence;
     private final BlueprintsFilter filter;
+    private final MeterRegistry registry;
+    private final Cache<BlueprintsFilter, FilteredBlueprintCache> filteredCaches = Caffeine.newBuilder()
+        .maximumSize(FILTERS_CACHED)
+        .build();
+    // Read latency including filtering (blueprints.service); the store alone is timed by the
+    // InstrumentedBlueprintPersistence that PersistenceConfig puts around it (blueprints.persistence)
+    private final Timer getTimer;
+    private final Timer levelTimer;
+    private final Timer withinTimer;
+    private final Timer byAuthorTimer;
+    private final Timer allTimer;
+    private final Timer pageTimer;
+    private final Counter pointsAppended;
 
+    /* Without metrics: meters registered in an empty composite registry record nothing
+     */
     public BlueprintsServices(BlueprintPersistence persistence, BlueprintsFilter filter) {
+        this(persistence, filter, new CompositeMeterRegistry());
+    }
+
+    @Autowired
+    public BlueprintsServices(BlueprintPersistence persistence, BlueprintsFilter filter, MeterRegistry registry) {
         this.persistence = persistence;
         this.filter = filter;
+        this.registry = registry;
+        this.getTimer = timer("get");
+        this.levelTimer = timer("getAtLevel");
+        this.withinTimer = timer("getWithin");
+        this.byAuthorTimer = timer("getByAuthor");
+        this.allTimer = timer("getAll");
+        this.pageTimer = timer("getPage");
+        this.pointsAppended = Counter.builder("blueprints.points.appended")
+            .description("Points appended to blueprints")
+            .register(registry);
+    }
+
+    private Timer timer(String operation) {
+        return Timer.builder("blueprints.service")
+            .description("Latency of BlueprintsServices reads, filtering included")
+            .tag("operation", operation)
+            .register(registry);
+    }
+
+    private static void stop(Timer timer, long start) {
+        timer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+    }
+
+    /* Output of the given filter (the default one when null) for bp, reused while bp's version
+     * does not change
+     */
+    private Blueprint filtered(BlueprintsFilter f, Blueprint bp) {
+        BlueprintsFilter active = f == null ? filter : f;
+        return filteredCaches.get(active, this::newFilteredCache).apply(bp);
+    }
+
+    /* Filter meters are tagged with the filter class, not its spec: per-request pipelines all share
+     * the FilterPipeline tag, which keeps the number of series bounded
+     */
+    private FilteredBlueprintCache newFilteredCache(BlueprintsFilter f) {
+        String name = f.getClass().getSimpleName();
+        Timer time = Timer.builder("blueprints.filter")
+            .description("Time spent recomputing filtered blueprints")
+            .tag("filter", name)
+            .register(registry);
+        Counter points = Counter.builder("blueprints.filter.points")
+            .description("Points fed to filters")
+            .tag("filter", name)
+            .register(registry);
+        return new FilteredBlueprintCache(f, FILTERED_CACHE_SIZE, time, points);
     }
 
     public void addNewBlueprint(Blueprint bp) throws BlueprintPersistenceException {
@@ -27,23 +110,129 @@ public class BlueprintsServices {
     }
 
     public Set<Blueprint> getAllBlueprints() {
-        return persistence.getAllBlueprints().stream()
-            .map(filter::apply)
-            .collect(Collectors.toSet());
+        return getAllBlueprints(null);
+    }
+
+    /* Read methods taking a BlueprintsFilter apply that one instead of the default (null = default)
+     */
+    public Set<Blueprint> getAllBlueprints(BlueprintsFilter f) {
+        long start = System.nanoTime();
+        try {
+            return persistence.getAllBlueprints().stream()
+                .map(bp -> filtered(f, bp))
+                .collect(Collectors.toSet());
+        } finally {
+            stop(allTimer, start);
+        }
+    }
+
+    /* Filtered page ordered by (author, name), strictly after the cursor
+     */
+    public List<Blueprint> getBlueprintsPage(String afterAuthor, String afterName, int limit) {
+        return getBlueprintsPage(afterAuthor, afterName, limit, null);
+    }
+
+    public List<Blueprint> getBlueprintsPage(String afterAuthor, String afterName, int limit, BlueprintsFilter f) {
+        long start = System.nanoTime();
+        try {
+            return persistence.getBlueprintsPage(afterAuthor, afterName, limit).stream()
+                .map(bp -> filtered(f, bp))
+                .toList();
+        } finally {
+            stop(pageTimer, start);
+        }
     }
 
     public Set<Blueprint> getBlueprintsByAuthor(String author) throws BlueprintNotFoundException {
-        return persistence.getBlueprintsByAuthor(author).stream()
-            .map(filter::apply)
-            .collect(Collectors.toSet());
+        return getBlueprintsByAuthor(author, null);
+    }
+
+    public Set<Blueprint> getBlueprintsByAuthor(String author, BlueprintsFilter f) throws BlueprintNotFoundException {
+        long start = System.nanoTime();
+        try {
+            return persistence.getBlueprintsByAuthor(author).stream()
+                .map(bp -> filtered(f, bp))
+                .collect(Collectors.toSet());
+        } finally {
+            stop(byAuthorTimer, start);
+        }
+    }
+
+    public Set<BlueprintSummary> getBlueprintSummaries() {
+        return persistence.getBlueprintSummaries();
+    }
+
+    public Set<BlueprintSummary> getBlueprintSummariesByAuthor(String author) throws BlueprintNotFoundException {
+        return persistence.getBlueprintSummariesByAuthor(author);
+    }
+
+    /* Unfiltered: a region is a window over the stored points, not over a simplified copy */
+    public List<Point> getPointsInBox(String author, String name, int minX, int minY, int maxX, int maxY)
+            throws BlueprintNotFoundException {
+        return persistence.getPointsInBox(author, name, minX, minY, maxX, maxY);
+    }
+
+    public Set<BlueprintSummary> getBlueprintsIntersecting(int minX, int minY, int maxX, int maxY) {
+        return persistence.getBlueprintsIntersecting(minX, minY, maxX, maxY);
     }
 
     public Blueprint getBlueprint(String author, String name) throws BlueprintNotFoundException {
-        return filter.apply(persistence.getBlueprint(author, name));
+        return getBlueprint(author, name, null);
+    }
+
+    public Blueprint getBlueprint(String author, String name, BlueprintsFilter f) throws BlueprintNotFoundException {
+        long start = System.nanoTime();
+        try {
+            return filtered(f, persistence.getBlueprint(author, name));
+        } finally {
+            stop(getTimer, start);
+        }
+    }
+
+    /* Level of detail k (every 2^k-th point) of the filtered blueprint. Each level is memoized per
+     * blueprint and advanced incrementally as points are appended, so repeated overview reads cost
+     * O(new points).
+     */
+    public Blueprint getBlueprintAtLevel(String author, String name, BlueprintsFilter f, int level) throws BlueprintNotFoundException {
+        long start = System.nanoTime();
+        try {
+            LevelOfDetailFilter lod = LevelOfDetailFilter.of(level);
+            return filtered(lod, filtered(f, persistence.getBlueprint(author, name)));
+        } finally {
+            stop(levelTimer, start);
+        }
+    }
+
+    /* Most detailed level of the filtered blueprint that has at most maxPoints points
+     */
+    public Blueprint getBlueprintWithin(String author, String name, BlueprintsFilter f, int maxPoints) throws BlueprintNotFoundException {
+        long start = System.nanoTime();
+        try {
+            Blueprint bp = filtered(f, persistence.getBlueprint(author, name));
+            int level = LevelOfDetailFilter.levelFor(bp.getPoints().size(), maxPoints);
+            return filtered(LevelOfDetailFilter.of(level), bp);
+        } finally {
+            stop(withinTimer, start);
+        }
+    }
+
+    public int addPoint(String author, String name, int x, int y) throws BlueprintNotFoundException {
+        int sequence = persistence.addPoint(author, name, x, y);
+        pointsAppended.increment();
+        return sequence;
+    }
+
+    public int addPoints(String author, String name, List<Point> points) throws BlueprintNotFoundException {
+        int sequence = persistence.addPoints(author, name, points);
+        pointsAppended.increment(points.size());
+        return sequence;
     }
 
-    public void addPoint(String author, String name, int x, int y) throws BlueprintNotFoundException {
-        persistence.addPoint(author, name, x, y);
+    /* Raw (unfiltered) points from index 'from' on; lets late subscribers catch up with deltas
+     */
+    public List<Point> getPointsSince(String author, String name, int from) throws BlueprintNotFoundException {
+        List<Point> points = persistence.getBlueprint(author, name).getPoints();
+        return points.subList(Math.min(Math.max(from, 0), points.size()), points.size());
     }
 
     public void deleteBlueprint(String author, String name) throws BlueprintNotFoundException {
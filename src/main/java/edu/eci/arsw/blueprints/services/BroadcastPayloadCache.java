@@ -0,0 +1,68 @@
+package edu.eci.arsw.blueprints.services;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageHeaders;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.util.MimeType;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import edu.eci.arsw.blueprints.dto.BlueprintEvent;
+
+/**
+ * Mensajes STOMP ya serializados, uno por payload.
+ * Un mismo evento se publica en varios destinos (/topic/blueprints y /topic/blueprints/{author});
+ * se serializa una vez y todos los destinos, y todas las sesiones suscritas, reciben el mismo
+ * arreglo de bytes, que nunca se modifica.
+ * La llave es la instancia del payload (referencia débil, por identidad). Si el evento lleva un
+ * blueprint, el mensaje queda asociado a la versión con la que se serializó: los eventos guardan
+ * el blueprint vivo, y si recibió puntos antes del siguiente envío se vuelve a serializar.
+ */
+class BroadcastPayloadCache {
+
+    private final ObjectMapper mapper;
+    private final MimeType contentType;
+    private final Cache<Object, Encoded> cache;
+    private final AtomicLong serialized = new AtomicLong();
+
+    BroadcastPayloadCache(ObjectMapper mapper, MimeType contentType, long maximumSize) {
+        this.mapper = mapper;
+        this.contentType = contentType;
+        this.cache = Caffeine.newBuilder()
+            .weakKeys()
+            .maximumSize(maximumSize)
+            .executor(Runnable::run)
+            .build();
+    }
+
+    /**
+     * @return el mensaje serializado del payload, con su content-type
+     * @throws JsonProcessingException si el payload no se puede serializar
+     */
+    Message<byte[]> encode(Object payload) throws JsonProcessingException {
+        long version = versionOf(payload);
+        Encoded encoded = cache.getIfPresent(payload);
+        if (encoded != null && encoded.version() == version) return encoded.message();
+        // Dos hilos pueden serializar a la vez el mismo payload; ambos resultados son equivalentes
+        Message<byte[]> message = MessageBuilder.withPayload(mapper.writeValueAsBytes(payload))
+            .setHeader(MessageHeaders.CONTENT_TYPE, contentType)
+            .build();
+        cache.put(payload, new Encoded(version, message));
+        serialized.incrementAndGet();
+        return message;
+    }
+
+    long getSerializedCount() { return serialized.get(); }
+
+    /* La versión se lee antes de serializar: el mensaje es al menos tan nuevo como la versión registrada */
+    private static long versionOf(Object payload) {
+        return payload instanceof BlueprintEvent e && e.blueprint() != null ? e.blueprint().getVersion() : 0;
+    }
+
+    private record Encoded(long version, Message<byte[]> message) {}
+}
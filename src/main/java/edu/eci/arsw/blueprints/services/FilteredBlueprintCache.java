@@ -0,0 +1,102 @@
+package edu.eci.arsw.blueprints.services;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import edu.eci.arsw.blueprints.filters.BlueprintsFilter;
+import edu.eci.arsw.blueprints.filters.IncrementalBlueprintsFilter;
+import edu.eci.arsw.blueprints.model.Blueprint;
+import edu.eci.arsw.blueprints.model.Point;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Memoiza la salida de un filtro por blueprint.
+ * La llave es la instancia del blueprint (referencia débil, comparada por identidad), así que una
+ * entrada desaparece junto con el blueprint que la originó; el valor recuerda la versión con la
+ * que se calculó y se recalcula cuando cambia.
+ * Con un {@link IncrementalBlueprintsFilter} el recálculo solo procesa los puntos agregados desde
+ * la versión anterior, salvo que setPoints los haya reemplazado (cambia la generación de los puntos).
+ * Solo los recálculos se miden: su duración en filterTime y los puntos que recibió el filtro en
+ * filteredPoints (con un filtro incremental, solo los nuevos). Un acierto de la memo no registra nada.
+ */
+class FilteredBlueprintCache {
+
+    private final BlueprintsFilter filter;
+    private final Timer filterTime;
+    private final Counter filteredPoints;
+    private final Cache<Blueprint, Memo> cache;
+
+    FilteredBlueprintCache(BlueprintsFilter filter, long maximumSize, Timer filterTime, Counter filteredPoints) {
+        this.filter = filter;
+        this.filterTime = filterTime;
+        this.filteredPoints = filteredPoints;
+        this.cache = Caffeine.newBuilder()
+            .weakKeys()
+            .maximumSize(maximumSize)
+            .build();
+    }
+
+    Blueprint apply(Blueprint bp) {
+        return cache.get(bp, k -> new Memo()).resultFor(this, bp);
+    }
+
+    long size() { return cache.estimatedSize(); }
+
+    /* Resultado de un filtro para un blueprint. El valor nunca guarda una referencia al blueprint
+     * de la llave (eso impediría liberarla): result == null significa "el filtro no lo modificó".
+     */
+    private static final class Memo {
+        private volatile Current current;
+        // Estado incremental, generación de los puntos que consumió y cuántos; protegidos por this
+        private IncrementalBlueprintsFilter.State state;
+        private long generation;
+        private int consumed;
+
+        Blueprint resultFor(FilteredBlueprintCache owner, Blueprint bp) {
+            // La versión se lee antes que los puntos: si llega un punto mientras tanto, el resultado
+            // queda registrado con la versión anterior y la siguiente lectura lo vuelve a actualizar
+            long version = bp.getVersion();
+            Current c = current;
+            if (c == null || c.version() != version) {
+                synchronized (this) {
+                    c = current;
+                    if (c == null || c.version() != version) {
+                        long start = System.nanoTime();
+                        Blueprint result = compute(owner, bp);
+                        owner.filterTime.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                        c = new Current(version, result == bp ? null : result);
+                        current = c;
+                    }
+                }
+            }
+            return c.result() == null ? bp : c.result();
+        }
+
+        private Blueprint compute(FilteredBlueprintCache owner, Blueprint bp) {
+            // Como la versión, la generación se lee antes que los puntos
+            long pointsGeneration = bp.getPointsGeneration();
+            List<Point> points = bp.getPoints();
+            if (!(owner.filter instanceof IncrementalBlueprintsFilter incremental)) {
+                owner.filteredPoints.increment(points.size());
+                return owner.filter.apply(bp);
+            }
+            // Entre generaciones los puntos solo crecen por append; si se reemplazaron (con menos,
+            // igual o más puntos), se empieza de nuevo
+            if (state == null || generation != pointsGeneration) {
+                state = incremental.newState(bp.getAuthor(), bp.getName());
+                generation = pointsGeneration;
+                consumed = 0;
+            }
+            owner.filteredPoints.increment(points.size() - consumed);
+            for (int i = consumed; i < points.size(); i++) state.append(points.get(i));
+            consumed = points.size();
+            return state.result(bp);
+        }
+    }
+
+    private record Current(long version, Blueprint result) {}
+}
@@ -0,0 +1,190 @@
+package edu.eci.arsw.blueprints;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import edu.eci.arsw.blueprints.dto.BlueprintEvent;
+import edu.eci.arsw.blueprints.filters.IdentityFilter;
+import edu.eci.arsw.blueprints.model.Blueprint;
+import edu.eci.arsw.blueprints.model.Point;
+import edu.eci.arsw.blueprints.persistence.InMemoryBlueprintPersistence;
+import edu.eci.arsw.blueprints.services.BlueprintDrawMailboxes;
+import edu.eci.arsw.blueprints.services.BlueprintEventBroadcaster;
+import edu.eci.arsw.blueprints.services.BlueprintsServices;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Pruebas de estrés sobre los caminos concurrentes del almacenamiento en memoria y de los buzones
+ * de escritura por blueprint.
+ */
+class BlueprintsConcurrencyTests {
+
+    private static final int WRITERS = 64;
+    private static final int POINTS_PER_WRITER = 2_000;
+
+    @Test
+    void testConcurrentAddPointLosesNothing() throws Exception {
+        InMemoryBlueprintPersistence persistence = new InMemoryBlueprintPersistence();
+        persistence.saveBlueprint(new Blueprint("stress", "canvas"));
+        ObjectMapper mapper = new ObjectMapper();
+
+        ExecutorService pool = Executors.newFixedThreadPool(WRITERS + 1);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicBoolean writing = new AtomicBoolean(true);
+        List<Future<?>> writers = new ArrayList<>();
+        // Cada escritor usa x = id del hilo, y = secuencia local, para verificar orden y completitud
+        for (int w = 0; w < WRITERS; w++) {
+            int id = w;
+            writers.add(pool.submit(() -> {
+                start.await();
+                for (int i = 0; i < POINTS_PER_WRITER; i++) persistence.addPoint("stress", "canvas", id, i);
+                return null;
+            }));
+        }
+        // Lector concurrente: serializa snapshots mientras se escribe, como hace el broadcast STOMP
+        Future<Integer> reader = pool.submit(() -> {
+            start.await();
+            int reads = 0;
+            while (writing.get()) {
+                Blueprint bp = persistence.getBlueprint("stress", "canvas");
+                List<Point> snapshot = bp.getPoints();
+                assertInWriterOrder(snapshot);
+                mapper.writeValueAsBytes(bp);
+                reads++;
+            }
+            return reads;
+        });
+
+        start.countDown();
+        for (Future<?> f : writers) f.get();
+        writing.set(false);
+        assertTrue(reader.get() > 0);
+        pool.shutdown();
+
+        List<Point> points = persistence.getBlueprint("stress", "canvas").getPoints();
+        assertEquals(WRITERS * POINTS_PER_WRITER, points.size());
+        int[] counts = assertInWriterOrder(points);
+        for (int c : counts) assertEquals(POINTS_PER_WRITER, c);
+        // La caja que se ensancha con CAS en cada append no pierde ningún extremo
+        assertArrayEquals(new int[] {0, 0, WRITERS - 1, POINTS_PER_WRITER - 1},
+            persistence.getBlueprint("stress", "canvas").getBounds());
+    }
+
+    @Test
+    void testConcurrentBatchesStayContiguous() throws Exception {
+        Blueprint bp = new Blueprint("stress", "batches");
+        int batch = 50;
+        ExecutorService pool = Executors.newFixedThreadPool(WRITERS);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int w = 0; w < WRITERS; w++) {
+            int id = w;
+            futures.add(pool.submit(() -> {
+                for (int round = 0; round < 20; round++) {
+                    List<Point> pts = new ArrayList<>();
+                    for (int i = 0; i < batch; i++) pts.add(new Point(id, round * batch + i));
+                    bp.addPoints(pts);
+                }
+            }));
+        }
+        for (Future<?> f : futures) f.get();
+        pool.shutdown();
+
+        List<Point> points = bp.getPoints();
+        assertEquals(WRITERS * 20 * batch, points.size());
+        for (int i = 0; i < points.size(); i += batch) {
+            int owner = points.get(i).getX();
+            for (int j = 1; j < batch; j++) assertEquals(owner, points.get(i + j).getX());
+        }
+        assertArrayEquals(new int[] {0, 0, WRITERS - 1, 20 * batch - 1}, bp.getBounds());
+    }
+
+    @Test
+    void testMailboxPublishesDeltasInSequenceOrder() throws Exception {
+        InMemoryBlueprintPersistence persistence = new InMemoryBlueprintPersistence();
+        persistence.saveBlueprint(new Blueprint("stress", "canvas"));
+        persistence.saveBlueprint(new Blueprint("stress", "other"));
+        MeterRegistry registry = new SimpleMeterRegistry();
+        BlueprintsServices services = new BlueprintsServices(persistence, new IdentityFilter(), registry);
+        Map<String, List<BlueprintEvent>> published = new ConcurrentHashMap<>();
+        BlueprintEventBroadcaster broadcaster = new BlueprintEventBroadcaster(
+                new SimpMessagingTemplate((message, timeout) -> true), new Jackson2ObjectMapperBuilder(),
+                registry, "json", 16, 10) {
+            @Override
+            public void publish(String destination, Object payload) {
+                published.computeIfAbsent(destination, d -> Collections.synchronizedList(new ArrayList<>()))
+                    .add((BlueprintEvent) payload);
+            }
+        };
+        BlueprintDrawMailboxes mailboxes = new BlueprintDrawMailboxes(
+            services, broadcaster, registry, 4, 64, 1_000_000, 60_000, false);
+
+        ExecutorService pool = Executors.newFixedThreadPool(WRITERS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> writers = new ArrayList<>();
+        // Los escritores pares dibujan en canvas y los impares en other; x = id, y = secuencia local
+        for (int w = 0; w < WRITERS; w++) {
+            int id = w;
+            String name = w % 2 == 0 ? "canvas" : "other";
+            writers.add(pool.submit(() -> {
+                start.await();
+                List<CompletableFuture<Integer>> appends = new ArrayList<>();
+                for (int i = 0; i < POINTS_PER_WRITER; i++) {
+                    appends.add(mailboxes.append("stress", name, List.of(new Point(id, i))));
+                }
+                for (CompletableFuture<Integer> f : appends) f.get();
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> f : writers) f.get();
+        pool.shutdown();
+        mailboxes.stop();
+
+        for (String name : List.of("canvas", "other")) {
+            List<Point> stored = persistence.getBlueprint("stress", name).getPoints();
+            assertEquals(WRITERS / 2 * POINTS_PER_WRITER, stored.size());
+            assertInWriterOrder(stored);
+            // Los deltas cubren los puntos guardados, contiguos y en orden de sequence
+            List<Point> replayed = new ArrayList<>();
+            for (BlueprintEvent event : published.get("/topic/blueprints.stress." + name)) {
+                assertEquals(replayed.size(), event.sequence());
+                replayed.addAll(event.points());
+            }
+            assertEquals(stored.size(), replayed.size());
+            for (int i = 0; i < stored.size(); i++) {
+                assertEquals(stored.get(i).getX(), replayed.get(i).getX());
+                assertEquals(stored.get(i).getY(), replayed.get(i).getY());
+            }
+        }
+        assertEquals(0, mailboxes.getPendingCount());
+    }
+
+    /* Verifica que los puntos de cada escritor aparezcan en su orden de envío, sin huecos */
+    private static int[] assertInWriterOrder(List<Point> points) {
+        int[] next = new int[WRITERS];
+        for (Point p : points) {
+            assertEquals(next[p.getX()], p.getY());
+            next[p.getX()]++;
+        }
+        return next;
+    }
+}
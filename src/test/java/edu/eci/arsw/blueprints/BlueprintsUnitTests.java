@@ -1,23 +1,97 @@
 package edu.eci.arsw.blueprints;
 
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
+import java.util.Optional;
+import java.util.Random;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
 
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+import static org.mockito.Mockito.when;
 import org.junit.jupiter.api.Test;
+import org.openjdk.jol.info.GraphLayout;
+import org.springframework.dao.TransientDataAccessResourceException;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageHeaders;
+import org.springframework.messaging.converter.MessageConverter;
+import org.springframework.messaging.simp.SimpMessageSendingOperations;
+import org.springframework.util.MimeType;
+import org.springframework.util.MimeTypeUtils;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketSession;
+import org.springframework.web.socket.handler.SessionLimitExceededException;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import edu.eci.arsw.blueprints.config.InMemoryPersistenceConfig;
+import edu.eci.arsw.blueprints.config.PersistenceConfig;
+import edu.eci.arsw.blueprints.config.SlowConsumerSessionDecorator;
+import edu.eci.arsw.blueprints.config.WebSocketConfig;
+import edu.eci.arsw.blueprints.config.WireFormat;
+import edu.eci.arsw.blueprints.controllers.BlueprintsAPIController;
+import edu.eci.arsw.blueprints.dto.BlueprintEvent;
+import edu.eci.arsw.blueprints.dto.BlueprintPage;
+import edu.eci.arsw.blueprints.filters.BlueprintsFilter;
+import edu.eci.arsw.blueprints.filters.DouglasPeuckerFilter;
+import edu.eci.arsw.blueprints.filters.FilterCatalog;
+import edu.eci.arsw.blueprints.filters.FilterPipeline;
 import edu.eci.arsw.blueprints.filters.IdentityFilter;
+import edu.eci.arsw.blueprints.filters.IncrementalBlueprintsFilter;
+import edu.eci.arsw.blueprints.filters.LevelOfDetailFilter;
 import edu.eci.arsw.blueprints.filters.RedundancyFilter;
 import edu.eci.arsw.blueprints.filters.UndersamplingFilter;
+import edu.eci.arsw.blueprints.filters.VisvalingamFilter;
 import edu.eci.arsw.blueprints.model.Blueprint;
+import edu.eci.arsw.blueprints.model.BlueprintSummary;
+import edu.eci.arsw.blueprints.model.PackedPointList;
 import edu.eci.arsw.blueprints.model.Point;
+import edu.eci.arsw.blueprints.model.PointGridIndex;
 import edu.eci.arsw.blueprints.persistence.BlueprintNotFoundException;
+import edu.eci.arsw.blueprints.persistence.BlueprintPersistence;
 import edu.eci.arsw.blueprints.persistence.BlueprintPersistenceException;
+import edu.eci.arsw.blueprints.persistence.CachingBlueprintPersistence;
+import edu.eci.arsw.blueprints.persistence.ConcurrencyLimitedBlueprintPersistence;
 import edu.eci.arsw.blueprints.persistence.InMemoryBlueprintPersistence;
+import edu.eci.arsw.blueprints.persistence.repository.JpaBlueprintRepository;
+import edu.eci.arsw.blueprints.services.BlueprintDrawMailboxes;
+import edu.eci.arsw.blueprints.services.BlueprintEventBroadcaster;
 import edu.eci.arsw.blueprints.services.BlueprintsServices;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 
 class BlueprintsUnitTests {
 
@@ -47,6 +121,71 @@ class BlueprintsUnitTests {
         assertEquals(1, bp.getPoints().size());
     }
 
+    @Test
+    void testBlueprintAddPointByCoordinates() {
+        Blueprint bp = new Blueprint("autor1", "plano1", List.of(new Point(1, 2)));
+        bp.addPoint(-3, Integer.MAX_VALUE);
+        assertEquals(2, bp.getPoints().size());
+        assertEquals(-3, bp.getPoints().get(1).getX());
+        assertEquals(Integer.MAX_VALUE, bp.getPoints().get(1).getY());
+    }
+
+    // ========== Tests del almacenamiento empaquetado de puntos ==========
+
+    @Test
+    void testPackedPointListKeepsCoordinates() {
+        PackedPointList list = new PackedPointList();
+        list.add(Integer.MIN_VALUE, -1);
+        list.add(new Point(7, Integer.MIN_VALUE));
+        list.add(1, new Point(0, 0));
+        assertEquals(3, list.size());
+        assertEquals(Integer.MIN_VALUE, list.getX(0));
+        assertEquals(-1, list.getY(0));
+        assertEquals(0, list.get(1).getX());
+        assertEquals(Integer.MIN_VALUE, list.get(2).getY());
+        list.remove(1);
+        assertEquals(7, list.getX(1));
+    }
+
+    @Test
+    void testPackedSnapshotSurvivesReplacementAndEdits() {
+        Blueprint bp = new Blueprint("john", "snap", List.of(new Point(1, 1), new Point(2, 2), new Point(3, 3)));
+        List<Point> before = bp.getPoints();
+        // Tantos puntos como antes: reutilizar la memoria los escribiría sobre los del snapshot
+        bp.setPoints(List.of(new Point(7, 7), new Point(8, 8), new Point(9, 9)));
+        List<Point> replaced = bp.getPoints();
+        assertEquals(3, before.size());
+        assertEquals(1, before.get(0).getX());
+        assertEquals(3, before.get(2).getX());
+        assertEquals(7, replaced.get(0).getX());
+
+        PackedPointList list = new PackedPointList(List.of(new Point(1, 1), new Point(2, 2)));
+        List<Point> snapshot = list.snapshot();
+        list.set(0, new Point(5, 5));
+        list.add(0, new Point(6, 6));
+        list.remove(2);
+        assertEquals(1, snapshot.get(0).getX());
+        assertEquals(2, snapshot.get(1).getX());
+        assertEquals(6, list.getX(0));
+        assertEquals(5, list.getX(1));
+        assertEquals(2, list.size());
+    }
+
+    @Test
+    void testPackedPointListFootprint() {
+        int n = 100_000;
+        List<Point> boxed = new ArrayList<>();
+        PackedPointList packed = new PackedPointList();
+        for (int i = 0; i < n; i++) {
+            boxed.add(new Point(i, -i));
+            packed.add(i, -i);
+        }
+        long boxedBytes = GraphLayout.parseInstance(boxed).totalSize();
+        long packedBytes = GraphLayout.parseInstance(packed).totalSize();
+        // Un long por punto (más la holgura del crecimiento) frente a referencia + objeto Point
+        assertTrue(packedBytes * 2 < boxedBytes);
+    }
+
     // ========== Tests del Filtro de Redundancia ==========
 
     @Test
@@ -106,6 +245,243 @@ class BlueprintsUnitTests {
         assertEquals(2, filtered.getPoints().size());
     }
 
+    // ========== Tests de Filtros Incrementales ==========
+
+    @Test
+    void testIncrementalFiltersMatchBatchOnRandomStreams() {
+        Random random = new Random(42);
+        for (IncrementalBlueprintsFilter filter : List.of(new RedundancyFilter(), new UndersamplingFilter())) {
+            for (int stream = 0; stream < 200; stream++) {
+                Blueprint source = new Blueprint("rnd", "s" + stream);
+                IncrementalBlueprintsFilter.State state = filter.newState("rnd", "s" + stream);
+                assertSamePoints(filter.apply(source), state.result(source));
+                int length = random.nextInt(40);
+                for (int i = 0; i < length; i++) {
+                    // Rango pequeño para que aparezcan duplicados consecutivos
+                    Point p = new Point(random.nextInt(3), random.nextInt(3));
+                    source.addPoint(p);
+                    state.append(p);
+                    assertSamePoints(filter.apply(source), state.result(source));
+                }
+            }
+        }
+    }
+
+    @Test
+    void testServiceUpdatesIncrementalResultOnAppend() throws BlueprintNotFoundException {
+        InMemoryBlueprintPersistence persistence = new InMemoryBlueprintPersistence();
+        UndersamplingFilter filter = new UndersamplingFilter();
+        BlueprintsServices service = new BlueprintsServices(persistence, filter);
+        Blueprint garden = persistence.getBlueprint("jane", "garden");
+        for (int i = 0; i < 50; i++) {
+            service.addPoint("jane", "garden", i, -i);
+            assertSamePoints(filter.apply(garden), service.getBlueprint("jane", "garden"));
+        }
+    }
+
+    @Test
+    void testServiceRestartsIncrementalResultWhenPointsAreReplaced() throws BlueprintNotFoundException {
+        InMemoryBlueprintPersistence persistence = new InMemoryBlueprintPersistence();
+        RedundancyFilter filter = new RedundancyFilter();
+        BlueprintsServices service = new BlueprintsServices(persistence, filter);
+        Blueprint house = persistence.getBlueprint("john", "house");
+        assertSamePoints(filter.apply(house), service.getBlueprint("john", "house"));
+
+        // Tantos puntos como los ya consumidos, y luego más: el tamaño no delata el reemplazo
+        for (int extra : new int[] {0, 2}) {
+            List<Point> replacement = new ArrayList<>();
+            for (int i = 0; i < house.getPoints().size() + extra; i++) replacement.add(new Point(100 + i, 100));
+            house.setPoints(replacement);
+            assertSamePoints(filter.apply(house), service.getBlueprint("john", "house"));
+            service.addPoint("john", "house", 7, 7);
+            assertSamePoints(filter.apply(house), service.getBlueprint("john", "house"));
+        }
+    }
+
+    // ========== Tests de Filtros de Simplificación ==========
+
+    @Test
+    void testDouglasPeuckerKeepsErrorWithinTolerance() {
+        Random random = new Random(3);
+        List<Point> pts = new ArrayList<>();
+        for (int i = 0; i < 5_000; i++) pts.add(new Point(i, (int) (Math.sin(i / 50.0) * 100) + random.nextInt(3)));
+        Blueprint bp = new Blueprint("geo", "wave", pts);
+        double tolerance = 2.0;
+        List<Point> simplified = new DouglasPeuckerFilter(tolerance).apply(bp).getPoints();
+
+        assertTrue(simplified.size() < pts.size() / 10);
+        assertEquals(0, simplified.get(0).getX());
+        assertEquals(4_999, simplified.get(simplified.size() - 1).getX());
+        // x es creciente, así que cada punto original cae entre dos puntos conservados consecutivos
+        int segment = 0;
+        for (Point p : pts) {
+            while (simplified.get(segment + 1).getX() < p.getX()) segment++;
+            Point a = simplified.get(segment);
+            Point b = simplified.get(segment + 1);
+            assertTrue(distanceToSegment(p, a, b) <= tolerance + 1e-9);
+        }
+    }
+
+    @Test
+    void testVisvalingamCollapsesStraightLine() {
+        List<Point> pts = new ArrayList<>();
+        for (int i = 0; i < 1_000; i++) pts.add(new Point(i, 2 * i));
+        Blueprint simplified = new VisvalingamFilter(0.5).apply(new Blueprint("geo", "line", pts));
+        assertEquals(2, simplified.getPoints().size());
+        assertEquals(999, simplified.getPoints().get(1).getX());
+    }
+
+    @Test
+    void testVisvalingamKeepsLargeTriangles() {
+        Blueprint zigzag = new Blueprint("geo", "zigzag",
+            List.of(new Point(0, 0), new Point(10, 10), new Point(20, 0), new Point(30, 10), new Point(40, 0)));
+        assertSame(zigzag, new VisvalingamFilter(50).apply(zigzag)); // cada triángulo mide 100
+        assertEquals(2, new VisvalingamFilter(1_000).apply(zigzag).getPoints().size());
+    }
+
+    @Test
+    void testFilterCatalogParsesTolerance() {
+        FilterCatalog catalog = new FilterCatalog();
+        BlueprintsFilter dp = catalog.resolve("douglas-peucker:2.5");
+        assertEquals(2.5, ((DouglasPeuckerFilter) dp).getTolerance());
+        assertSame(dp, catalog.resolve("Douglas-Peucker: 2.50"));
+        assertEquals(FilterCatalog.DEFAULT_TOLERANCE, ((VisvalingamFilter) catalog.resolve("visvalingam")).getTolerance());
+        assertTrue(catalog.resolve("redundancy,visvalingam:4") instanceof FilterPipeline);
+        assertThrows(IllegalArgumentException.class, () -> catalog.resolve("douglas-peucker:-1"));
+        assertThrows(IllegalArgumentException.class, () -> catalog.resolve("visvalingam:abc"));
+        assertThrows(IllegalArgumentException.class, () -> catalog.resolve("redundancy:3"));
+    }
+
+    // ========== Tests de Niveles de Detalle ==========
+
+    @Test
+    void testLevelForRespectsBudget() {
+        assertEquals(0, LevelOfDetailFilter.levelFor(1_000, 1_000));
+        assertEquals(1, LevelOfDetailFilter.levelFor(1_001, 1_000));
+        assertEquals(10, LevelOfDetailFilter.levelFor(1_000_000, 1_000));
+        assertEquals(0, LevelOfDetailFilter.levelFor(0, 1));
+        assertThrows(IllegalArgumentException.class, () -> LevelOfDetailFilter.levelFor(10, 0));
+        assertThrows(IllegalArgumentException.class, () -> LevelOfDetailFilter.of(31));
+    }
+
+    @Test
+    void testLevelOfDetailIncrementalMatchesBatch() {
+        Random random = new Random(5);
+        for (int level = 0; level <= 4; level++) {
+            LevelOfDetailFilter lod = LevelOfDetailFilter.of(level);
+            Blueprint source = new Blueprint("lod", "bp");
+            IncrementalBlueprintsFilter.State state = lod.newState("lod", "bp");
+            for (int i = 0; i < 100; i++) {
+                Point p = new Point(random.nextInt(100), random.nextInt(100));
+                source.addPoint(p);
+                state.append(p);
+                assertSamePoints(lod.apply(source), state.result(source));
+            }
+        }
+    }
+
+    @Test
+    void testServiceLevelOfDetailShrinksLargeBlueprint() throws Exception {
+        InMemoryBlueprintPersistence persistence = new InMemoryBlueprintPersistence();
+        BlueprintsServices service = new BlueprintsServices(persistence, new IdentityFilter());
+        List<Point> pts = new ArrayList<>();
+        for (int i = 0; i < 1_000_000; i++) pts.add(new Point(i, i % 7));
+        persistence.saveBlueprint(new Blueprint("big", "stroke", pts));
+
+        Blueprint overview = service.getBlueprintWithin("big", "stroke", null, 1_000);
+        assertEquals(977, overview.getPoints().size()); // nivel 10: ceil(10^6 / 1024)
+        assertSame(overview, service.getBlueprintAtLevel("big", "stroke", null, 10));
+
+        // El nivel se actualiza con los puntos nuevos sin recalcular desde cero
+        service.addPoints("big", "stroke", List.of(new Point(-1, -1), new Point(-2, -2)));
+        assertEquals(977, service.getBlueprintAtLevel("big", "stroke", null, 10).getPoints().size());
+        assertEquals(1_000_002, service.getBlueprint("big", "stroke").getPoints().size());
+        assertEquals(500_001, service.getBlueprintAtLevel("big", "stroke", null, 1).getPoints().size());
+    }
+
+    private static double distanceToSegment(Point p, Point a, Point b) {
+        double dx = b.getX() - a.getX();
+        double dy = b.getY() - a.getY();
+        double len2 = dx * dx + dy * dy;
+        double t = len2 == 0 ? 0 : Math.max(0, Math.min(1, ((p.getX() - a.getX()) * dx + (p.getY() - a.getY()) * dy) / len2));
+        return Math.hypot(a.getX() + t * dx - p.getX(), a.getY() + t * dy - p.getY());
+    }
+
+    // ========== Tests del Pipeline de Filtros ==========
+
+    @Test
+    void testPipelineMatchesChainedFilters() {
+        RedundancyFilter redundancy = new RedundancyFilter();
+        UndersamplingFilter undersampling = new UndersamplingFilter();
+        FilterPipeline pipeline = new FilterPipeline("redundancy,undersampling", List.of(redundancy, undersampling));
+        FilterPipeline reversed = new FilterPipeline("undersampling,redundancy", List.of(undersampling, redundancy));
+        Random random = new Random(7);
+        for (int stream = 0; stream < 300; stream++) {
+            Blueprint bp = randomBlueprint(random, random.nextInt(30));
+            assertSamePoints(undersampling.apply(redundancy.apply(bp)), pipeline.apply(bp));
+            assertSamePoints(redundancy.apply(undersampling.apply(bp)), reversed.apply(bp));
+        }
+    }
+
+    @Test
+    void testPipelineParallelPathMatchesChainedFilters() {
+        RedundancyFilter redundancy = new RedundancyFilter();
+        UndersamplingFilter undersampling = new UndersamplingFilter();
+        FilterPipeline pipeline = new FilterPipeline("redundancy,undersampling,redundancy",
+            List.of(redundancy, undersampling, redundancy));
+        Blueprint bp = randomBlueprint(new Random(11), 200_000); // por encima del umbral paralelo
+        assertSamePoints(redundancy.apply(undersampling.apply(redundancy.apply(bp))), pipeline.apply(bp));
+    }
+
+    @Test
+    void testPipelineParallelPathStitchesPositionalStagesAcrossChunks() {
+        RedundancyFilter redundancy = new RedundancyFilter();
+        UndersamplingFilter undersampling = new UndersamplingFilter();
+        LevelOfDetailFilter lod = LevelOfDetailFilter.of(2);
+        FilterPipeline pipeline = new FilterPipeline("redundancy,lod,undersampling,redundancy",
+            List.of(redundancy, lod, undersampling, redundancy));
+        // Tamaño que no es múltiplo del trozo: cada etapa arranca los trozos en posiciones distintas
+        Blueprint bp = randomBlueprint(new Random(23), 3 * 65_536 + 12_345);
+        assertSamePoints(redundancy.apply(undersampling.apply(lod.apply(redundancy.apply(bp)))), pipeline.apply(bp));
+    }
+
+    @Test
+    void testFilterCatalogResolvesSpecs() {
+        FilterCatalog catalog = new FilterCatalog();
+        assertTrue(catalog.resolve("redundancy") instanceof RedundancyFilter);
+        assertTrue(catalog.resolve("identity") instanceof IdentityFilter);
+        BlueprintsFilter chain = catalog.resolve(" Redundancy , undersampling ");
+        assertTrue(chain instanceof FilterPipeline);
+        assertSame(chain, catalog.resolve("redundancy,identity,undersampling"));
+        assertThrows(IllegalArgumentException.class, () -> catalog.resolve("redundancy,blur"));
+    }
+
+    @Test
+    void testServiceAppliesRequestedFilter() throws BlueprintNotFoundException {
+        InMemoryBlueprintPersistence persistence = new InMemoryBlueprintPersistence();
+        BlueprintsServices service = new BlueprintsServices(persistence, new IdentityFilter());
+        FilterCatalog catalog = new FilterCatalog();
+        assertEquals(4, service.getBlueprint("john", "house").getPoints().size());
+        assertEquals(2, service.getBlueprint("john", "house", catalog.resolve("undersampling")).getPoints().size());
+        assertEquals(4, service.getBlueprint("john", "house", null).getPoints().size());
+    }
+
+    private static Blueprint randomBlueprint(Random random, int points) {
+        List<Point> pts = new ArrayList<>(points);
+        for (int i = 0; i < points; i++) pts.add(new Point(random.nextInt(3), random.nextInt(3)));
+        return new Blueprint("rnd", "bp", pts);
+    }
+
+    private static void assertSamePoints(Blueprint expected, Blueprint actual) {
+        List<Point> e = expected.getPoints();
+        List<Point> a = actual.getPoints();
+        assertEquals(e.size(), a.size());
+        for (int i = 0; i < e.size(); i++) {
+            assertEquals(e.get(i).getX(), a.get(i).getX());
+            assertEquals(e.get(i).getY(), a.get(i).getY());
+        }
+    }
+
     // ========== Tests de Persistencia en Memoria ==========
 
     @Test
@@ -155,6 +531,829 @@ class BlueprintsUnitTests {
         assertEquals(2, johnBlueprints.size()); // john tiene "house" y "garage"
     }
 
+    @Test
+    void testInMemorySummaries() throws BlueprintNotFoundException {
+        InMemoryBlueprintPersistence persistence = new InMemoryBlueprintPersistence();
+        assertEquals(3, persistence.getBlueprintSummaries().size());
+        Set<BlueprintSummary> john = persistence.getBlueprintSummariesByAuthor("john");
+        assertTrue(john.contains(new BlueprintSummary("john", "house", 4, 0, 0, 10, 10)));
+        assertTrue(john.contains(new BlueprintSummary("john", "garage", 3, 5, 5, 15, 15)));
+    }
+
+    @Test
+    void testInMemoryAuthorIndexFollowsDelete() throws BlueprintNotFoundException {
+        InMemoryBlueprintPersistence persistence = new InMemoryBlueprintPersistence();
+        persistence.deleteBlueprint("john", "house");
+        assertEquals(1, persistence.getBlueprintsByAuthor("john").size());
+
+        persistence.deleteBlueprint("jane", "garden");
+        assertThrows(BlueprintNotFoundException.class, () -> persistence.getBlueprintsByAuthor("jane"));
+        assertThrows(BlueprintNotFoundException.class, () -> persistence.deleteBlueprint("jane", "garden"));
+    }
+
+    @Test
+    void testInMemoryPagesAreOrderedByAuthorAndName() throws BlueprintPersistenceException {
+        InMemoryBlueprintPersistence persistence = new InMemoryBlueprintPersistence();
+        persistence.saveBlueprint(new Blueprint("alice", "z"));
+        // Datos iniciales: jane/garden, john/garage, john/house
+        List<Blueprint> first = persistence.getBlueprintsPage(null, null, 2);
+        assertEquals(List.of("alice/z", "jane/garden"), first.stream().map(bp -> bp.getAuthor() + "/" + bp.getName()).toList());
+
+        String[] cursor = BlueprintPage.parseCursor(BlueprintPage.cursorAfter(first.get(1)));
+        List<Blueprint> second = persistence.getBlueprintsPage(cursor[0], cursor[1], 2);
+        assertEquals(List.of("john/garage", "john/house"), second.stream().map(bp -> bp.getAuthor() + "/" + bp.getName()).toList());
+        assertTrue(persistence.getBlueprintsPage("john", "house", 2).isEmpty());
+    }
+
+    @Test
+    void testPageCursorRoundTrip() {
+        String cursor = BlueprintPage.cursorAfter(new Blueprint("a.b/ñ", "c d"));
+        assertArrayEquals(new String[] {"a.b/ñ", "c d"}, BlueprintPage.parseCursor(cursor));
+        assertThrows(IllegalArgumentException.class, () -> BlueprintPage.parseCursor("sin-punto"));
+        assertThrows(IllegalArgumentException.class, () -> BlueprintPage.parseCursor("%%.%%"));
+    }
+
+    @Test
+    void testInMemoryKeysDoNotCollide() throws BlueprintPersistenceException, BlueprintNotFoundException {
+        InMemoryBlueprintPersistence persistence = new InMemoryBlueprintPersistence();
+        persistence.saveBlueprint(new Blueprint("a:b", "c"));
+        persistence.saveBlueprint(new Blueprint("a", "b:c")); // con "author:name" esta clave chocaba
+        assertEquals("a:b", persistence.getBlueprint("a:b", "c").getAuthor());
+        assertEquals("a", persistence.getBlueprint("a", "b:c").getAuthor());
+    }
+
+    @Test
+    void testInMemoryAuthorIndexConcurrentWriters() throws Exception {
+        InMemoryBlueprintPersistence persistence = new InMemoryBlueprintPersistence();
+        int threads = 8;
+        int perThread = 500;
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            int id = t;
+            futures.add(pool.submit(() -> {
+                for (int i = 0; i < perThread; i++) {
+                    String name = "bp" + id + "_" + i;
+                    persistence.saveBlueprint(new Blueprint("shared", name));
+                    // Se eliminan los impares para mezclar altas y bajas sobre el mismo autor
+                    if (i % 2 == 1) persistence.deleteBlueprint("shared", name);
+                }
+                return null;
+            }));
+        }
+        for (Future<?> f : futures) f.get();
+        pool.shutdown();
+
+        Set<Blueprint> shared = persistence.getBlueprintsByAuthor("shared");
+        assertEquals(threads * perThread / 2, shared.size());
+        assertEquals(3 + threads * perThread / 2, persistence.getAllBlueprints().size());
+    }
+
+    @Test
+    void testInMemoryPersistenceAddPoints() throws BlueprintNotFoundException {
+        InMemoryBlueprintPersistence persistence = new InMemoryBlueprintPersistence();
+        persistence.addPoints("jane", "garden", List.of(new Point(8, 8), new Point(9, 9)));
+        List<Point> points = persistence.getBlueprint("jane", "garden").getPoints();
+        assertEquals(5, points.size());
+        assertEquals(9, points.get(4).getX());
+        assertThrows(BlueprintNotFoundException.class,
+            () -> persistence.addPoints("noExiste", "nada", List.of(new Point(1, 1))));
+    }
+
+    @Test
+    void testAddPointReturnsSequence() throws BlueprintNotFoundException {
+        InMemoryBlueprintPersistence persistence = new InMemoryBlueprintPersistence();
+        assertEquals(3, persistence.addPoint("jane", "garden", 1, 1));
+        assertEquals(4, persistence.addPoints("jane", "garden", List.of(new Point(2, 2), new Point(3, 3))));
+        assertEquals(6, persistence.addPoint("jane", "garden", 4, 4));
+    }
+
+    // ========== Tests del Índice Espacial ==========
+
+    @Test
+    void testGridIndexMatchesBruteForce() {
+        Random random = new Random(17);
+        List<Point> points = new ArrayList<>();
+        PointGridIndex index = new PointGridIndex(16);
+        for (int round = 0; round < 5; round++) {
+            // Se indexa por tandas, como cuando llegan puntos entre consultas
+            for (int i = 0; i < 2_000; i++) points.add(new Point(random.nextInt(1_000) - 500, random.nextInt(1_000) - 500));
+            index.catchUp(points);
+            for (int q = 0; q < 50; q++) {
+                int minX = random.nextInt(1_200) - 600, minY = random.nextInt(1_200) - 600;
+                int maxX = minX + random.nextInt(400), maxY = minY + random.nextInt(400);
+                List<Point> expected = points.stream()
+                    .filter(p -> p.getX() >= minX && p.getX() <= maxX && p.getY() >= minY && p.getY() <= maxY)
+                    .toList();
+                assertSamePoints(new Blueprint("a", "b", expected),
+                    new Blueprint("a", "b", index.query(points, minX, minY, maxX, maxY)));
+            }
+        }
+        assertEquals(10_000, index.size());
+        assertEquals(0, index.query(points, 600, 600, 700, 700).size());
+    }
+
+    @Test
+    void testInMemoryPointsInBoxSeesAppendedPoints() throws BlueprintNotFoundException {
+        InMemoryBlueprintPersistence persistence = new InMemoryBlueprintPersistence();
+        // house: (0,0) (10,0) (10,10) (0,10)
+        List<Point> inside = persistence.getPointsInBox("john", "house", 5, -1, 20, 20);
+        assertEquals(2, inside.size());
+        assertEquals(10, inside.get(0).getX());
+        assertEquals(10, inside.get(1).getY());
+
+        persistence.addPoint("john", "house", 7, 7);
+        assertEquals(3, persistence.getPointsInBox("john", "house", 5, -1, 20, 20).size());
+        assertThrows(BlueprintNotFoundException.class,
+            () -> persistence.getPointsInBox("noExiste", "nada", 0, 0, 1, 1));
+    }
+
+    @Test
+    void testInMemoryPointsInBoxRebuildsOnlyWhenPointsAreReplaced() throws BlueprintNotFoundException {
+        InMemoryBlueprintPersistence persistence = new InMemoryBlueprintPersistence();
+        assertEquals(4, persistence.getPointsInBox("john", "house", 0, 0, 10, 10).size());
+
+        // Reemplazo por más puntos de los que tenía: el tamaño no lo delata, la generación sí
+        List<Point> replacement = new ArrayList<>();
+        for (int i = 0; i < 6; i++) replacement.add(new Point(100 + i, 100));
+        persistence.getBlueprint("john", "house").setPoints(replacement);
+        assertTrue(persistence.getPointsInBox("john", "house", 0, 0, 10, 10).isEmpty());
+        assertEquals(6, persistence.getPointsInBox("john", "house", 100, 100, 200, 200).size());
+    }
+
+    @Test
+    void testInMemoryBlueprintsIntersecting() throws Exception {
+        InMemoryBlueprintPersistence persistence = new InMemoryBlueprintPersistence();
+        persistence.saveBlueprint(new Blueprint("jane", "empty"));
+        // house [0,10]x[0,10], garage [5,15]x[5,15], garden [2,6]x[2,7]
+        Set<BlueprintSummary> hits = persistence.getBlueprintsIntersecting(12, 12, 30, 30);
+        assertEquals(Set.of(new BlueprintSummary("john", "garage", 3, 5, 5, 15, 15)), hits);
+        // Tocar el borde cuenta; la caja de house contiene a la región aunque ningún punto caiga en ella
+        assertEquals(3, persistence.getBlueprintsIntersecting(6, 7, 6, 7).size());
+        assertTrue(persistence.getBlueprintsIntersecting(100, 100, 200, 200).isEmpty());
+
+        // La caja crece con cada append, sin volver a leer los puntos
+        persistence.addPoint("jane", "empty", 150, 150);
+        persistence.addPoints("john", "garage", List.of(new Point(120, 4), new Point(-3, 190)));
+        assertEquals(Set.of(new BlueprintSummary("jane", "empty", 1, 150, 150, 150, 150),
+                            new BlueprintSummary("john", "garage", 5, -3, 4, 120, 190)),
+            persistence.getBlueprintsIntersecting(100, 100, 200, 200));
+    }
+
+    @Test
+    void testBlueprintBoundsFollowAppendsAndReplacement() {
+        Blueprint bp = new Blueprint("john", "box");
+        assertNull(bp.getBounds());
+        bp.addPoint(3, -2);
+        assertArrayEquals(new int[] {3, -2, 3, -2}, bp.getBounds());
+        bp.addPoints(List.of(new Point(-5, 4), new Point(1, 1)));
+        assertArrayEquals(new int[] {-5, -2, 3, 4}, bp.getBounds());
+        bp.setPoints(List.of(new Point(7, 7)));
+        assertArrayEquals(new int[] {7, 7, 7, 7}, bp.getBounds());
+        bp.setPoints(List.of());
+        assertNull(bp.getBounds());
+    }
+
+    // ========== Tests de la Caché de lectura ==========
+
+    @Test
+    void testCacheServesRepeatedReadsAndInvalidatesOnWrite() throws Exception {
+        BlueprintPersistence delegate = mock(BlueprintPersistence.class);
+        when(delegate.getBlueprint("john", "house")).thenReturn(new Blueprint("john", "house"));
+        CachingBlueprintPersistence cache = new CachingBlueprintPersistence(delegate, 100, Duration.ofMinutes(1));
+
+        cache.getBlueprint("john", "house");
+        cache.getBlueprint("john", "house");
+        verify(delegate, times(1)).getBlueprint("john", "house");
+        assertEquals(1, cache.getStats().hitCount());
+        assertEquals(1, cache.getStats().missCount());
+
+        cache.addPoint("john", "house", 1, 1);
+        cache.getBlueprint("john", "house");
+        verify(delegate, times(2)).getBlueprint("john", "house");
+
+        cache.deleteBlueprint("john", "house");
+        cache.getBlueprint("john", "house");
+        verify(delegate, times(3)).getBlueprint("john", "house");
+    }
+
+    @Test
+    void testCacheDoesNotKeepMisses() throws Exception {
+        BlueprintPersistence delegate = mock(BlueprintPersistence.class);
+        when(delegate.getBlueprint("john", "shed")).thenThrow(new BlueprintNotFoundException("no"));
+        CachingBlueprintPersistence cache = new CachingBlueprintPersistence(delegate, 100, Duration.ofMinutes(1));
+
+        assertThrows(BlueprintNotFoundException.class, () -> cache.getBlueprint("john", "shed"));
+        assertThrows(BlueprintNotFoundException.class, () -> cache.getBlueprint("john", "shed"));
+        verify(delegate, times(2)).getBlueprint("john", "shed");
+        assertEquals(0, cache.getEstimatedSize());
+    }
+
+    @Test
+    void testCacheReadersWaitingOnAMissGetNotFound() throws Exception {
+        BlueprintPersistence delegate = mock(BlueprintPersistence.class);
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(delegate.getBlueprint("john", "shed")).thenAnswer(inv -> {
+            loading.countDown();
+            release.await();
+            throw new BlueprintNotFoundException("no");
+        });
+        CachingBlueprintPersistence cache = new CachingBlueprintPersistence(delegate, 100, Duration.ofMinutes(1));
+
+        ExecutorService readers = Executors.newFixedThreadPool(2);
+        try {
+            Future<Blueprint> first = readers.submit(() -> cache.getBlueprint("john", "shed"));
+            loading.await();
+            Future<Blueprint> second = readers.submit(() -> cache.getBlueprint("john", "shed"));
+            release.countDown();
+            ExecutionException loader = assertThrows(ExecutionException.class, first::get);
+            ExecutionException waiter = assertThrows(ExecutionException.class, second::get);
+            assertInstanceOf(BlueprintNotFoundException.class, loader.getCause());
+            assertInstanceOf(BlueprintNotFoundException.class, waiter.getCause());
+        } finally {
+            readers.shutdownNow();
+        }
+        assertEquals(0, cache.getEstimatedSize());
+    }
+
+    @Test
+    void testCacheIsBounded() throws Exception {
+        BlueprintPersistence delegate = mock(BlueprintPersistence.class);
+        when(delegate.getBlueprint(anyString(), anyString()))
+            .thenAnswer(inv -> new Blueprint(inv.getArgument(0), inv.getArgument(1)));
+        CachingBlueprintPersistence cache = new CachingBlueprintPersistence(delegate, 10, Duration.ofMinutes(1));
+
+        for (int i = 0; i < 100; i++) cache.getBlueprint("author", "bp" + i);
+        assertTrue(cache.getEstimatedSize() <= 10);
+        assertTrue(cache.getStats().evictionCount() >= 90);
+    }
+
+    @Test
+    void testCacheLoadsOnceForConcurrentReaders() throws Exception {
+        BlueprintPersistence delegate = mock(BlueprintPersistence.class);
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(delegate.getBlueprint("john", "house")).thenAnswer(inv -> {
+            loading.countDown();
+            release.await();
+            return new Blueprint("john", "house");
+        });
+        CachingBlueprintPersistence cache = new CachingBlueprintPersistence(delegate, 100, Duration.ofMinutes(1));
+
+        try (ExecutorService readers = Executors.newVirtualThreadPerTaskExecutor()) {
+            Future<Blueprint> first = readers.submit(() -> cache.getBlueprint("john", "house"));
+            loading.await();
+            Future<Blueprint> second = readers.submit(() -> cache.getBlueprint("john", "house"));
+            release.countDown();
+            assertSame(first.get(), second.get());
+        }
+        verify(delegate, times(1)).getBlueprint("john", "house");
+    }
+
+    // ========== Tests del límite de concurrencia de la base ==========
+
+    @Test
+    void testLimiterRejectsCallersThatWaitTooLong() throws Exception {
+        BlueprintPersistence delegate = mock(BlueprintPersistence.class);
+        CountDownLatch inside = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(delegate.getBlueprint("john", "house")).thenAnswer(inv -> {
+            inside.countDown();
+            release.await();
+            return new Blueprint("john", "house");
+        });
+        ConcurrencyLimitedBlueprintPersistence limited =
+            new ConcurrencyLimitedBlueprintPersistence(delegate, 1, Duration.ofMillis(50));
+
+        try (ExecutorService callers = Executors.newVirtualThreadPerTaskExecutor()) {
+            Future<Blueprint> holder = callers.submit(() -> limited.getBlueprint("john", "house"));
+            inside.await();
+            assertEquals(1, limited.getActiveCount());
+            assertThrows(TransientDataAccessResourceException.class, () -> limited.getAllBlueprints());
+            release.countDown();
+            assertNotNull(holder.get());
+        }
+        assertEquals(0, limited.getActiveCount());
+        limited.getAllBlueprints(); // el turno se liberó
+        verify(delegate, times(1)).getAllBlueprints();
+    }
+
+    @Test
+    void testLimiterReleasesSlotWhenDelegateThrows() throws Exception {
+        BlueprintPersistence delegate = mock(BlueprintPersistence.class);
+        when(delegate.getBlueprint("john", "shed")).thenThrow(new BlueprintNotFoundException("no"));
+        ConcurrencyLimitedBlueprintPersistence limited =
+            new ConcurrencyLimitedBlueprintPersistence(delegate, 1, Duration.ofMillis(50));
+
+        assertThrows(BlueprintNotFoundException.class, () -> limited.getBlueprint("john", "shed"));
+        assertThrows(BlueprintNotFoundException.class, () -> limited.getBlueprint("john", "shed"));
+        assertEquals(0, limited.getActiveCount());
+    }
+
+    // ========== Tests de eventos delta ==========
+
+    @Test
+    void testPointsSinceReturnsOnlyMissingPoints() throws BlueprintNotFoundException {
+        BlueprintsServices service = new BlueprintsServices(new InMemoryBlueprintPersistence(), new IdentityFilter());
+        List<Point> missing = service.getPointsSince("john", "house", 2);
+        assertEquals(2, missing.size());
+        assertEquals(10, missing.get(0).getX());
+        assertTrue(service.getPointsSince("john", "house", 10).isEmpty());
+    }
+
+    @Test
+    void testDeltaBytesPerPoint() throws Exception {
+        ObjectMapper mapper = new ObjectMapper();
+        Blueprint bp = new Blueprint("john", "large");
+        for (int i = 0; i < 10_000; i++) bp.addPoint(i, i);
+        // Antes: cada punto de /app/draw publicaba el blueprint completo
+        int fullBytes = mapper.writeValueAsBytes(bp).length;
+        // Ahora: cada punto publica solo el delta
+        int deltaBytes = mapper.writeValueAsBytes(
+            BlueprintEvent.pointsAppended("john", "large", 10_000, List.of(new Point(10_000, 10_000)))).length;
+        assertTrue(deltaBytes < 200);
+        assertTrue(fullBytes > deltaBytes * 1_000);
+    }
+
+    @Test
+    void testRestBatchAppendPublishesOnlyTheDelta() throws Exception {
+        BlueprintsServices services = mock(BlueprintsServices.class);
+        BlueprintEventBroadcaster broadcaster = mock(BlueprintEventBroadcaster.class);
+        List<Point> points = List.of(new Point(5, 5), new Point(6, 6));
+        when(services.addPoints("john", "house", points)).thenReturn(4);
+        BlueprintsAPIController controller = new BlueprintsAPIController(services, broadcaster, new ObjectMapper(), null);
+
+        assertEquals(HttpStatus.ACCEPTED, controller.addPoints("john", "house", points).getStatusCode());
+        verify(broadcaster).publish(eq("/topic/blueprints.john.house"), argThat(event ->
+            event instanceof BlueprintEvent e && e.eventType() == BlueprintEvent.EventType.POINTS_APPENDED
+                && e.sequence() == 4 && e.points() == points));
+        verify(services).addPoints("john", "house", points);
+        verifyNoMoreInteractions(services, broadcaster);
+    }
+
+    @Test
+    void testRestPointAppendPublishesOnlyTheDelta() throws Exception {
+        BlueprintsServices services = mock(BlueprintsServices.class);
+        BlueprintEventBroadcaster broadcaster = mock(BlueprintEventBroadcaster.class);
+        when(services.addPoint("john", "house", 7, 8)).thenReturn(4);
+        BlueprintsAPIController controller = new BlueprintsAPIController(services, broadcaster, new ObjectMapper(), null);
+
+        assertEquals(HttpStatus.ACCEPTED, controller.addPoint("john", "house", new Point(7, 8)).getStatusCode());
+        verify(broadcaster).publish(eq("/topic/blueprints.john.house"), argThat(event ->
+            event instanceof BlueprintEvent e && e.eventType() == BlueprintEvent.EventType.POINTS_APPENDED
+                && e.sequence() == 4 && e.points().size() == 1 && e.points().get(0).getX() == 7));
+        verify(services).addPoint("john", "house", 7, 8);
+        verifyNoMoreInteractions(services, broadcaster);
+    }
+
+    // ========== Tests del Formato Binario ==========
+
+    @Test
+    void testBinaryWireFormatsRoundTripAndShrink() throws Exception {
+        Random random = new Random(5);
+        Blueprint bp = new Blueprint("john", "sketch");
+        for (int i = 0; i < 1_000; i++) bp.addPoint(random.nextInt(2_000), random.nextInt(2_000));
+        int jsonBytes = WireFormat.JSON.newMapper(new Jackson2ObjectMapperBuilder()).writeValueAsBytes(bp).length;
+
+        for (WireFormat format : List.of(WireFormat.SMILE, WireFormat.CBOR)) {
+            ObjectMapper mapper = format.newMapper(new Jackson2ObjectMapperBuilder());
+            byte[] bytes = mapper.writeValueAsBytes(bp);
+            assertTrue(bytes.length < jsonBytes);
+            assertSamePoints(bp, mapper.readValue(bytes, Blueprint.class));
+        }
+        assertThrows(IllegalArgumentException.class, () -> WireFormat.of("xml"));
+        assertEquals(WireFormat.CBOR, WireFormat.of(" Cbor "));
+    }
+
+    @Test
+    void testBinaryStompConverterOnlyWritesObjects() throws Exception {
+        List<MessageConverter> converters = new ArrayList<>();
+        new WebSocketConfig("smile", new Jackson2ObjectMapperBuilder(), false, new long[] {0, 0}, null).configureMessageConverters(converters);
+        MessageConverter converter = converters.get(0);
+
+        BlueprintEvent event = BlueprintEvent.pointsAppended("john", "house", 4, List.of(new Point(1, 2)));
+        Message<?> message = converter.toMessage(event, null);
+        MimeType contentType = (MimeType) message.getHeaders().get(MessageHeaders.CONTENT_TYPE);
+        // octet-stream para que Spring envíe un frame binario; el formato real va en el parámetro
+        assertTrue(MimeTypeUtils.APPLICATION_OCTET_STREAM.isCompatibleWith(contentType));
+        assertEquals("smile", contentType.getParameter("format"));
+        BlueprintEvent decoded = WireFormat.SMILE.newMapper(new Jackson2ObjectMapperBuilder())
+            .readValue((byte[]) message.getPayload(), BlueprintEvent.class);
+        assertEquals(4, decoded.sequence());
+        assertEquals(2, decoded.points().get(0).getY());
+
+        // Los mensajes entrantes y los payloads ya serializados quedan para los conversores por defecto
+        assertNull(converter.fromMessage(message, BlueprintEvent.class));
+        assertNull(converter.toMessage("texto", null));
+
+        List<MessageConverter> none = new ArrayList<>();
+        new WebSocketConfig("json", new Jackson2ObjectMapperBuilder(), false, new long[] {0, 0}, null).configureMessageConverters(none);
+        assertTrue(none.isEmpty());
+    }
+
+    // ========== Tests del Broadcaster ==========
+
+    @Test
+    void testBroadcasterMergesConsecutiveEvents() {
+        SimpMessageSendingOperations template = mock(SimpMessageSendingOperations.class);
+        BlueprintEventBroadcaster broadcaster = newBroadcaster(template, 100);
+        Blueprint bp = new Blueprint("john", "house");
+        String topic = "/topic/blueprints.john.house";
+
+        broadcaster.broadcast(BlueprintEvent.updated(bp, "uno"));
+        broadcaster.broadcast(BlueprintEvent.updated(bp, "dos"));
+        broadcaster.publish(topic, BlueprintEvent.pointsAppended("john", "house", 4, List.of(new Point(1, 1))));
+        broadcaster.publish(topic, BlueprintEvent.pointsAppended("john", "house", 5, List.of(new Point(2, 2))));
+        assertEquals(6, broadcaster.getQueueDepth());
+        broadcaster.flush();
+
+        // UPDATED: se envía solo el último a cada destino
+        verify(template).send(eq("/topic/blueprints"), argThat((Message<?> m) -> sentEvent(m).message().endsWith("dos")));
+        verify(template).send(eq("/topic/blueprints/john"), argThat((Message<?> m) -> sentEvent(m).message().endsWith("dos")));
+        // POINTS_APPENDED contiguos: un solo delta desde la secuencia 4 con los dos puntos
+        verify(template).send(eq(topic), argThat((Message<?> m) -> {
+            BlueprintEvent ev = sentEvent(m);
+            return ev.sequence() == 4 && ev.points().size() == 2;
+        }));
+        verifyNoMoreInteractions(template);
+        assertEquals(3, broadcaster.getMergedCount());
+        assertEquals(3, broadcaster.getSentCount());
+        assertEquals(0, broadcaster.getQueueDepth());
+    }
+
+    @Test
+    void testBroadcasterSerializesOncePerBlueprintVersion() {
+        SimpMessageSendingOperations template = mock(SimpMessageSendingOperations.class);
+        List<Message<?>> messages = new ArrayList<>();
+        doAnswer(inv -> messages.add(inv.getArgument(1)))
+            .when(template).send(anyString(), any());
+        BlueprintEventBroadcaster broadcaster = newBroadcaster(template, 100);
+        Blueprint bp = new Blueprint("john", "large");
+        for (int i = 0; i < 10_000; i++) bp.addPoint(i, i);
+        BlueprintEvent event = BlueprintEvent.updated(bp, "puntos");
+
+        broadcaster.broadcast(event);
+        broadcaster.flush();
+        // Dos destinos, una sola serialización: ambos envíos comparten el mismo arreglo de bytes
+        assertEquals(2, messages.size());
+        assertEquals(1, broadcaster.getSerializedCount());
+        assertSame(messages.get(0).getPayload(), messages.get(1).getPayload());
+        assertEquals(MimeTypeUtils.APPLICATION_JSON, messages.get(0).getHeaders().get(MessageHeaders.CONTENT_TYPE));
+
+        // Mismo evento en otra ventana: se reutiliza mientras el blueprint no cambie
+        broadcaster.publish("/topic/blueprints.john.large", event);
+        broadcaster.flush();
+        assertEquals(1, broadcaster.getSerializedCount());
+
+        bp.addPoint(-1, -1);
+        broadcaster.publish("/topic/blueprints.john.large", event);
+        broadcaster.flush();
+        assertEquals(2, broadcaster.getSerializedCount());
+        assertEquals(10_001, sentEvent(messages.get(3)).blueprint().getPoints().size());
+    }
+
+    @Test
+    void testBroadcasterDropsWhenQueueIsFull() {
+        SimpMessageSendingOperations template = mock(SimpMessageSendingOperations.class);
+        BlueprintEventBroadcaster broadcaster = newBroadcaster(template, 2);
+        broadcaster.broadcast(BlueprintEvent.deleted("john", "house"));
+        broadcaster.broadcast(BlueprintEvent.deleted("john", "garage"));
+        assertEquals(2, broadcaster.getDroppedCount());
+        assertEquals(2, broadcaster.getQueueDepth());
+    }
+
+    private static BlueprintEventBroadcaster newBroadcaster(SimpMessageSendingOperations template, int queueCapacity) {
+        return new BlueprintEventBroadcaster(template, new Jackson2ObjectMapperBuilder(), new SimpleMeterRegistry(), "json", 16, queueCapacity);
+    }
+
+    private static BlueprintEvent sentEvent(Message<?> message) {
+        try {
+            return new ObjectMapper().readValue((byte[]) message.getPayload(), BlueprintEvent.class);
+        } catch (IOException e) {
+            throw new AssertionError(e);
+        }
+    }
+
+    // ========== Tests de suscriptores lentos ==========
+
+    @Test
+    void testSlowConsumerConflatesBlueprintDeltasPerSubscription() throws Exception {
+        WebSocketSession session = mock(WebSocketSession.class);
+        CountDownLatch sending = new CountDownLatch(1);
+        CountDownLatch unblock = new CountDownLatch(1);
+        CountDownLatch delivered = new CountDownLatch(4);
+        List<String> frames = Collections.synchronizedList(new ArrayList<>());
+        doAnswer(inv -> {
+            sending.countDown();
+            unblock.await();
+            frames.add(((TextMessage) inv.getArgument(0)).getPayload());
+            delivered.countDown();
+            return null;
+        }).when(session).sendMessage(any());
+        LongAdder conflated = new LongAdder();
+        ExecutorService writer = Executors.newCachedThreadPool();
+        SlowConsumerSessionDecorator guarded = new SlowConsumerSessionDecorator(
+            session, writer, SlowConsumerSessionDecorator.Policy.CONFLATE, 10_000, 64 * 1024, conflated);
+
+        TextMessage a = stompFrame("sub-0", "/topic/blueprints.john.house", "a");
+        TextMessage c = stompFrame("sub-1", "/topic/blueprints", "c");
+        TextMessage d = stompFrame("sub-0", "/topic/blueprints.john.house", "d");
+        TextMessage e = stompFrame("sub-1", "/topic/blueprints", "e");
+        guarded.sendMessage(a);
+        sending.await(); // 'a' quedó escribiéndose
+        guarded.sendMessage(stompFrame("sub-0", "/topic/blueprints.john.house", "b"));
+        guarded.sendMessage(c);
+        guarded.sendMessage(d); // reemplaza a 'b'
+        guarded.sendMessage(e); // el topic general no se fusiona
+        assertEquals(3, guarded.getBufferedMessages());
+        unblock.countDown();
+
+        assertTrue(delivered.await(5, TimeUnit.SECONDS));
+        writer.shutdown();
+        assertEquals(List.of(a.getPayload(), c.getPayload(), d.getPayload(), e.getPayload()), frames);
+        assertEquals(1, conflated.sum());
+        assertEquals(0, guarded.getBufferSize());
+    }
+
+    @Test
+    void testSlowConsumerIsDisconnectedOverBufferLimit() throws Exception {
+        TextMessage frame = stompFrame("sub-0", "/topic/blueprints.john.house", "x".repeat(10));
+        int limit = frame.getPayloadLength() + 20; // cabe un frame pendiente, no dos
+
+        for (SlowConsumerSessionDecorator.Policy policy : SlowConsumerSessionDecorator.Policy.values()) {
+            WebSocketSession session = mock(WebSocketSession.class);
+            CountDownLatch sending = new CountDownLatch(1);
+            CountDownLatch unblock = new CountDownLatch(1);
+            doAnswer(inv -> {
+                sending.countDown();
+                unblock.await();
+                return null;
+            }).when(session).sendMessage(any());
+            ExecutorService writer = Executors.newCachedThreadPool();
+            SlowConsumerSessionDecorator guarded = new SlowConsumerSessionDecorator(
+                session, writer, policy, 10_000, limit, new LongAdder());
+
+            guarded.sendMessage(frame);
+            sending.await();
+            guarded.sendMessage(frame);
+            TextMessage overflow = frame;
+            if (policy == SlowConsumerSessionDecorator.Policy.CONFLATE) {
+                // Otro delta del mismo topic reemplaza al pendiente; uno del topic general sí se acumula
+                guarded.sendMessage(frame);
+                assertEquals(1, guarded.getBufferedMessages());
+                overflow = stompFrame("sub-1", "/topic/blueprints", "x".repeat(10));
+            }
+            assertFalse(guarded.isLimitExceeded(), policy.name());
+            TextMessage last = overflow;
+            assertThrows(SessionLimitExceededException.class, () -> guarded.sendMessage(last), policy.name());
+            assertTrue(guarded.isLimitExceeded());
+            assertEquals(0, guarded.getBufferSize());
+
+            unblock.countDown();
+            writer.shutdown();
+            assertTrue(writer.awaitTermination(5, TimeUnit.SECONDS));
+            // Lo pendiente se descartó: solo salió el primer frame
+            verify(session, times(1)).sendMessage(any());
+        }
+    }
+
+    @Test
+    void testSlowConsumerIsDisconnectedWhenWriteStalls() throws Exception {
+        WebSocketSession session = mock(WebSocketSession.class);
+        CountDownLatch sending = new CountDownLatch(1);
+        CountDownLatch unblock = new CountDownLatch(1);
+        doAnswer(inv -> {
+            sending.countDown();
+            unblock.await();
+            return null;
+        }).when(session).sendMessage(any());
+        ExecutorService writer = Executors.newCachedThreadPool();
+        SlowConsumerSessionDecorator guarded = new SlowConsumerSessionDecorator(
+            session, writer, SlowConsumerSessionDecorator.Policy.CONFLATE, 20, 64 * 1024, new LongAdder());
+
+        TextMessage frame = stompFrame("sub-0", "/topic/blueprints.john.house", "a");
+        guarded.sendMessage(frame);
+        sending.await();
+        Thread.sleep(50);
+        assertThrows(SessionLimitExceededException.class, () -> guarded.sendMessage(frame));
+        unblock.countDown();
+        writer.shutdown();
+        assertTrue(writer.awaitTermination(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void testSlowConsumerPolicyNames() {
+        assertEquals(SlowConsumerSessionDecorator.Policy.CONFLATE, SlowConsumerSessionDecorator.Policy.of(" Conflate "));
+        assertThrows(IllegalArgumentException.class, () -> SlowConsumerSessionDecorator.Policy.of("drop"));
+    }
+
+    private static TextMessage stompFrame(String subscription, String destination, String body) {
+        return new TextMessage("MESSAGE\ndestination:" + destination + "\nsubscription:" + subscription
+            + "\nmessage-id:1\ncontent-type:application/json\n\n" + body + "\0");
+    }
+
+    // ========== Tests de los buzones de dibujo ==========
+
+    @Test
+    void testMailboxBatchesPendingDrawsIntoOneWrite() throws Exception {
+        BlueprintPersistence delegate = mock(BlueprintPersistence.class);
+        CountDownLatch writing = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        List<List<Point>> writes = Collections.synchronizedList(new ArrayList<>());
+        when(delegate.addPoints(eq("john"), eq("house"), any())).thenAnswer(inv -> {
+            List<Point> points = inv.getArgument(2);
+            writes.add(points);
+            if (writes.size() == 1) {
+                writing.countDown();
+                release.await();
+                return 0;
+            }
+            return 1;
+        });
+        SimpMessageSendingOperations template = mock(SimpMessageSendingOperations.class);
+        MeterRegistry registry = new SimpleMeterRegistry();
+        BlueprintDrawMailboxes mailboxes = new BlueprintDrawMailboxes(
+            new BlueprintsServices(delegate, new IdentityFilter(), registry),
+            newBroadcaster(template, 100), registry, 1, 64, 2, 60_000, false);
+
+        CompletableFuture<Integer> first = mailboxes.append("john", "house", List.of(new Point(0, 0)));
+        writing.await(); // el primero se está escribiendo; los siguientes esperan en el buzón
+        CompletableFuture<Integer> second = mailboxes.append("john", "house", List.of(new Point(1, 1), new Point(2, 2)));
+        CompletableFuture<Integer> third = mailboxes.append("john", "house", List.of(new Point(3, 3)));
+        CompletableFuture<Integer> rejected = mailboxes.append("john", "house", List.of(new Point(4, 4)));
+        ExecutionException full = assertThrows(ExecutionException.class, () -> rejected.get(1, TimeUnit.SECONDS));
+        assertTrue(full.getCause() instanceof RejectedExecutionException);
+        assertEquals(1, mailboxes.getRejectedCount());
+        assertEquals(2, mailboxes.getPendingCount());
+        release.countDown();
+
+        assertEquals(0, first.get(5, TimeUnit.SECONDS));
+        assertEquals(1, second.get(5, TimeUnit.SECONDS));
+        assertEquals(3, third.get(5, TimeUnit.SECONDS));
+        assertEquals(2, writes.size());
+        assertEquals(3, writes.get(1).size());
+        assertEquals(3, writes.get(1).get(2).getX());
+        mailboxes.stop();
+    }
+
+    @Test
+    void testMailboxFailsDrawsForMissingBlueprint() throws Exception {
+        MeterRegistry registry = new SimpleMeterRegistry();
+        SimpMessageSendingOperations template = mock(SimpMessageSendingOperations.class);
+        BlueprintEventBroadcaster broadcaster = newBroadcaster(template, 100);
+        BlueprintDrawMailboxes mailboxes = new BlueprintDrawMailboxes(
+            new BlueprintsServices(new InMemoryBlueprintPersistence(), new IdentityFilter(), registry),
+            broadcaster, registry, 1, 64, 100, 60_000, false);
+
+        CompletableFuture<Integer> draw = mailboxes.append("nobody", "nothing", List.of(new Point(1, 1)));
+        ExecutionException e = assertThrows(ExecutionException.class, () -> draw.get(5, TimeUnit.SECONDS));
+        assertTrue(e.getCause() instanceof BlueprintNotFoundException);
+        assertEquals(0, broadcaster.getQueueDepth());
+        mailboxes.stop();
+    }
+
+    @Test
+    void testMailboxRejectsNullPointsBeforeQueueing() throws Exception {
+        InMemoryBlueprintPersistence persistence = new InMemoryBlueprintPersistence();
+        persistence.saveBlueprint(new Blueprint("mailbox", "nulls"));
+        BlueprintDrawMailboxes mailboxes = new BlueprintDrawMailboxes(
+            new BlueprintsServices(persistence, new IdentityFilter()),
+            newBroadcaster(mock(SimpMessageSendingOperations.class), 100), new SimpleMeterRegistry(),
+            1, 64, 100, 60_000, false);
+
+        CompletableFuture<Integer> nullList = mailboxes.append("mailbox", "nulls", null);
+        CompletableFuture<Integer> nullPoint = mailboxes.append("mailbox", "nulls", Arrays.asList(new Point(1, 1), null));
+        ExecutionException e = assertThrows(ExecutionException.class, () -> nullPoint.get(1, TimeUnit.SECONDS));
+        assertInstanceOf(IllegalArgumentException.class, e.getCause());
+        assertTrue(nullList.isCompletedExceptionally());
+        assertEquals(0, mailboxes.getMailboxCount());
+
+        assertEquals(0, mailboxes.append("mailbox", "nulls", List.of(new Point(2, 2))).get(5, TimeUnit.SECONDS));
+        assertEquals(1, persistence.getBlueprint("mailbox", "nulls").getPoints().size());
+        mailboxes.stop();
+    }
+
+    @Test
+    void testMailboxRetriesDrawsOneByOneWhenAMergedWriteFails() throws Exception {
+        BlueprintPersistence delegate = mock(BlueprintPersistence.class);
+        CountDownLatch writing = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        List<List<Point>> writes = Collections.synchronizedList(new ArrayList<>());
+        Point bad = new Point(-1, -1);
+        when(delegate.addPoints(eq("john"), eq("house"), any())).thenAnswer(inv -> {
+            List<Point> points = inv.getArgument(2);
+            writes.add(points);
+            if (writes.size() == 1) {
+                writing.countDown();
+                release.await();
+                return 0;
+            }
+            if (points.contains(bad)) throw new IllegalStateException("rechazado");
+            return 1;
+        });
+        BlueprintDrawMailboxes mailboxes = new BlueprintDrawMailboxes(
+            new BlueprintsServices(delegate, new IdentityFilter()),
+            newBroadcaster(mock(SimpMessageSendingOperations.class), 100), new SimpleMeterRegistry(),
+            1, 64, 100, 60_000, false);
+
+        CompletableFuture<Integer> first = mailboxes.append("john", "house", List.of(new Point(0, 0)));
+        writing.await();
+        CompletableFuture<Integer> before = mailboxes.append("john", "house", List.of(new Point(1, 1)));
+        CompletableFuture<Integer> failing = mailboxes.append("john", "house", List.of(bad));
+        CompletableFuture<Integer> after = mailboxes.append("john", "house", List.of(new Point(2, 2)));
+        release.countDown();
+
+        assertEquals(0, first.get(5, TimeUnit.SECONDS));
+        assertEquals(1, before.get(5, TimeUnit.SECONDS));
+        assertEquals(1, after.get(5, TimeUnit.SECONDS));
+        ExecutionException e = assertThrows(ExecutionException.class, () -> failing.get(5, TimeUnit.SECONDS));
+        assertInstanceOf(IllegalStateException.class, e.getCause());
+        // primera escritura, lote fallido de tres y luego uno por uno en orden
+        assertEquals(5, writes.size());
+        assertEquals(3, writes.get(1).size());
+        assertEquals(1, writes.get(2).get(0).getX());
+        assertSame(bad, writes.get(3).get(0));
+        assertEquals(2, writes.get(4).get(0).getX());
+        mailboxes.stop();
+    }
+
+    @Test
+    void testMailboxFailsDrawsAfterStop() throws Exception {
+        BlueprintPersistence delegate = mock(BlueprintPersistence.class);
+        CountDownLatch writing = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(delegate.addPoints(eq("john"), eq("house"), any())).thenAnswer(inv -> {
+            writing.countDown();
+            release.await();
+            return 0;
+        });
+        BlueprintDrawMailboxes mailboxes = new BlueprintDrawMailboxes(
+            new BlueprintsServices(delegate, new IdentityFilter()),
+            newBroadcaster(mock(SimpMessageSendingOperations.class), 100), new SimpleMeterRegistry(),
+            1, 64, 100, 20, false);
+
+        // Un lote en curso al detener: el que llega detrás falla cuando el turno intenta reencolarse
+        CompletableFuture<Integer> inFlight = mailboxes.append("john", "house", List.of(new Point(0, 0)));
+        writing.await();
+        Thread stopper = new Thread(() -> {
+            try {
+                mailboxes.stop();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        stopper.start();
+        while (stopper.getState() != Thread.State.TIMED_WAITING) Thread.onSpinWait(); // en awaitTermination
+        CompletableFuture<Integer> queued = mailboxes.append("john", "house", List.of(new Point(1, 1)));
+        release.countDown();
+        stopper.join();
+        assertEquals(0, inFlight.get(5, TimeUnit.SECONDS));
+        ExecutionException behind = assertThrows(ExecutionException.class, () -> queued.get(5, TimeUnit.SECONDS));
+        assertInstanceOf(RejectedExecutionException.class, behind.getCause());
+
+        // Después de stop(): append no lanza, falla el resultado y el buzón se puede eliminar
+        CompletableFuture<Integer> late = mailboxes.append("jane", "garden", List.of(new Point(2, 2)));
+        ExecutionException e = assertThrows(ExecutionException.class, () -> late.get(1, TimeUnit.SECONDS));
+        assertInstanceOf(RejectedExecutionException.class, e.getCause());
+        assertEquals(0, mailboxes.getPendingCount());
+        Thread.sleep(30);
+        mailboxes.evictIdle();
+        assertEquals(0, mailboxes.getMailboxCount());
+    }
+
+    @Test
+    void testMailboxEvictsOnlyIdleMailboxes() throws Exception {
+        InMemoryBlueprintPersistence persistence = new InMemoryBlueprintPersistence();
+        persistence.saveBlueprint(new Blueprint("mailbox", "canvas"));
+        BlueprintsServices services = new BlueprintsServices(persistence, new IdentityFilter());
+        BlueprintEventBroadcaster broadcaster = newBroadcaster(mock(SimpMessageSendingOperations.class), 100);
+        // Sin start() no hay hilo de limpieza: solo evictIdle() de la prueba elimina buzones.
+        // Cada instancia registra sus gauges en su propio registro.
+
+        BlueprintDrawMailboxes recent = new BlueprintDrawMailboxes(
+            services, broadcaster, new SimpleMeterRegistry(), 1, 64, 100, 60_000, false);
+        recent.append("mailbox", "canvas", List.of(new Point(1, 1))).get(5, TimeUnit.SECONDS);
+        recent.evictIdle();
+        assertEquals(1, recent.getMailboxCount());
+        recent.stop();
+
+        BlueprintDrawMailboxes idle = new BlueprintDrawMailboxes(
+            services, broadcaster, new SimpleMeterRegistry(), 1, 64, 100, 20, false);
+        assertEquals(1, idle.append("mailbox", "canvas", List.of(new Point(2, 2))).get(5, TimeUnit.SECONDS));
+        // El turno libera el buzón justo después de completar el resultado
+        for (int i = 0; i < 100 && idle.getMailboxCount() > 0; i++) {
+            Thread.sleep(10);
+            idle.evictIdle();
+        }
+        assertEquals(0, idle.getMailboxCount());
+        assertEquals(1, idle.getEvictedCount());
+        // Un blueprint eliminado del mapa vuelve a tener buzón con el siguiente mensaje
+        assertEquals(2, idle.append("mailbox", "canvas", List.of(new Point(3, 3))).get(5, TimeUnit.SECONDS));
+        assertEquals(3, persistence.getBlueprint("mailbox", "canvas").getPoints().size());
+        idle.stop();
+    }
+
     // ========== Tests del Servicio ==========
 
     @Test
@@ -179,4 +1378,132 @@ class BlueprintsUnitTests {
         Set<Blueprint> all = service.getAllBlueprints();
         assertEquals(4, all.size());
     }
+
+    @Test
+    void testServiceReusesFilterOutputUntilBlueprintChanges() throws BlueprintNotFoundException {
+        InMemoryBlueprintPersistence persistence = new InMemoryBlueprintPersistence();
+        AtomicInteger runs = new AtomicInteger();
+        RedundancyFilter redundancy = new RedundancyFilter();
+        BlueprintsServices service = new BlueprintsServices(persistence, bp -> {
+            runs.incrementAndGet();
+            return redundancy.apply(bp);
+        });
+
+        Blueprint first = service.getBlueprint("john", "house");
+        assertSame(first, service.getBlueprint("john", "house"));
+        service.getBlueprintsByAuthor("john");
+        service.getAllBlueprints();
+        assertEquals(3, runs.get()); // house, garage y garden una sola vez cada uno
+
+        service.addPoint("john", "house", 0, 10); // duplicado del último punto: el filtro lo descarta
+        Blueprint second = service.getBlueprint("john", "house");
+        assertEquals(4, runs.get());
+        assertNotSame(first, second);
+        assertEquals(4, second.getPoints().size());
+    }
+
+    @Test
+    void testBlueprintVersionFollowsPointChanges() {
+        Blueprint bp = new Blueprint("john", "v");
+        long v0 = bp.getVersion();
+        bp.addPoint(1, 1);
+        bp.addPoints(List.of(new Point(2, 2), new Point(3, 3)));
+        long generation = bp.getPointsGeneration();
+        bp.setPoints(List.of(new Point(0, 0)));
+        assertEquals(v0 + 3, bp.getVersion());
+        // Solo el reemplazo cambia la generación
+        assertEquals(generation + 1, bp.getPointsGeneration());
+    }
+
+    // ========== Tests de Métricas ==========
+
+    @Test
+    void testServiceRecordsReadTimesAndAppendedPoints() throws BlueprintNotFoundException {
+        MeterRegistry registry = new SimpleMeterRegistry();
+        BlueprintsServices service = new BlueprintsServices(
+            new InMemoryPersistenceConfig().instrumentedBlueprintPersistence(new InMemoryBlueprintPersistence(), registry),
+            new RedundancyFilter(), registry);
+
+        service.getBlueprint("john", "house");
+        service.getBlueprint("john", "house"); // memo: no vuelve a filtrar
+        service.addPoint("john", "house", 5, 5);
+        service.addPoints("john", "house", List.of(new Point(6, 6), new Point(7, 7)));
+        service.getBlueprint("john", "house");
+
+        assertEquals(3, registry.get("blueprints.service").tag("operation", "get").timer().count());
+        assertEquals(3, registry.get("blueprints.persistence")
+            .tags("store", "InMemoryBlueprintPersistence", "operation", "get").timer().count());
+        assertEquals(1, registry.get("blueprints.persistence").tag("operation", "addPoints").timer().count());
+        assertEquals(3.0, registry.get("blueprints.points.appended").counter().count());
+        // Redundancy es incremental: 4 puntos al principio y los 3 nuevos después
+        assertEquals(2, registry.get("blueprints.filter").tag("filter", "RedundancyFilter").timer().count());
+        assertEquals(7.0, registry.get("blueprints.filter.points").tag("filter", "RedundancyFilter").counter().count());
+    }
+
+    @Test
+    void testPersistenceTimerCountsFailedCalls() {
+        MeterRegistry registry = new SimpleMeterRegistry();
+        BlueprintsServices service = new BlueprintsServices(
+            new InMemoryPersistenceConfig().instrumentedBlueprintPersistence(new InMemoryBlueprintPersistence(), registry),
+            new IdentityFilter(), registry);
+
+        assertThrows(BlueprintNotFoundException.class, () -> service.deleteBlueprint("nobody", "nothing"));
+        assertEquals(1, registry.get("blueprints.persistence").tag("operation", "delete").timer().count());
+    }
+
+    @Test
+    void testPostgresTimerNamesTheStoreBehindTheLimit() throws Exception {
+        JpaBlueprintRepository repository = mock(JpaBlueprintRepository.class);
+        when(repository.findByAuthorAndName("john", "house")).thenReturn(Optional.of(new Blueprint("john", "house")));
+        MeterRegistry registry = new SimpleMeterRegistry();
+        BlueprintPersistence limited = new PersistenceConfig()
+            .limitedBlueprintPersistence(repository, registry, 2, Duration.ofSeconds(1));
+        CachingBlueprintPersistence cache = new CachingBlueprintPersistence(limited, 100, Duration.ofMinutes(1));
+
+        cache.getBlueprint("john", "house");
+        cache.getBlueprint("john", "house"); // acierto: no llega a la base
+        // El tag es el almacén real, no la caché ni el límite que lo envuelven
+        assertEquals(1, registry.get("blueprints.persistence")
+            .tags("store", "PostgresBlueprintPersistence", "operation", "get").timer().count());
+    }
+
+    @Test
+    void testBroadcasterMetrics() {
+        SimpMessageSendingOperations template = mock(SimpMessageSendingOperations.class);
+        MeterRegistry registry = new SimpleMeterRegistry();
+        BlueprintEventBroadcaster broadcaster = new BlueprintEventBroadcaster(
+            template, new Jackson2ObjectMapperBuilder(), registry, "json", 16, 100);
+
+        broadcaster.publish("/topic/a", BlueprintEvent.pointsAppended("john", "house", 4, List.of(new Point(1, 1))));
+        broadcaster.publish("/topic/a", BlueprintEvent.pointsAppended("john", "house", 5, List.of(new Point(2, 2))));
+        broadcaster.publish("/topic/b", "hola");
+        assertEquals(3.0, registry.get("blueprints.broadcast.queue").gauge().value());
+
+        broadcaster.flush();
+        assertEquals(0.0, registry.get("blueprints.broadcast.queue").gauge().value());
+        assertEquals(2.0, registry.get("blueprints.broadcast.sent").functionCounter().count());
+        assertEquals(1.0, registry.get("blueprints.broadcast.merged").functionCounter().count());
+        assertEquals(2.0, registry.get("blueprints.broadcast.serialized").functionCounter().count());
+        assertEquals(2, registry.get("blueprints.broadcast.fanout").timer().count());
+    }
+
+    @Test
+    void testInMemoryStoreSizes() throws BlueprintPersistenceException, BlueprintNotFoundException {
+        InMemoryBlueprintPersistence persistence = new InMemoryBlueprintPersistence();
+        assertEquals(3, persistence.getBlueprintCount());
+        assertEquals(2, persistence.getAuthorCount());
+        assertEquals(10, persistence.getPointCount());
+
+        persistence.saveBlueprint(new Blueprint("ana", "tree", List.of(new Point(1, 1))));
+        assertThrows(BlueprintPersistenceException.class,
+            () -> persistence.saveBlueprint(new Blueprint("ana", "tree")));
+        persistence.addPoint("ana", "tree", 2, 2);
+        assertEquals(4, persistence.getBlueprintCount());
+        assertEquals(3, persistence.getAuthorCount());
+        assertEquals(12, persistence.getPointCount());
+
+        persistence.deleteBlueprint("john", "house");
+        assertEquals(3, persistence.getBlueprintCount());
+        assertEquals(8, persistence.getPointCount());
+    }
 }
@@ -0,0 +1,212 @@
+package edu.eci.arsw.blueprints;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import edu.eci.arsw.blueprints.model.Blueprint;
+import edu.eci.arsw.blueprints.model.BlueprintSummary;
+import edu.eci.arsw.blueprints.model.Point;
+import edu.eci.arsw.blueprints.persistence.BlueprintNotFoundException;
+import edu.eci.arsw.blueprints.persistence.CachingBlueprintPersistence;
+import edu.eci.arsw.blueprints.persistence.PostgresBlueprintPersistence;
+import edu.eci.arsw.blueprints.persistence.repository.JpaBlueprintRepository;
+import jakarta.persistence.EntityManagerFactory;
+
+/**
+ * Pruebas de PostgresBlueprintPersistence sobre H2 en memoria (reemplaza el DataSource de PostgreSQL).
+ * Sin transacción de prueba: cada llamada a la persistencia confirma su propia transacción,
+ * como en producción, para poder ejercitar escritores concurrentes.
+ */
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@Import(PostgresBlueprintPersistence.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class PostgresPersistenceTests {
+
+    @Autowired PostgresBlueprintPersistence persistence;
+    @Autowired JpaBlueprintRepository repository;
+    @Autowired EntityManagerFactory emf;
+
+    private Statistics stats;
+
+    @BeforeEach
+    void setUp() {
+        repository.deleteAll();
+        stats = emf.unwrap(SessionFactory.class).getStatistics();
+        stats.clear();
+    }
+
+    @Test
+    void testAddPointDoesNotLoadCollection() throws Exception {
+        persistence.saveBlueprint(new Blueprint("john", "house", List.of(new Point(0, 0), new Point(1, 1))));
+        stats.clear();
+
+        assertEquals(2, persistence.addPoint("john", "house", 5, 5));
+        assertEquals(3, persistence.addPoints("john", "house", List.of(new Point(6, 6), new Point(7, 7))));
+
+        assertEquals(0, stats.getCollectionLoadCount());
+        assertEquals(0, stats.getEntityLoadCount());
+        List<Point> points = persistence.getBlueprint("john", "house").getPoints();
+        assertEquals(5, points.size());
+        assertEquals(7, points.get(4).getX());
+    }
+
+    @Test
+    void testListingQueryCounts() throws Exception {
+        for (int i = 0; i < 5; i++) {
+            persistence.saveBlueprint(new Blueprint("john", "bp" + i, List.of(new Point(i, 0), new Point(0, i + 10))));
+        }
+        persistence.saveBlueprint(new Blueprint("jane", "empty"));
+
+        stats.clear();
+        Set<BlueprintSummary> summaries = persistence.getBlueprintSummaries();
+        assertEquals(1, stats.getPrepareStatementCount());
+        assertEquals(0, stats.getCollectionLoadCount());
+        assertEquals(6, summaries.size());
+        assertTrue(summaries.contains(new BlueprintSummary("john", "bp3", 2, 0, 0, 3, 13)));
+        assertTrue(summaries.contains(new BlueprintSummary("jane", "empty", 0, null, null, null, null)));
+
+        stats.clear();
+        assertEquals(5, persistence.getBlueprintSummariesByAuthor("john").size());
+        assertEquals(1, stats.getPrepareStatementCount());
+
+        // Listados completos: un solo select con los puntos, sin N+1
+        stats.clear();
+        Set<Blueprint> all = persistence.getAllBlueprints();
+        all.forEach(bp -> bp.getPoints().size());
+        assertEquals(1, stats.getPrepareStatementCount());
+
+        stats.clear();
+        Set<Blueprint> johns = persistence.getBlueprintsByAuthor("john");
+        johns.forEach(bp -> bp.getPoints().size());
+        assertEquals(1, stats.getPrepareStatementCount());
+        assertEquals(2, johns.iterator().next().getPoints().size());
+    }
+
+    @Test
+    void testKeysetPagesWalkAllBlueprints() throws Exception {
+        for (int i = 0; i < 7; i++) {
+            persistence.saveBlueprint(new Blueprint("author" + (i % 3), "bp" + i, List.of(new Point(i, i))));
+        }
+        List<String> seen = new ArrayList<>();
+        String author = null;
+        String name = null;
+        List<Blueprint> page;
+        do {
+            stats.clear();
+            page = persistence.getBlueprintsPage(author, name, 3);
+            // Página + puntos en lotes de @BatchSize: nunca un select por blueprint
+            assertTrue(stats.getPrepareStatementCount() <= 2);
+            for (Blueprint bp : page) {
+                assertEquals(1, bp.getPoints().size());
+                seen.add(bp.getAuthor() + "/" + bp.getName());
+            }
+            if (!page.isEmpty()) {
+                author = page.get(page.size() - 1).getAuthor();
+                name = page.get(page.size() - 1).getName();
+            }
+        } while (page.size() == 3);
+
+        assertEquals(7, seen.size());
+        assertEquals(seen.stream().sorted().toList(), seen);
+    }
+
+    @Test
+    void testCachedReadsSkipTheDatabase() throws Exception {
+        CachingBlueprintPersistence cached = new CachingBlueprintPersistence(persistence, 100, Duration.ofMinutes(1));
+        cached.saveBlueprint(new Blueprint("john", "hot", List.of(new Point(1, 1))));
+
+        stats.clear();
+        for (int i = 0; i < 10; i++) cached.getBlueprint("john", "hot");
+        assertEquals(1, stats.getPrepareStatementCount());
+
+        // Tras escribir, la siguiente lectura vuelve a la base y ve el punto nuevo
+        cached.addPoint("john", "hot", 2, 2);
+        stats.clear();
+        assertEquals(2, cached.getBlueprint("john", "hot").getPoints().size());
+        assertEquals(1, stats.getPrepareStatementCount());
+    }
+
+    @Test
+    void testRegionQueries() throws Exception {
+        persistence.saveBlueprint(new Blueprint("john", "house",
+            List.of(new Point(0, 0), new Point(10, 0), new Point(10, 10), new Point(0, 10))));
+        persistence.saveBlueprint(new Blueprint("john", "garage", List.of(new Point(5, 5), new Point(15, 15))));
+        persistence.saveBlueprint(new Blueprint("jane", "empty"));
+
+        stats.clear();
+        List<Point> inside = persistence.getPointsInBox("john", "house", 5, -1, 20, 20);
+        assertEquals(1, stats.getPrepareStatementCount());
+        assertEquals(2, inside.size());
+        assertEquals(0, inside.get(0).getY());
+        assertEquals(10, inside.get(1).getY());
+        assertTrue(persistence.getPointsInBox("john", "house", 100, 100, 200, 200).isEmpty());
+        assertThrows(BlueprintNotFoundException.class,
+            () -> persistence.getPointsInBox("nadie", "nada", 0, 0, 1, 1));
+
+        stats.clear();
+        Set<BlueprintSummary> hits = persistence.getBlueprintsIntersecting(12, 12, 30, 30);
+        assertEquals(1, stats.getPrepareStatementCount());
+        assertEquals(Set.of(new BlueprintSummary("john", "garage", 2, 5, 5, 15, 15)), hits);
+        assertEquals(2, persistence.getBlueprintsIntersecting(6, 6, 6, 6).size());
+
+        // Los appends ensanchan las columnas de caja de la fila; la consulta no agrega puntos
+        persistence.addPoint("jane", "empty", 20, 20);
+        persistence.addPoints("john", "house", List.of(new Point(-5, 3), new Point(14, 25)));
+        stats.clear();
+        assertEquals(Set.of(new BlueprintSummary("jane", "empty", 1, 20, 20, 20, 20),
+                            new BlueprintSummary("john", "house", 6, -5, 0, 14, 25),
+                            new BlueprintSummary("john", "garage", 2, 5, 5, 15, 15)),
+            persistence.getBlueprintsIntersecting(12, 12, 30, 30));
+        assertEquals(1, stats.getPrepareStatementCount());
+        // Al cargar la entidad, la caja sale de las mismas columnas
+        assertArrayEquals(new int[] {-5, 0, 14, 25}, persistence.getBlueprint("john", "house").getBounds());
+    }
+
+    @Test
+    void testAddPointUnknownBlueprint() {
+        assertThrows(BlueprintNotFoundException.class, () -> persistence.addPoint("nadie", "nada", 1, 1));
+    }
+
+    @Test
+    void testConcurrentAppendersGetDistinctOrders() throws Exception {
+        persistence.saveBlueprint(new Blueprint("john", "shared"));
+        int writers = 8;
+        int perWriter = 25;
+        ExecutorService pool = Executors.newFixedThreadPool(writers);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int w = 0; w < writers; w++) {
+            int id = w;
+            futures.add(pool.submit(() -> {
+                for (int i = 0; i < perWriter; i++) persistence.addPoint("john", "shared", id, i);
+                return null;
+            }));
+        }
+        for (Future<?> f : futures) f.get();
+        pool.shutdown();
+
+        // point_order es parte de la llave primaria: un orden repetido habría fallado la inserción
+        List<Point> points = persistence.getBlueprint("john", "shared").getPoints();
+        assertEquals(writers * perWriter, points.size());
+        int[] next = new int[writers];
+        for (Point p : points) assertEquals(next[p.getX()]++, p.getY());
+    }
+}
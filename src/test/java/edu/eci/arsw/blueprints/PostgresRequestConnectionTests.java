@@ -0,0 +1,99 @@
+package edu.eci.arsw.blueprints;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.ModelAndView;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import com.zaxxer.hikari.HikariDataSource;
+
+import edu.eci.arsw.blueprints.model.Blueprint;
+import edu.eci.arsw.blueprints.model.Point;
+import edu.eci.arsw.blueprints.persistence.BlueprintPersistence;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Conexiones en uso durante peticiones REST con blueprints.persistence=postgres (sobre H2).
+ * Las peticiones se retienen después del controlador, mientras se escribe la respuesta: con
+ * open-in-view la conexión seguiría tomada hasta ese punto aunque el límite ya liberó el turno.
+ */
+@SpringBootTest(properties = {
+    "blueprints.persistence=postgres",
+    "blueprints.cache.enabled=false",
+    "blueprints.db.max-concurrency=2",
+    "spring.datasource.url=jdbc:h2:mem:requests;MODE=PostgreSQL;DB_CLOSE_DELAY=-1",
+    "spring.datasource.username=sa",
+    "spring.datasource.password=",
+    "spring.datasource.driver-class-name=org.h2.Driver",
+    "spring.datasource.hikari.maximum-pool-size=8",
+    "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+    "spring.jpa.show-sql=false"
+})
+@AutoConfigureMockMvc
+class PostgresRequestConnectionTests {
+
+    private static final int REQUESTS = 6;
+
+    static final CountDownLatch held = new CountDownLatch(REQUESTS);
+    static final CountDownLatch release = new CountDownLatch(1);
+
+    @TestConfiguration
+    static class HoldRequests implements WebMvcConfigurer {
+        @Override
+        public void addInterceptors(InterceptorRegistry registry) {
+            registry.addInterceptor(new HandlerInterceptor() {
+                @Override
+                public void postHandle(HttpServletRequest request, HttpServletResponse response,
+                                       Object handler, ModelAndView modelAndView) throws Exception {
+                    held.countDown();
+                    release.await();
+                }
+            }).addPathPatterns("/api/v1/blueprints/john/house");
+        }
+    }
+
+    @Autowired MockMvc mvc;
+    @Autowired BlueprintPersistence persistence;
+    @Autowired HikariDataSource dataSource;
+
+    @Test
+    void testHeldRequestsDoNotKeepConnections() throws Exception {
+        persistence.saveBlueprint(new Blueprint("john", "house", List.of(new Point(0, 0), new Point(1, 1))));
+
+        ExecutorService clients = Executors.newFixedThreadPool(REQUESTS);
+        try {
+            List<Future<Integer>> responses = new ArrayList<>();
+            for (int i = 0; i < REQUESTS; i++) {
+                responses.add(clients.submit(() ->
+                    mvc.perform(get("/api/v1/blueprints/john/house")).andReturn().getResponse().getStatus()));
+            }
+            assertTrue(held.await(30, TimeUnit.SECONDS));
+            int active = dataSource.getHikariPoolMXBean().getActiveConnections();
+            assertTrue(active <= 2, "conexiones en uso con " + REQUESTS + " peticiones retenidas: " + active);
+
+            release.countDown();
+            for (Future<Integer> status : responses) assertEquals(200, status.get(30, TimeUnit.SECONDS));
+        } finally {
+            release.countDown();
+            clients.shutdownNow();
+        }
+    }
+}
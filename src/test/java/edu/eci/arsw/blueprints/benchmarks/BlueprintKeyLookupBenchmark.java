@@ -0,0 +1,68 @@
+package edu.eci.arsw.blueprints.benchmarks;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import edu.eci.arsw.blueprints.model.Blueprint;
+import edu.eci.arsw.blueprints.persistence.BlueprintNotFoundException;
+import edu.eci.arsw.blueprints.persistence.BlueprintPersistenceException;
+import edu.eci.arsw.blueprints.persistence.InMemoryBlueprintPersistence;
+
+/**
+ * Compara la búsqueda con clave concatenada "author:name" (esquema anterior) contra
+ * los mapas anidados autor -> nombre de InMemoryBlueprintPersistence.
+ * La tasa de asignación se ve con el profiler de GC (gc.alloc.rate.norm en B/op):
+ * mvn -Pbenchmark test-compile exec:exec -Djmh.include="BlueprintKeyLookup -prof gc"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BlueprintKeyLookupBenchmark {
+
+    @Param({"10000"})
+    public int totalBlueprints;
+
+    private final Map<String, Blueprint> concatenated = new ConcurrentHashMap<>();
+    private InMemoryBlueprintPersistence persistence;
+    private String author;
+    private String name;
+
+    @Setup
+    public void setup() throws BlueprintPersistenceException {
+        persistence = new InMemoryBlueprintPersistence();
+        for (int i = 0; i < totalBlueprints; i++) {
+            Blueprint bp = new Blueprint("author" + (i / 10), "blueprint" + i);
+            persistence.saveBlueprint(bp);
+            concatenated.put(bp.getAuthor() + ":" + bp.getName(), bp);
+        }
+        // Strings nuevos (no los mismos objetos guardados) como llegarían de un @PathVariable
+        author = new String("author" + (totalBlueprints / 20));
+        name = new String("blueprint" + (totalBlueprints / 2));
+    }
+
+    @Benchmark
+    public Blueprint concatenatedKey() {
+        return concatenated.get(author + ":" + name);
+    }
+
+    @Benchmark
+    public Blueprint nestedMaps() throws BlueprintNotFoundException {
+        return persistence.getBlueprint(author, name);
+    }
+}
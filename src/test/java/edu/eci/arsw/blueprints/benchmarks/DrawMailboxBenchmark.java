@@ -0,0 +1,109 @@
+package edu.eci.arsw.blueprints.benchmarks;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+
+import edu.eci.arsw.blueprints.dto.BlueprintEvent;
+import edu.eci.arsw.blueprints.filters.IdentityFilter;
+import edu.eci.arsw.blueprints.model.Blueprint;
+import edu.eci.arsw.blueprints.model.Point;
+import edu.eci.arsw.blueprints.persistence.BlueprintNotFoundException;
+import edu.eci.arsw.blueprints.persistence.BlueprintPersistenceException;
+import edu.eci.arsw.blueprints.persistence.InMemoryBlueprintPersistence;
+import edu.eci.arsw.blueprints.services.BlueprintDrawMailboxes;
+import edu.eci.arsw.blueprints.services.BlueprintEventBroadcaster;
+import edu.eci.arsw.blueprints.services.BlueprintsServices;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Mensajes /app/draw por milisegundo con 8 hilos repartidos al azar sobre `blueprints` blueprints
+ * (1 = todos dibujan en el mismo), sin el broker: la publicación se descarta.
+ * direct es el camino anterior, addPoint y publish desde el hilo que recibe el mensaje; no
+ * bloquea, pero dos mensajes del mismo blueprint pueden publicar sus deltas en orden distinto al
+ * de su sequence. mailbox encola en BlueprintDrawMailboxes y espera a que su punto quede guardado
+ * y publicado, así que paga el cambio de hilo; a cambio los mensajes que coinciden en un
+ * blueprint se guardan juntos en una sola escritura.
+ * Los blueprints se crean de nuevo en cada iteración para que no crezcan sin límite.
+ * mvn -Pbenchmark test-compile exec:exec -Djmh.include=DrawMailboxBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(8)
+public class DrawMailboxBenchmark {
+
+    private static final String AUTHOR = "bench";
+
+    @Param({"1", "64"})
+    public int blueprints;
+
+    private String[] names;
+    private String[] topics;
+    private BlueprintsServices services;
+    private BlueprintEventBroadcaster broadcaster;
+    private BlueprintDrawMailboxes mailboxes;
+
+    @Setup(Level.Iteration)
+    public void setup() throws BlueprintPersistenceException {
+        InMemoryBlueprintPersistence persistence = new InMemoryBlueprintPersistence();
+        names = new String[blueprints];
+        topics = new String[blueprints];
+        for (int i = 0; i < blueprints; i++) {
+            names[i] = "bp" + i;
+            topics[i] = "/topic/blueprints.%s.%s".formatted(AUTHOR, names[i]);
+            persistence.saveBlueprint(new Blueprint(AUTHOR, names[i]));
+        }
+        MeterRegistry registry = new SimpleMeterRegistry();
+        services = new BlueprintsServices(persistence, new IdentityFilter(), registry);
+        broadcaster = new BlueprintEventBroadcaster(new SimpMessagingTemplate((message, timeout) -> true),
+                new Jackson2ObjectMapperBuilder(), registry, "json", 16, 1) {
+            @Override
+            public void publish(String destination, Object payload) {
+                // Sin broker: se mide solo el camino de escritura
+            }
+        };
+        mailboxes = new BlueprintDrawMailboxes(services, broadcaster, registry, 0, 256, 1_000_000, 60_000, false);
+    }
+
+    @TearDown(Level.Iteration)
+    public void tearDown() throws InterruptedException {
+        mailboxes.stop();
+    }
+
+    @Benchmark
+    public int direct() throws BlueprintNotFoundException {
+        int i = ThreadLocalRandom.current().nextInt(blueprints);
+        Point p = new Point(i, 7);
+        int sequence = services.addPoint(AUTHOR, names[i], p.getX(), p.getY());
+        broadcaster.publish(topics[i], BlueprintEvent.pointsAppended(AUTHOR, names[i], sequence, List.of(p)));
+        return sequence;
+    }
+
+    @Benchmark
+    public int mailbox() {
+        int i = ThreadLocalRandom.current().nextInt(blueprints);
+        return mailboxes.append(AUTHOR, names[i], List.of(new Point(i, 7))).join();
+    }
+}
@@ -0,0 +1,69 @@
+package edu.eci.arsw.blueprints.benchmarks;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import edu.eci.arsw.blueprints.filters.BlueprintsFilter;
+import edu.eci.arsw.blueprints.filters.FilterCatalog;
+import edu.eci.arsw.blueprints.model.Blueprint;
+import edu.eci.arsw.blueprints.model.Point;
+
+/**
+ * Costo de cada filtro del catálogo (y del pipeline redundancy,undersampling) sobre un trazo
+ * con puntos repetidos, como los que deja el dibujo colaborativo: cada punto se repite con
+ * probabilidad 1/4. Se mide apply() completo, sin la memoización de BlueprintsServices.
+ * mvn -Pbenchmark test-compile exec:exec -Djmh.include=FilterBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FilterBenchmark {
+
+    @Param({"identity", "redundancy", "undersampling", "douglas-peucker", "visvalingam", "redundancy,undersampling"})
+    public String filter;
+
+    @Param({"1000", "100000"})
+    public int points;
+
+    private BlueprintsFilter resolved;
+    private Blueprint stroke;
+
+    @Setup
+    public void setup() {
+        resolved = new FilterCatalog().resolve(filter);
+        Random random = new Random(1);
+        List<Point> pts = new ArrayList<>(points);
+        int x = 0;
+        int y = 0;
+        while (pts.size() < points) {
+            if (pts.isEmpty() || random.nextInt(4) != 0) {
+                x += random.nextInt(7) - 3;
+                y += random.nextInt(7) - 3;
+            }
+            pts.add(new Point(x, y));
+        }
+        stroke = new Blueprint("bench", "stroke", pts);
+    }
+
+    @Benchmark
+    public Blueprint apply() {
+        return resolved.apply(stroke);
+    }
+}
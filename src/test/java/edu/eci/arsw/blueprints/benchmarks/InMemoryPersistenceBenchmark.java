@@ -0,0 +1,102 @@
+package edu.eci.arsw.blueprints.benchmarks;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import edu.eci.arsw.blueprints.model.Blueprint;
+import edu.eci.arsw.blueprints.model.Point;
+import edu.eci.arsw.blueprints.persistence.BlueprintNotFoundException;
+import edu.eci.arsw.blueprints.persistence.BlueprintPersistenceException;
+import edu.eci.arsw.blueprints.persistence.InMemoryBlueprintPersistence;
+
+/**
+ * Operaciones de InMemoryBlueprintPersistence según la cantidad de blueprints del almacén y de
+ * puntos por blueprint. Cada autor tiene 10 blueprints; las lecturas eligen uno al azar.
+ * addPoint hace crecer un blueprint: cuando supera MAX_APPENDED puntos nuevos se reemplaza, para
+ * que la medición no dependa de la duración de la corrida. save se mide junto con delete por la
+ * misma razón.
+ * mvn -Pbenchmark test-compile exec:exec -Djmh.include=InMemoryPersistenceBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class InMemoryPersistenceBenchmark {
+
+    private static final int BLUEPRINTS_PER_AUTHOR = 10;
+    private static final int MAX_APPENDED = 1 << 16;
+
+    @Param({"1000", "100000"})
+    public int blueprints;
+
+    @Param({"10", "1000"})
+    public int points;
+
+    private InMemoryBlueprintPersistence persistence;
+    private List<Point> pts;
+    // Llaves precalculadas: se mide el almacén, no la concatenación de strings
+    private String[] authorOf;
+    private String[] nameOf;
+    private String[] authors;
+
+    @Setup
+    public void setup() throws BlueprintPersistenceException {
+        persistence = new InMemoryBlueprintPersistence();
+        pts = new ArrayList<>(points);
+        for (int i = 0; i < points; i++) pts.add(new Point(i, i * 2));
+        authors = new String[blueprints / BLUEPRINTS_PER_AUTHOR];
+        for (int a = 0; a < authors.length; a++) authors[a] = "author" + a;
+        authorOf = new String[blueprints];
+        nameOf = new String[blueprints];
+        for (int i = 0; i < blueprints; i++) {
+            authorOf[i] = authors[i / BLUEPRINTS_PER_AUTHOR];
+            nameOf[i] = "bp" + i;
+            persistence.saveBlueprint(new Blueprint(authorOf[i], nameOf[i], pts));
+        }
+        persistence.saveBlueprint(new Blueprint("writer", "target", pts));
+    }
+
+    @Benchmark
+    public Blueprint getBlueprint() throws BlueprintNotFoundException {
+        int i = ThreadLocalRandom.current().nextInt(blueprints);
+        return persistence.getBlueprint(authorOf[i], nameOf[i]);
+    }
+
+    @Benchmark
+    public Set<Blueprint> getBlueprintsByAuthor() throws BlueprintNotFoundException {
+        return persistence.getBlueprintsByAuthor(authors[ThreadLocalRandom.current().nextInt(authors.length)]);
+    }
+
+    @Benchmark
+    public int addPoint() throws BlueprintNotFoundException, BlueprintPersistenceException {
+        int sequence = persistence.addPoint("writer", "target", ThreadLocalRandom.current().nextInt(1_000), 7);
+        if (sequence >= points + MAX_APPENDED) {
+            persistence.deleteBlueprint("writer", "target");
+            persistence.saveBlueprint(new Blueprint("writer", "target", pts));
+        }
+        return sequence;
+    }
+
+    @Benchmark
+    public void saveAndDelete() throws BlueprintNotFoundException, BlueprintPersistenceException {
+        persistence.saveBlueprint(new Blueprint("writer", "scratch", pts));
+        persistence.deleteBlueprint("writer", "scratch");
+    }
+}
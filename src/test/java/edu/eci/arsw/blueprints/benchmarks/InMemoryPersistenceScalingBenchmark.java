@@ -0,0 +1,64 @@
+package edu.eci.arsw.blueprints.benchmarks;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import edu.eci.arsw.blueprints.model.Blueprint;
+import edu.eci.arsw.blueprints.model.Point;
+import edu.eci.arsw.blueprints.persistence.BlueprintNotFoundException;
+import edu.eci.arsw.blueprints.persistence.BlueprintPersistenceException;
+import edu.eci.arsw.blueprints.persistence.InMemoryBlueprintPersistence;
+
+/**
+ * Latencia de getBlueprintsByAuthor a medida que crece el total de blueprints.
+ * El autor consultado siempre tiene 10 blueprints; con el índice por autor la
+ * latencia debe mantenerse plana sin importar totalBlueprints.
+ * Ejecutar: mvn -Pbenchmark test-compile exec:exec -Djmh.include=InMemoryPersistenceScaling
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class InMemoryPersistenceScalingBenchmark {
+
+    private static final String AUTHOR = "target";
+    private static final int AUTHOR_BLUEPRINTS = 10;
+
+    @Param({"1000", "100000", "500000"})
+    public int totalBlueprints;
+
+    private InMemoryBlueprintPersistence persistence;
+
+    @Setup
+    public void setup() throws BlueprintPersistenceException {
+        persistence = new InMemoryBlueprintPersistence();
+        List<Point> pts = List.of(new Point(0, 0), new Point(1, 1));
+        for (int i = 0; i < AUTHOR_BLUEPRINTS; i++) {
+            persistence.saveBlueprint(new Blueprint(AUTHOR, "bp" + i, pts));
+        }
+        // El resto se reparte entre muchos autores (100 blueprints cada uno)
+        for (int i = AUTHOR_BLUEPRINTS; i < totalBlueprints; i++) {
+            persistence.saveBlueprint(new Blueprint("author" + (i / 100), "bp" + i, pts));
+        }
+    }
+
+    @Benchmark
+    public Set<Blueprint> byAuthor() throws BlueprintNotFoundException {
+        return persistence.getBlueprintsByAuthor(AUTHOR);
+    }
+}
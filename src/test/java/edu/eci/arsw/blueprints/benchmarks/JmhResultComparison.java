@@ -0,0 +1,84 @@
+package edu.eci.arsw.blueprints.benchmarks;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Compara dos resultados JSON de JMH (-rf json), por ejemplo el de main contra el de una rama.
+ * Empareja cada benchmark por nombre y parámetros e imprime el cambio de su puntaje; marca como
+ * regresión un empeoramiento mayor al umbral (10 % por defecto) que además supera la suma de los
+ * márgenes de error de ambas corridas. En modo thrpt un puntaje menor es peor; en los demás, mayor.
+ * Termina con código 1 si hay regresiones.
+ * mvn -Pbenchmark test-compile exec:exec@compare -Djmh.baseline=base.json [-Djmh.result=actual.json] [-Djmh.threshold=10]
+ */
+public final class JmhResultComparison {
+
+    private JmhResultComparison() {}
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.err.println("Uso: JmhResultComparison <base.json> <actual.json> [umbral %]");
+            System.exit(2);
+        }
+        double threshold = args.length > 2 ? Double.parseDouble(args[2]) / 100 : 0.10;
+        Map<String, JsonNode> baseline = read(new File(args[0]));
+        Map<String, JsonNode> current = read(new File(args[1]));
+
+        int regressions = 0;
+        int width = current.keySet().stream().mapToInt(String::length).max().orElse(0) + 2;
+        String row = "%-" + width + "s %14s %14s %9s%s%n";
+        System.out.printf(row, "Benchmark", "Base", "Actual", "Cambio", "");
+        for (Map.Entry<String, JsonNode> entry : current.entrySet()) {
+            JsonNode now = entry.getValue();
+            JsonNode before = baseline.get(entry.getKey());
+            double score = now.at("/primaryMetric/score").asDouble();
+            String unit = now.at("/primaryMetric/scoreUnit").asText();
+            if (before == null) {
+                System.out.printf(row, entry.getKey(), "-", "%.3f".formatted(score), "", "  " + unit + "  (nuevo)");
+                continue;
+            }
+            double base = before.at("/primaryMetric/score").asDouble();
+            double change = (score - base) / base;
+            boolean higherIsBetter = "thrpt".equals(now.path("mode").asText());
+            double worse = higherIsBetter ? -change : change;
+            double noise = error(before) + error(now);
+            boolean regression = worse > threshold && Math.abs(score - base) > noise;
+            if (regression) regressions++;
+            System.out.printf(row, entry.getKey(), "%.3f".formatted(base), "%.3f".formatted(score),
+                "%+.1f%%".formatted(change * 100), "  " + unit + (regression ? "  REGRESIÓN" : ""));
+        }
+        for (String missing : baseline.keySet()) {
+            if (!current.containsKey(missing)) System.out.printf(row, missing, "", "", "", "  (ya no existe)");
+        }
+        System.out.printf("%d regresiones sobre %.0f %%%n", regressions, threshold * 100);
+        if (regressions > 0) System.exit(1);
+    }
+
+    /* Margen de error del puntaje; JMH escribe NaN cuando hubo menos de dos iteraciones */
+    private static double error(JsonNode result) {
+        double error = result.at("/primaryMetric/scoreError").asDouble(0);
+        return Double.isNaN(error) ? 0 : error;
+    }
+
+    /* Resultados por "benchmark {param=valor, ...}", en orden */
+    private static Map<String, JsonNode> read(File file) throws IOException {
+        Map<String, JsonNode> results = new LinkedHashMap<>();
+        for (JsonNode result : new ObjectMapper().readTree(file)) {
+            Map<String, String> params = new TreeMap<>();
+            for (Iterator<Map.Entry<String, JsonNode>> it = result.path("params").fields(); it.hasNext(); ) {
+                Map.Entry<String, JsonNode> p = it.next();
+                params.put(p.getKey(), p.getValue().asText());
+            }
+            String name = result.path("benchmark").asText().replace("edu.eci.arsw.blueprints.benchmarks.", "");
+            results.put(params.isEmpty() ? name : name + " " + params, result);
+        }
+        return results;
+    }
+}
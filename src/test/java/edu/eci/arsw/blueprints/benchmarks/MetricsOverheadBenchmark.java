@@ -0,0 +1,125 @@
+package edu.eci.arsw.blueprints.benchmarks;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import edu.eci.arsw.blueprints.config.InMemoryPersistenceConfig;
+import edu.eci.arsw.blueprints.filters.IdentityFilter;
+import edu.eci.arsw.blueprints.model.Blueprint;
+import edu.eci.arsw.blueprints.model.Point;
+import edu.eci.arsw.blueprints.persistence.BlueprintNotFoundException;
+import edu.eci.arsw.blueprints.persistence.BlueprintPersistenceException;
+import edu.eci.arsw.blueprints.persistence.InMemoryBlueprintPersistence;
+import edu.eci.arsw.blueprints.services.BlueprintsServices;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.config.MeterFilter;
+import io.micrometer.core.instrument.distribution.DistributionStatisticConfig;
+import io.micrometer.prometheusmetrics.PrometheusConfig;
+import io.micrometer.prometheusmetrics.PrometheusMeterRegistry;
+
+/**
+ * Costo de las métricas en las operaciones más baratas del servicio (lectura y append en memoria),
+ * que es donde más se notan. registry=none usa un registro que descarta todo (el equivalente a
+ * management.metrics.enable.blueprints=false); prometheus usa los histogramas configurados en
+ * application.properties. La persistencia se envuelve como en InMemoryPersistenceConfig, para que
+ * también cuenten sus timers. Con 4 hilos se ve además la contención sobre los mismos timers.
+ * mvn -Pbenchmark test-compile exec:exec -Djmh.include=MetricsOverheadBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(4)
+public class MetricsOverheadBenchmark {
+
+    private static final int BLUEPRINTS = 1_000;
+    private static final int MAX_APPENDED = 1 << 16;
+
+    @Param({"none", "prometheus"})
+    public String registry;
+
+    private BlueprintsServices services;
+    private String[] names;
+
+    @Setup
+    public void setup() throws BlueprintPersistenceException {
+        InMemoryBlueprintPersistence persistence = new InMemoryBlueprintPersistence();
+        List<Point> pts = new ArrayList<>();
+        for (int i = 0; i < 100; i++) pts.add(new Point(i, i));
+        names = new String[BLUEPRINTS];
+        for (int i = 0; i < BLUEPRINTS; i++) {
+            names[i] = "bp" + i;
+            persistence.saveBlueprint(new Blueprint("bench", names[i], pts));
+        }
+        MeterRegistry meters = newRegistry();
+        services = new BlueprintsServices(
+            new InMemoryPersistenceConfig().instrumentedBlueprintPersistence(persistence, meters),
+            new IdentityFilter(), meters);
+    }
+
+    private MeterRegistry newRegistry() {
+        PrometheusMeterRegistry prometheus = new PrometheusMeterRegistry(PrometheusConfig.DEFAULT);
+        if ("none".equals(registry)) {
+            prometheus.config().meterFilter(MeterFilter.denyNameStartsWith("blueprints"));
+            return prometheus;
+        }
+        prometheus.config().meterFilter(new MeterFilter() {
+            @Override
+            public DistributionStatisticConfig configure(Meter.Id id, DistributionStatisticConfig config) {
+                return DistributionStatisticConfig.builder()
+                    .percentilesHistogram(true)
+                    .minimumExpectedValue((double) TimeUnit.MICROSECONDS.toNanos(1))
+                    .maximumExpectedValue((double) TimeUnit.SECONDS.toNanos(10))
+                    .build()
+                    .merge(config);
+            }
+        });
+        return prometheus;
+    }
+
+    @Benchmark
+    public Blueprint getBlueprint() throws BlueprintNotFoundException {
+        return services.getBlueprint("bench", names[ThreadLocalRandom.current().nextInt(BLUEPRINTS)]);
+    }
+
+    /* Cada hilo dibuja sobre su propio blueprint, así el reinicio no afecta a los demás */
+    @State(Scope.Thread)
+    public static class Writer {
+        private static final AtomicInteger NEXT = new AtomicInteger();
+        final String name = "target" + NEXT.getAndIncrement();
+        boolean saved;
+    }
+
+    @Benchmark
+    public int addPoint(Writer writer) throws BlueprintNotFoundException, BlueprintPersistenceException {
+        if (!writer.saved) {
+            services.addNewBlueprint(new Blueprint("writer", writer.name));
+            writer.saved = true;
+        }
+        int sequence = services.addPoint("writer", writer.name, ThreadLocalRandom.current().nextInt(1_000), 7);
+        if (sequence >= MAX_APPENDED) {
+            services.deleteBlueprint("writer", writer.name);
+            writer.saved = false;
+        }
+        return sequence;
+    }
+}
@@ -0,0 +1,78 @@
+package edu.eci.arsw.blueprints.benchmarks;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jol.info.GraphLayout;
+
+import edu.eci.arsw.blueprints.model.PackedPointList;
+import edu.eci.arsw.blueprints.model.Point;
+
+/**
+ * Agregar un punto a ArrayList<Point> frente a PackedPointList (el camino de cada /app/draw).
+ * La huella de `points` puntos en cada representación (JOL) se imprime al preparar cada valor del
+ * parámetro. Al llegar a `points` puntos la lista se reemplaza por una vacía, para que la medición
+ * no dependa de la duración de la corrida.
+ * mvn -Pbenchmark test-compile exec:exec -Djmh.include="PointStorage -prof gc"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PointStorageBenchmark {
+
+    @Param({"100000"})
+    public int points;
+
+    private List<Point> boxed;
+    private PackedPointList packed;
+    private int next;
+
+    @Setup
+    public void footprint() {
+        List<Point> boxedFull = new ArrayList<>();
+        PackedPointList packedFull = new PackedPointList();
+        for (int i = 0; i < points; i++) {
+            boxedFull.add(new Point(i, -i));
+            packedFull.add(i, -i);
+        }
+        long boxedBytes = GraphLayout.parseInstance(boxedFull).totalSize();
+        long packedBytes = GraphLayout.parseInstance(packedFull).totalSize();
+        System.out.printf("%nHuella de %d puntos: ArrayList<Point>=%d bytes (%.1f B/punto), PackedPointList=%d bytes (%.1f B/punto)%n",
+            points, boxedBytes, (double) boxedBytes / points, packedBytes, (double) packedBytes / points);
+    }
+
+    @Benchmark
+    public boolean arrayListAdd() {
+        if (next == points || boxed == null) {
+            boxed = new ArrayList<>();
+            next = 0;
+        }
+        int i = next++;
+        return boxed.add(new Point(i, -i));
+    }
+
+    @Benchmark
+    public int packedAdd() {
+        if (next == points || packed == null) {
+            packed = new PackedPointList();
+            next = 0;
+        }
+        int i = next++;
+        return packed.add(i, -i);
+    }
+}
@@ -0,0 +1,95 @@
+package edu.eci.arsw.blueprints.benchmarks;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import edu.eci.arsw.blueprints.filters.DouglasPeuckerFilter;
+import edu.eci.arsw.blueprints.filters.VisvalingamFilter;
+import edu.eci.arsw.blueprints.model.Blueprint;
+import edu.eci.arsw.blueprints.model.Point;
+
+/**
+ * Tiempo de los filtros de simplificación sobre dos entradas:
+ * stroke, un trazo a mano alzada simulado (caminata aleatoria con inercia), donde de 10^4 a 10^6
+ * puntos el tiempo debe crecer como n log n (del orden de 150x), no de forma cuadrática; y
+ * zigzag, un zigzag de amplitud decreciente, el peor caso de Douglas–Peucker (cada nivel corta
+ * junto al extremo y conserva todos los puntos). Ahí Douglas–Peucker crece como n·WINDOW
+ * (lineal, pero con una constante alta) y Visvalingam sigue en n log n.
+ * mvn -Pbenchmark test-compile exec:exec -Djmh.include=SimplificationFilter
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SimplificationFilterBenchmark {
+
+    @Param({"10000", "1000000"})
+    public int points;
+
+    @Param({"2.0"})
+    public double tolerance;
+
+    @Param({"stroke", "zigzag"})
+    public String shape;
+
+    private Blueprint stroke;
+    private DouglasPeuckerFilter douglasPeucker;
+    private VisvalingamFilter visvalingam;
+
+    @Setup
+    public void setup() {
+        List<Point> pts = "zigzag".equals(shape) ? zigzag(points) : stroke(points);
+        stroke = new Blueprint("bench", "stroke", pts);
+        douglasPeucker = new DouglasPeuckerFilter(tolerance);
+        // Área equivalente a un desvío de 'tolerance' sobre un segmento de longitud 'tolerance'
+        visvalingam = new VisvalingamFilter(tolerance * tolerance);
+    }
+
+    private static List<Point> stroke(int points) {
+        Random random = new Random(1);
+        List<Point> pts = new ArrayList<>(points);
+        double x = 0;
+        double y = 0;
+        double heading = 0;
+        for (int i = 0; i < points; i++) {
+            heading += random.nextGaussian() * 0.2;
+            x += Math.cos(heading) * 3;
+            y += Math.sin(heading) * 3;
+            pts.add(new Point((int) Math.round(x), (int) Math.round(y)));
+        }
+        return pts;
+    }
+
+    /* El punto más alejado de cada rango es siempre el siguiente al inicio: un corte por nivel */
+    private static List<Point> zigzag(int points) {
+        List<Point> pts = new ArrayList<>(points);
+        for (int i = 0; i < points; i++) pts.add(new Point(i, (i % 2 == 0 ? 1 : -1) * (points - i)));
+        return pts;
+    }
+
+    @Benchmark
+    public Blueprint douglasPeucker() {
+        return douglasPeucker.apply(stroke);
+    }
+
+    @Benchmark
+    public Blueprint visvalingam() {
+        return visvalingam.apply(stroke);
+    }
+}
@@ -0,0 +1,95 @@
+package edu.eci.arsw.blueprints.benchmarks;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import edu.eci.arsw.blueprints.config.WireFormat;
+import edu.eci.arsw.blueprints.dto.BlueprintEvent;
+import edu.eci.arsw.blueprints.model.Blueprint;
+import edu.eci.arsw.blueprints.model.Point;
+
+/**
+ * Codificación y decodificación de un blueprint completo (respuesta REST) y de un delta
+ * POINTS_APPENDED de 16 puntos (broadcast STOMP) en JSON, Smile y CBOR.
+ * El tamaño de cada payload se imprime al preparar cada combinación de parámetros.
+ * mvn -Pbenchmark test-compile exec:exec -Djmh.include=WireFormat
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class WireFormatBenchmark {
+
+    @Param({"json", "smile", "cbor"})
+    public String format;
+
+    @Param({"1000", "100000"})
+    public int points;
+
+    private ObjectMapper mapper;
+    private Blueprint blueprint;
+    private BlueprintEvent delta;
+    private byte[] encodedBlueprint;
+    private byte[] encodedDelta;
+
+    @Setup
+    public void setup() throws IOException {
+        mapper = WireFormat.of(format).newMapper(new Jackson2ObjectMapperBuilder());
+        Random random = new Random(1);
+        List<Point> pts = new ArrayList<>(points);
+        int x = 500;
+        int y = 500;
+        for (int i = 0; i < points; i++) {
+            // Trazo: coordenadas cercanas a la anterior, como las que llegan de /app/draw
+            x += random.nextInt(7) - 3;
+            y += random.nextInt(7) - 3;
+            pts.add(new Point(x, y));
+        }
+        blueprint = new Blueprint("bench", "stroke", pts);
+        delta = BlueprintEvent.pointsAppended("bench", "stroke", points - 16, pts.subList(points - 16, points));
+        encodedBlueprint = mapper.writeValueAsBytes(blueprint);
+        encodedDelta = mapper.writeValueAsBytes(delta);
+        System.out.printf("%n%s, %d puntos: blueprint=%d bytes (%.1f B/punto), delta de 16 puntos=%d bytes%n",
+            format, points, encodedBlueprint.length, (double) encodedBlueprint.length / points, encodedDelta.length);
+    }
+
+    @Benchmark
+    public byte[] encodeBlueprint() throws IOException {
+        return mapper.writeValueAsBytes(blueprint);
+    }
+
+    @Benchmark
+    public Blueprint decodeBlueprint() throws IOException {
+        return mapper.readValue(encodedBlueprint, Blueprint.class);
+    }
+
+    @Benchmark
+    public byte[] encodeDelta() throws IOException {
+        return mapper.writeValueAsBytes(delta);
+    }
+
+    @Benchmark
+    public BlueprintEvent decodeDelta() throws IOException {
+        return mapper.readValue(encodedDelta, BlueprintEvent.class);
+    }
+}
@@ -0,0 +1,179 @@
+package edu.eci.arsw.blueprints.loadtest;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Generador de carga REST de lazo cerrado, contra una aplicación ya levantada.
+ * loadtest.clients clientes concurrentes (un hilo virtual cada uno) repiten sin pausa una
+ * petición sobre uno de loadtest.blueprints blueprints al azar: loadtest.writes % son
+ * PUT /{author}/{bpname}/points y el resto GET /{author}/{bpname}. Los primeros loadtest.warmup
+ * segundos no se cuentan; luego mide durante loadtest.duration segundos y reporta peticiones por
+ * segundo, p50/p99/p999, respuestas por código (503 = límite de concurrencia de la base) y la CPU,
+ * el heap, los hilos del sistema y las esperas por la base del servidor, de /actuator/metrics.
+ * Para comparar hilos de plataforma con hilos virtuales se corre dos veces contra el servidor
+ * levantado con spring.threads.virtual.enabled=false y =true (con blueprints.persistence=postgres
+ * las peticiones bloquean en JDBC, que es donde se nota):
+ * mvn -Ploadtest test-compile exec:exec -Dloadtest.main=edu.eci.arsw.blueprints.loadtest.RestLoadGenerator -Dloadtest.clients=5000
+ * Cada cliente mantiene su propia conexión: puede hacer falta subir ulimit -n.
+ */
+public final class RestLoadGenerator {
+
+    private static final String AUTHOR = "load";
+
+    private final String server = System.getProperty("loadtest.server", "http://localhost:8080");
+    private final int clients = Integer.getInteger("loadtest.clients", 5_000);
+    private final int blueprints = Integer.getInteger("loadtest.blueprints", 10);
+    private final int writes = Integer.getInteger("loadtest.writes", 10);
+    private final int warmup = Integer.getInteger("loadtest.warmup", 5);
+    private final int duration = Integer.getInteger("loadtest.duration", 30);
+
+    private final HttpClient http = HttpClient.newBuilder()
+        .executor(Executors.newVirtualThreadPerTaskExecutor())
+        .connectTimeout(Duration.ofSeconds(10))
+        .build();
+    private final ObjectMapper json = new ObjectMapper();
+    private final Recorder latencies = new Recorder(3);
+    private final LongAdder ok = new LongAdder();
+    private final LongAdder unavailable = new LongAdder();
+    private final LongAdder otherStatus = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private final List<double[]> serverSamples = new CopyOnWriteArrayList<>();
+    private volatile boolean measuring;
+    private volatile boolean running = true;
+
+    public static void main(String[] args) throws Exception {
+        new RestLoadGenerator().run();
+        System.exit(0);
+    }
+
+    private void run() throws Exception {
+        System.out.printf("%d clientes, %d blueprints, %d %% escrituras, %d s (+%d s de calentamiento) contra %s%n",
+            clients, blueprints, writes, duration, warmup, server);
+        for (int k = 0; k < blueprints; k++) createBlueprint(k);
+
+        ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor();
+        try (ExecutorService pool = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < clients; i++) pool.submit(this::client);
+            Thread.sleep(warmup * 1_000L);
+
+            latencies.reset();
+            measuring = true;
+            long start = System.nanoTime();
+            scheduler.scheduleAtFixedRate(this::sampleServer, 0, 1, TimeUnit.SECONDS);
+            Thread.sleep(duration * 1_000L);
+            measuring = false;
+            double elapsed = (System.nanoTime() - start) / 1e9;
+            scheduler.shutdownNow();
+            running = false;
+            report(elapsed);
+            pool.shutdownNow();
+        }
+    }
+
+    private void createBlueprint(int k) throws Exception {
+        String body = json.writeValueAsString(new NewBlueprint(AUTHOR, "bp" + k, List.of()));
+        HttpRequest request = HttpRequest.newBuilder(URI.create(server + "/api/v1/blueprints"))
+            .header("Content-Type", "application/json")
+            .POST(HttpRequest.BodyPublishers.ofString(body))
+            .build();
+        // 400 si ya existe de una corrida anterior: se reutiliza
+        http.send(request, HttpResponse.BodyHandlers.discarding());
+    }
+
+    /* Un cliente: la siguiente petición sale cuando llega la respuesta de la anterior */
+    private void client() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        while (running) {
+            String path = server + "/api/v1/blueprints/" + AUTHOR + "/bp" + random.nextInt(blueprints);
+            HttpRequest request = random.nextInt(100) < writes
+                ? HttpRequest.newBuilder(URI.create(path + "/points"))
+                    .header("Content-Type", "application/json")
+                    .PUT(HttpRequest.BodyPublishers.ofString("{\"x\":%d,\"y\":%d}".formatted(random.nextInt(1_000), random.nextInt(1_000))))
+                    .build()
+                : HttpRequest.newBuilder(URI.create(path)).GET().build();
+            long sent = System.nanoTime();
+            try {
+                int status = http.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+                if (!measuring) continue;
+                latencies.recordValue((System.nanoTime() - sent) / 1_000);
+                if (status < 300) ok.increment();
+                else if (status == 503) unavailable.increment();
+                else otherStatus.increment();
+            } catch (IOException e) {
+                if (measuring) failed.increment();
+            } catch (InterruptedException e) {
+                return;
+            }
+        }
+    }
+
+    private void sampleServer() {
+        try {
+            double cpu = metric("process.cpu.usage");
+            double heap = metric("jvm.memory.used?tag=area:heap");
+            double threads = metric("jvm.threads.live");
+            double waiting;
+            try {
+                waiting = metric("blueprints.db.waiting");
+            } catch (IllegalStateException e) {
+                waiting = 0; // sin Postgres no hay límite de concurrencia
+            }
+            serverSamples.add(new double[] {cpu, heap, threads, waiting});
+        } catch (Exception e) {
+            // sin actuator no hay muestras; se reporta al final
+        }
+    }
+
+    private double metric(String name) throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(server + "/actuator/metrics/" + name)).GET().build();
+        HttpResponse<String> response = http.send(request, HttpResponse.BodyHandlers.ofString(StandardCharsets.UTF_8));
+        if (response.statusCode() != 200) throw new IllegalStateException(name + ": " + response.statusCode());
+        return json.readTree(response.body()).at("/measurements/0/value").asDouble();
+    }
+
+    private void report(double elapsed) {
+        Histogram h = latencies.getIntervalHistogram();
+        long done = ok.sum() + unavailable.sum() + otherStatus.sum();
+        System.out.printf(Locale.ROOT, "%nRespuestas: %d en %.1f s = %.0f req/s   2xx=%d 503=%d otras=%d   errores de red=%d%n",
+            done, elapsed, done / elapsed, ok.sum(), unavailable.sum(), otherStatus.sum(), failed.sum());
+        System.out.printf(Locale.ROOT, "Latencia (ms): p50=%.2f p99=%.2f p999=%.2f max=%.2f%n",
+            h.getValueAtPercentile(50) / 1e3, h.getValueAtPercentile(99) / 1e3,
+            h.getValueAtPercentile(99.9) / 1e3, h.getMaxValue() / 1e3);
+        if (serverSamples.isEmpty()) {
+            System.out.println("Servidor: sin muestras de /actuator/metrics");
+            return;
+        }
+        List<double[]> samples = new ArrayList<>(serverSamples);
+        System.out.printf(Locale.ROOT,
+            "Servidor: CPU media=%.1f %% máx=%.1f %%   heap máx=%.1f MB   hilos del sistema máx=%.0f   esperando la base máx=%.0f (%d muestras)%n",
+            samples.stream().mapToDouble(s -> s[0]).average().orElse(0) * 100,
+            samples.stream().mapToDouble(s -> s[0]).max().orElse(0) * 100,
+            samples.stream().mapToDouble(s -> s[1]).max().orElse(0) / (1 << 20),
+            samples.stream().mapToDouble(s -> s[2]).max().orElse(0),
+            samples.stream().mapToDouble(s -> s[3]).max().orElse(0),
+            samples.size());
+    }
+
+    private record NewBlueprint(String author, String name, List<Object> points) {}
+}
@@ -0,0 +1,257 @@
+package edu.eci.arsw.blueprints.loadtest;
+
+import java.lang.reflect.Type;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.messaging.converter.SimpleMessageConverter;
+import org.springframework.messaging.simp.stomp.StompFrameHandler;
+import org.springframework.messaging.simp.stomp.StompHeaders;
+import org.springframework.messaging.simp.stomp.StompSession;
+import org.springframework.messaging.simp.stomp.StompSessionHandlerAdapter;
+import org.springframework.util.MimeType;
+import org.springframework.util.MimeTypeUtils;
+import org.springframework.web.socket.client.standard.StandardWebSocketClient;
+import org.springframework.web.socket.messaging.WebSocketStompClient;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import edu.eci.arsw.blueprints.config.WireFormat;
+
+/**
+ * Generador de carga para el dibujo colaborativo por STOMP, contra una aplicación ya levantada.
+ * Abre loadtest.sessions sesiones en /ws-blueprints; la sesión i se suscribe a
+ * /topic/blueprints.load.bp{k} con k = i % loadtest.blueprints y, entre todas y por turnos,
+ * envían loadtest.rate mensajes por segundo a /app/draw durante loadtest.duration segundos,
+ * cada una a su propio blueprint.
+ * La x de cada punto enviado es su número de mensaje: cada suscriptor que recibe el
+ * POINTS_APPENDED mide la latencia de punta a punta (envío a /app/draw, broadcast recibido).
+ * Al final reporta p50/p99/p999, entregas perdidas (esperadas según los suscriptores de cada
+ * blueprint menos recibidas) y la CPU y el heap del servidor muestreados cada segundo en
+ * /actuator/metrics. Los broadcasts en Smile o CBOR (blueprints.stomp.format) también se leen.
+ * mvn -Ploadtest test-compile exec:exec -Dloadtest.sessions=2000 -Dloadtest.rate=500
+ * Con miles de sesiones puede hacer falta subir el límite de descriptores (ulimit -n).
+ */
+public final class StompLoadGenerator {
+
+    private static final String AUTHOR = "load";
+    private static final int MAX_CONNECTING = 50;
+    private static final ObjectMapper SMILE = WireFormat.SMILE.newMapper(new Jackson2ObjectMapperBuilder());
+    private static final ObjectMapper CBOR = WireFormat.CBOR.newMapper(new Jackson2ObjectMapperBuilder());
+
+    private final String url = System.getProperty("loadtest.url", "ws://localhost:8080/ws-blueprints");
+    private final String server = System.getProperty("loadtest.server", "http://localhost:8080");
+    private final int sessions = Integer.getInteger("loadtest.sessions", 1_000);
+    private final int blueprints = Integer.getInteger("loadtest.blueprints", 10);
+    private final int rate = Integer.getInteger("loadtest.rate", 200);
+    private final int duration = Integer.getInteger("loadtest.duration", 30);
+    private final int drain = Integer.getInteger("loadtest.drain", 5);
+
+    private final HttpClient http = HttpClient.newHttpClient();
+    private final ObjectMapper json = new ObjectMapper();
+    private final Recorder latencies = new Recorder(3);
+    private final LongAdder received = new LongAdder();
+    private final LongAdder unknown = new LongAdder();
+    private final int[] subscribers = new int[blueprints];
+    // Nanos de envío por número de mensaje; la x de cada punto es el índice
+    private final AtomicLongArray sentAt = new AtomicLongArray((int) Math.min(Integer.MAX_VALUE - 8, (long) rate * duration + 1_000));
+    private final List<double[]> serverSamples = new CopyOnWriteArrayList<>();
+
+    public static void main(String[] args) throws Exception {
+        new StompLoadGenerator().run();
+        System.exit(0);
+    }
+
+    private void run() throws Exception {
+        System.out.printf("%d sesiones, %d blueprints, %d msg/s durante %d s contra %s%n", sessions, blueprints, rate, duration, url);
+        for (int k = 0; k < blueprints; k++) createBlueprint(k);
+
+        WebSocketStompClient client = new WebSocketStompClient(new StandardWebSocketClient());
+        client.setMessageConverter(new SimpleMessageConverter());
+        client.setDefaultHeartbeat(new long[] {0, 0});
+        List<StompSession> connected = connect(client);
+        if (connected.isEmpty()) {
+            System.out.println("Ninguna sesión conectó; ¿está la aplicación levantada?");
+            return;
+        }
+        // Las suscripciones se procesan de forma asíncrona en el servidor
+        Thread.sleep(1_000);
+
+        ScheduledExecutorService scheduler = Executors.newScheduledThreadPool(2);
+        scheduler.scheduleAtFixedRate(this::sampleServer, 0, 1, TimeUnit.SECONDS);
+        long expected = drive(connected);
+        Thread.sleep(drain * 1_000L);
+        scheduler.shutdownNow();
+
+        report(connected.size(), expected);
+        connected.forEach(StompSession::disconnect);
+    }
+
+    private void createBlueprint(int k) throws Exception {
+        String body = json.writeValueAsString(new NewBlueprint(AUTHOR, "bp" + k, List.of()));
+        HttpRequest request = HttpRequest.newBuilder(URI.create(server + "/api/v1/blueprints"))
+            .header("Content-Type", "application/json")
+            .POST(HttpRequest.BodyPublishers.ofString(body))
+            .build();
+        // 400 si ya existe de una corrida anterior: se reutiliza
+        http.send(request, HttpResponse.BodyHandlers.discarding());
+    }
+
+    private List<StompSession> connect(WebSocketStompClient client) throws InterruptedException {
+        Semaphore connecting = new Semaphore(MAX_CONNECTING);
+        AtomicInteger failed = new AtomicInteger();
+        List<CompletableFuture<StompSession>> futures = new ArrayList<>(sessions);
+        for (int i = 0; i < sessions; i++) {
+            int topic = i % blueprints;
+            connecting.acquire();
+            CompletableFuture<StompSession> future = client.connectAsync(url, new StompSessionHandlerAdapter() {
+                @Override
+                public void afterConnected(StompSession session, StompHeaders connectedHeaders) {
+                    session.subscribe("/topic/blueprints.%s.bp%d".formatted(AUTHOR, topic), new Receiver());
+                }
+            });
+            future.whenComplete((session, error) -> {
+                connecting.release();
+                if (error != null) failed.incrementAndGet();
+            });
+            futures.add(future);
+        }
+        List<StompSession> connected = new ArrayList<>();
+        for (int i = 0; i < futures.size(); i++) {
+            try {
+                connected.add(futures.get(i).get(30, TimeUnit.SECONDS));
+                subscribers[i % blueprints]++;
+            } catch (Exception e) {
+                // ya contada en failed
+            }
+        }
+        System.out.printf("Conectadas %d de %d sesiones (%d fallidas)%n", connected.size(), sessions, failed.get());
+        return connected;
+    }
+
+    /* Envía a ritmo constante desde este hilo; retorna cuántas entregas se esperan */
+    private long drive(List<StompSession> connected) throws Exception {
+        long expected = 0;
+        int sent = 0;
+        long start = System.nanoTime();
+        long end = start + TimeUnit.SECONDS.toNanos(duration);
+        long now;
+        while ((now = System.nanoTime()) < end && sent < sentAt.length()) {
+            long due = (now - start) * rate / 1_000_000_000L;
+            while (sent < due && sent < sentAt.length()) {
+                int index = sent % connected.size();
+                int topic = index % blueprints;
+                StompHeaders headers = new StompHeaders();
+                headers.setDestination("/app/draw");
+                headers.setContentType(MimeTypeUtils.APPLICATION_JSON);
+                byte[] payload = json.writeValueAsBytes(new DrawMessage(AUTHOR, "bp" + topic, new DrawPoint(sent, index)));
+                sentAt.set(sent, System.nanoTime());
+                connected.get(index).send(headers, payload);
+                expected += subscribers[topic];
+                sent++;
+            }
+            Thread.sleep(1);
+        }
+        System.out.printf("Enviados %d mensajes en %.1f s%n", sent, (System.nanoTime() - start) / 1e9);
+        return expected;
+    }
+
+    private void sampleServer() {
+        try {
+            double cpu = metric("process.cpu.usage");
+            double heap = metric("jvm.memory.used?tag=area:heap");
+            serverSamples.add(new double[] {cpu, heap});
+        } catch (Exception e) {
+            // sin actuator no hay muestras; se reporta al final
+        }
+    }
+
+    private double metric(String name) throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(server + "/actuator/metrics/" + name)).GET().build();
+        HttpResponse<String> response = http.send(request, HttpResponse.BodyHandlers.ofString(StandardCharsets.UTF_8));
+        if (response.statusCode() != 200) throw new IllegalStateException(name + ": " + response.statusCode());
+        return json.readTree(response.body()).at("/measurements/0/value").asDouble();
+    }
+
+    private void report(int connected, long expected) {
+        Histogram h = latencies.getIntervalHistogram();
+        long got = received.sum();
+        System.out.printf("%nSesiones: %d   entregas esperadas: %d   recibidas: %d   perdidas: %d (%.3f %%)%n",
+            connected, expected, got, Math.max(0, expected - got), expected == 0 ? 0 : 100.0 * Math.max(0, expected - got) / expected);
+        if (unknown.sum() > 0) System.out.printf("Puntos de otras corridas o de otros clientes ignorados: %d%n", unknown.sum());
+        System.out.printf(Locale.ROOT, "Latencia (ms): p50=%.2f p99=%.2f p999=%.2f max=%.2f%n",
+            h.getValueAtPercentile(50) / 1e3, h.getValueAtPercentile(99) / 1e3,
+            h.getValueAtPercentile(99.9) / 1e3, h.getMaxValue() / 1e3);
+        if (serverSamples.isEmpty()) {
+            System.out.println("Servidor: sin muestras de /actuator/metrics");
+            return;
+        }
+        double cpuAvg = serverSamples.stream().mapToDouble(s -> s[0]).average().orElse(0);
+        double cpuMax = serverSamples.stream().mapToDouble(s -> s[0]).max().orElse(0);
+        double heapMax = serverSamples.stream().mapToDouble(s -> s[1]).max().orElse(0);
+        System.out.printf(Locale.ROOT, "Servidor: CPU media=%.1f %% máx=%.1f %%   heap máx=%.1f MB (%d muestras)%n",
+            cpuAvg * 100, cpuMax * 100, heapMax / (1 << 20), serverSamples.size());
+    }
+
+    /* Lee los POINTS_APPENDED en el formato que indique el content-type y registra la latencia de cada punto */
+    private final class Receiver implements StompFrameHandler {
+
+        @Override
+        public Type getPayloadType(StompHeaders headers) {
+            return byte[].class;
+        }
+
+        @Override
+        public void handleFrame(StompHeaders headers, Object payload) {
+            long now = System.nanoTime();
+            try {
+                JsonNode event = mapperFor(headers.getContentType()).readTree((byte[]) payload);
+                if (!"POINTS_APPENDED".equals(event.path("eventType").asText())) return;
+                for (JsonNode point : event.path("points")) {
+                    int id = point.path("x").asInt(-1);
+                    long sent = id >= 0 && id < sentAt.length() ? sentAt.get(id) : 0;
+                    if (sent == 0) {
+                        unknown.increment();
+                        continue;
+                    }
+                    latencies.recordValue(Math.max(0, (now - sent) / 1_000));
+                    received.increment();
+                }
+            } catch (Exception e) {
+                unknown.increment();
+            }
+        }
+    }
+
+    private ObjectMapper mapperFor(MimeType contentType) {
+        String format = contentType == null ? null : contentType.getParameter("format");
+        if ("smile".equals(format)) return SMILE;
+        if ("cbor".equals(format)) return CBOR;
+        return json;
+    }
+
+    private record NewBlueprint(String author, String name, List<DrawPoint> points) {}
+
+    private record DrawPoint(int x, int y) {}
+
+    private record DrawMessage(String author, String name, DrawPoint point) {}
+}